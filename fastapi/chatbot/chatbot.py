@@ -6,7 +6,8 @@
 
 # ===== 기본 임포트 =====
 # 표준/서드파티 라이브러리 로드 (FastAPI, OpenAI, MongoDB, APScheduler, GCP TTS, yfinance, pandas 등)
-import os, logging, subprocess, io, requests, tempfile, re, shutil, json
+import os, logging, subprocess, io, requests, tempfile, re, shutil, json, time, wave
+from contextlib import contextmanager
 from typing import Dict, Any, List, Optional
 from pathlib import Path
 from datetime import datetime, timezone, timedelta
@@ -18,6 +19,7 @@ from fastapi.responses import JSONResponse, StreamingResponse
 
 from openai import OpenAI
 from pymongo import MongoClient, DESCENDING
+from bson import ObjectId
 from apscheduler.schedulers.background import BackgroundScheduler
 from google.cloud import texttospeech
 from google.oauth2 import service_account
@@ -194,6 +196,53 @@ def fetch_latest_topn_from_mongo(n: int = 5):
             r["published_at"] = ""
     return rows
 
+def _iso(v) -> str:
+    # datetime/문자열 시각 → ISO 문자열 (naive datetime 은 UTC 로 간주)
+    if isinstance(v, datetime):
+        if v.tzinfo is None: v = v.replace(tzinfo=timezone.utc)
+        return v.isoformat()
+    return v if isinstance(v, str) else ""
+
+def _feed_id(after_id: str):
+    # cursor 의 id 문자열 → 저장된 _id 타입 (ObjectId 로 저장돼 있으면 같은 타입으로 비교해야 $gt 가 맞음)
+    return ObjectId(after_id) if ObjectId.is_valid(after_id) else after_id
+
+def fetch_news_feed(since: Optional[str] = None, after_id: str = "", limit: int = 200):
+    # 게이트웨이 뉴스 읽기 모델용 증분 피드
+    # since 없음: 최신 limit 건(최초 1회) / since 있음: (collected_at, _id) > (since, after_id) 를 수집 순으로
+    # 같은 collected_at 이 limit 건보다 많아도 _id 로 이어 받도록 cursor 는 (collected_at, _id) 쌍 (after_id 가 비면 since 시각 포함)
+    coll = _get_db()[COLL_NAME]
+    limit = max(1, min(500, int(limit)))
+    proj = {"_id": 1, "title": 1, "url": 1, "published_at": 1, "collected_at": 1}
+    if since is not None:
+        if after_id:
+            q = {"$or": [{"collected_at": {"$gt": since}},
+                         {"collected_at": since, "_id": {"$gt": _feed_id(after_id)}}]}
+        else:
+            q = {"collected_at": {"$gte": since}}
+        rows = list(coll.find(q, proj).sort([("collected_at", 1), ("_id", 1)]).limit(limit))
+    else:
+        rows = list(coll.aggregate([
+            {"$addFields": {"_p": {"$ifNull": ["$published_at", "$collected_at"]}}},
+            {"$sort": {"_p": -1}},
+            {"$limit": limit},
+            {"$project": proj},
+        ]))
+    items = [{
+        "id": str(r.get("_id")),
+        "title": (r.get("title") or "").strip(),
+        "url": (r.get("url") or "").strip(),
+        "published_at": _iso(r.get("published_at")),
+        "collected_at": _iso(r.get("collected_at")),
+    } for r in rows]
+    if since is not None:
+        # 수집 순 마지막 건이 다음 cursor
+        last = items[-1] if items else {"collected_at": since, "id": after_id}
+        return {"items": items, "cursor": last["collected_at"], "cursor_id": last["id"]}
+    # 최초 적재는 발행 순이라 같은 시각의 나머지를 놓치지 않도록 id 없이 (다음 poll 에서 그 시각부터 포함)
+    cursor = max([i["collected_at"] for i in items if i["collected_at"]] + [""])
+    return {"items": items, "cursor": cursor, "cursor_id": ""}
+
 def format_topn_md(rows):
     # 뉴스 목록을 간단한 MD 텍스트로 변환
     if not rows: return "최신 경제 뉴스가 없습니다."
@@ -658,6 +707,27 @@ def add_turn(session_id: str, role: str, content: str):
     if len(sess) > 2 * MAX_TURNS:
         SESSIONS[session_id] = sess[-2*MAX_TURNS:]
 
+# ===== 구간 시간 측정 =====
+# 요청 내 구간(gpt_1, tool_*, gpt_2, db)을 Server-Timing 형식으로 돌려줌 → 게이트웨이가 trace span 으로 기록
+class Timings:
+    def __init__(self):
+        self.t0 = time.perf_counter()
+        self.items = []
+
+    @contextmanager
+    def span(self, name: str):
+        s = time.perf_counter()
+        try:
+            yield
+        finally:
+            self.items.append((name, (s - self.t0) * 1000, (time.perf_counter() - s) * 1000))
+
+    def header(self) -> str:
+        return ", ".join(f"{n};start={st:.1f};dur={d:.1f}" for n, st, d in self.items)
+
+def _timed(body: dict, tm: Timings) -> JSONResponse:
+    return JSONResponse(content=body, headers={"Server-Timing": tm.header()} if tm.items else None)
+
 # ===== 메인 챗 엔드포인트 =====
 # 사용자 메시지 → OpenAI → (필요시) 함수 호출 → 최종 답변
 @app.post("/api/chat")
@@ -667,31 +737,36 @@ async def chat(payload: dict = Body(...)):
     session_id = payload.get("session_id", "default")
     if not user_msg:
         return {"answer": "질문이 비어있습니다."}
+    tm = Timings()
 
     # "뉴스 최신/Top N" 빠른 경로 처리
     m = re.search(r"top\s*(\d{1,2})", user_msg, flags=re.IGNORECASE)
     if "뉴스" in user_msg and ("최신" in user_msg or m):
         try:
             n = max(1, min(50, int(m.group(1)))) if m else 5
-            rows = fetch_latest_topn_from_mongo(n)
-            return {"answer": format_topn_md(rows)}
+            with tm.span("db_latest_news"):
+                rows = fetch_latest_topn_from_mongo(n)
+            return _timed({"answer": format_topn_md(rows)}, tm)
         except Exception:
-            return {"answer": "DB 조회 오류. 잠시 후 다시 시도해 주세요."}
+            return _timed({"answer": "DB 조회 오류. 잠시 후 다시 시도해 주세요."}, tm)
 
-    # 세션 히스토리 구성
+    # 세션 히스토리 구성 (게이트웨이가 history 를 보내면 그것만 사용, 서버 세션은 건드리지 않음)
+    history = payload.get("history")
+    stateless = isinstance(history, list)
     msgs = [{"role": "system", "content": SYSTEM_INSTRUCTIONS}]
-    for t in get_session(session_id):
+    for t in (history if stateless else get_session(session_id)):
         msgs.append({"role": t["role"], "content": t["content"]})
     msgs.append({"role": "user", "content": user_msg})
 
     try:
         # 1차 응답(도구 사용 여부 판단)
-        comp = client.chat.completions.create(
-            model="gpt-5",
-            messages=msgs,
-            tools=TOOLS,
-            tool_choice="auto",
-        )
+        with tm.span("gpt_1"):
+            comp = client.chat.completions.create(
+                model="gpt-5",
+                messages=msgs,
+                tools=TOOLS,
+                tool_choice="auto",
+            )
         msg = comp.choices[0].message
 
         # 도구 호출 시: 실행 결과를 재주입해 최종 응답 생성
@@ -700,23 +775,115 @@ async def chat(payload: dict = Body(...)):
             for tc in msg.tool_calls:
                 fn = tc.function.name
                 args = json.loads(tc.function.arguments or "{}")
-                result = run_tool(fn, args)
+                with tm.span("tool_" + fn):
+                    result = run_tool(fn, args)
                 tool_msgs.append({"role": "tool", "tool_call_id": tc.id, "content": json.dumps(result, ensure_ascii=False)})
 
-            final = client.chat.completions.create(
-                model="gpt-5",
-                messages=msgs + [msg] + tool_msgs
-            )
+            with tm.span("gpt_2"):
+                final = client.chat.completions.create(
+                    model="gpt-5",
+                    messages=msgs + [msg] + tool_msgs
+                )
             answer = final.choices[0].message.content or "응답 생성 실패"
         else:
             answer = msg.content or "응답 생성 실패"
 
-        add_turn(session_id, "user", user_msg)
-        add_turn(session_id, "assistant", answer)
-        return {"answer": answer, "session_id": session_id}
+        if not stateless:
+            add_turn(session_id, "user", user_msg)
+            add_turn(session_id, "assistant", answer)
+        return _timed({"answer": answer, "session_id": session_id}, tm)
     except Exception as e:
         log.exception("chat failed")
-        return {"answer": "일시적 오류가 발생했습니다. 잠시 후 다시 시도해주세요."}
+        return _timed({"answer": "일시적 오류가 발생했습니다. 잠시 후 다시 시도해주세요."}, tm)
+
+# ===== 스트리밍 챗 엔드포인트 (SSE) =====
+# 토큰 단위로 data: {"delta": ...} 송신, 마지막에 event: done
+def _sse(data: dict, event: Optional[str] = None) -> str:
+    head = f"event: {event}\n" if event else ""
+    return head + "data: " + json.dumps(data, ensure_ascii=False) + "\n\n"
+
+@app.post("/chat/stream")
+def chat_stream(payload: dict = Body(...)):
+    user_msg = (payload.get("message") or "").strip()
+    session_id = payload.get("session_id", "default")
+
+    def gen():
+        tm = Timings()
+        if not user_msg:
+            yield _sse({"delta": "질문이 비어있습니다."})
+            yield _sse({"session_id": session_id}, "done")
+            return
+
+        # "뉴스 최신/Top N" 빠른 경로는 한 번에 송신
+        m = re.search(r"top\s*(\d{1,2})", user_msg, flags=re.IGNORECASE)
+        if "뉴스" in user_msg and ("최신" in user_msg or m):
+            try:
+                n = max(1, min(50, int(m.group(1)))) if m else 5
+                with tm.span("db_latest_news"):
+                    rows = fetch_latest_topn_from_mongo(n)
+                yield _sse({"delta": format_topn_md(rows)})
+            except Exception:
+                yield _sse({"delta": "DB 조회 오류. 잠시 후 다시 시도해 주세요."})
+            yield _sse({"session_id": session_id, "server_timing": tm.header()}, "done")
+            return
+
+        history = payload.get("history")
+        stateless = isinstance(history, list)
+        msgs = [{"role": "system", "content": SYSTEM_INSTRUCTIONS}]
+        for t in (history if stateless else get_session(session_id)):
+            msgs.append({"role": t["role"], "content": t["content"]})
+        msgs.append({"role": "user", "content": user_msg})
+
+        try:
+            # 1차 호출도 스트리밍: 본문 delta는 바로 송신, tool_calls delta는 누적
+            parts, calls = [], {}
+            with tm.span("gpt_1"):
+                for chunk in client.chat.completions.create(
+                    model="gpt-5", messages=msgs, tools=TOOLS, tool_choice="auto", stream=True
+                ):
+                    if not chunk.choices: continue
+                    d = chunk.choices[0].delta
+                    if d.content:
+                        parts.append(d.content)
+                        yield _sse({"delta": d.content})
+                    for tc in (d.tool_calls or []):
+                        c = calls.setdefault(tc.index, {"id": "", "name": "", "args": ""})
+                        if tc.id: c["id"] = tc.id
+                        if tc.function and tc.function.name: c["name"] += tc.function.name
+                        if tc.function and tc.function.arguments: c["args"] += tc.function.arguments
+
+            # 도구 호출 시: 결과 재주입 후 2차 호출을 스트리밍
+            if calls:
+                ordered = [calls[i] for i in sorted(calls)]
+                assistant = {"role": "assistant", "content": None, "tool_calls": [
+                    {"id": c["id"], "type": "function", "function": {"name": c["name"], "arguments": c["args"]}}
+                    for c in ordered
+                ]}
+                tool_msgs = []
+                for c in ordered:
+                    with tm.span("tool_" + c["name"]):
+                        result = run_tool(c["name"], json.loads(c["args"] or "{}"))
+                    tool_msgs.append({"role": "tool", "tool_call_id": c["id"], "content": json.dumps(result, ensure_ascii=False)})
+                with tm.span("gpt_2"):
+                    for chunk in client.chat.completions.create(
+                        model="gpt-5", messages=msgs + [assistant] + tool_msgs, stream=True
+                    ):
+                        if chunk.choices and chunk.choices[0].delta.content:
+                            parts.append(chunk.choices[0].delta.content)
+                            yield _sse({"delta": chunk.choices[0].delta.content})
+
+            answer = "".join(parts) or "응답 생성 실패"
+            if not stateless:
+                add_turn(session_id, "user", user_msg)
+                add_turn(session_id, "assistant", answer)
+            # done 에 전체 답변 포함 → 게이트웨이가 세션 히스토리에 기록
+            yield _sse({"session_id": session_id, "answer": answer, "server_timing": tm.header()}, "done")
+        except Exception:
+            log.exception("chat stream failed")
+            yield _sse({"error": "일시적 오류가 발생했습니다. 잠시 후 다시 시도해주세요."}, "error")
+
+    return StreamingResponse(gen(), media_type="text/event-stream",
+                             headers={"Cache-Control": "no-cache", "X-Accel-Buffering": "no"})
 
 # ===== 보조 시세 API =====
 # 지수/환율 묶음 조회(경량 JSON)
@@ -729,6 +896,16 @@ def api_markets(indices: int = 0, fx: int = 0):
         payload["data"]["fx"] = [{"key": k, "name": v["name"], **fetch_quote_yf(v["ticker"])} for k, v in FX_MAP.items()]
     return payload
 
+# ===== 뉴스 증분 피드 =====
+# 게이트웨이 NewsService 가 poll (cursor = 마지막 (collected_at, id))
+@app.get("/api/news/feed")
+def api_news_feed(since: Optional[str] = None, after_id: str = "", limit: int = 200):
+    try:
+        return fetch_news_feed(since, after_id, limit)
+    except Exception as e:
+        log.exception("뉴스 피드 조회 실패")
+        return JSONResponse(status_code=503, content={"error": str(e)})
+
 # =========================
 # S T T (CLOVA + ffmpeg)
 # =========================
@@ -737,7 +914,17 @@ def api_markets(indices: int = 0, fx: int = 0):
 # 입력 오디오 → mono/16k wav 변환
 FFMPEG = os.getenv("FFMPEG_BIN") or shutil.which("ffmpeg") or "/opt/homebrew/bin/ffmpeg"
 
+def _is_wav16k_mono(path: str) -> bool:
+    # 게이트웨이 전처리(16k mono 16bit WAV)를 거친 업로드면 ffmpeg 변환 불필요
+    try:
+        with wave.open(path, "rb") as w:
+            return w.getframerate() == 16000 and w.getnchannels() == 1 and w.getsampwidth() == 2
+    except (wave.Error, EOFError):
+        return False
+
 def _ffmpeg_to_wav16k(in_path: str) -> str:
+    if _is_wav16k_mono(in_path):
+        return in_path
     if not os.path.exists(FFMPEG):
         raise RuntimeError(f"ffmpeg not found: {FFMPEG}")
     out_path = in_path + ".wav"
@@ -890,11 +1077,15 @@ def tts_google_post(payload: dict = Body(...)):
 # =========================
 
 # ===== 세션 리셋 =====
-# 인메모리 세션 전체 초기화
+# session_id 가 오면 해당 세션만, 없으면 인메모리 세션 전체 초기화
 @app.post("/reset")
 @app.post("/api/reset")
-async def reset():
-    SESSIONS.clear()  # 세션 딕셔너리 전부 초기화
+async def reset(payload: Optional[dict] = Body(None)):
+    session_id = (payload or {}).get("session_id")
+    if session_id:
+        SESSIONS.pop(session_id, None)
+    else:
+        SESSIONS.clear()  # 세션 딕셔너리 전부 초기화
     return {"status": "ok", "message": "대화 기록 초기화 완료"}
 
 # ===== 헬스체크 =====
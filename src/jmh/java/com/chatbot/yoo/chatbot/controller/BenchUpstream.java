@@ -0,0 +1,63 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * 벤치마크용 FastAPI 대역 (지연 없음, 고정 길이 응답으로 keep-alive 유지).
+ * 네트워크 왕복 비용을 게이트웨이 쪽 직렬화/복사 비용과 같이 재기 위한 최소 구현.
+ */
+final class BenchUpstream implements AutoCloseable {
+
+	static final int TTS_BYTES = 256 * 1024;
+
+	private static final byte[] CHAT = "{\"answer\":\"오늘 코스피는 0.8% 상승했습니다.\",\"session_id\":\"bench\"}"
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] STT = "{\"text\":\"오늘 환율 알려줘\",\"lang\":\"Kor\"}".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] ERROR = "{\"detail\":\"upstream model timeout\"}".getBytes(StandardCharsets.UTF_8);
+	private static final byte[] AUDIO = new byte[TTS_BYTES];
+
+	private final HttpServer server;
+
+	private BenchUpstream(HttpServer server) {
+		this.server = server;
+	}
+
+	static BenchUpstream start() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+		server.createContext("/chat", ex -> respond(ex, 200, "application/json", CHAT));
+		server.createContext("/api/stt", ex -> respond(ex, 200, "application/json", STT));
+		server.createContext("/api/tts", ex -> respond(ex, 200, "audio/mpeg", AUDIO));
+		server.createContext("/error", ex -> respond(ex, 502, "application/json", ERROR));
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+		return new BenchUpstream(server);
+	}
+
+	String url(String path) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+	private static void respond(HttpExchange ex, int status, String contentType, byte[] body) throws IOException {
+		try (InputStream in = ex.getRequestBody()) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		ex.getResponseHeaders().set("Content-Type", contentType);
+		ex.sendResponseHeaders(status, body.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
@@ -0,0 +1,180 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.http.converter.support.AllEncompassingFormHttpMessageConverter;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatController 의 요청당 비용이 큰 구간.
+ * *Encode/jsonReserialize 는 네트워크 없이 게이트웨이 CPU/할당만, 나머지는 프로세스 내 stub upstream 왕복까지 잰다.
+ * 실행: ./gradlew jmh (-PjmhInclude=GatewayHotPathBenchmark.tts 처럼 일부만)
+ */
+@State(Scope.Benchmark)
+public class GatewayHotPathBenchmark {
+
+	private static final int TTS_BUFFER_BYTES = 8192;
+	private static final int STT_UPLOAD_BYTES = 512 * 1024;
+
+	private BenchUpstream upstream;
+	private PoolingHttpClientConnectionManager pool;
+	private CloseableHttpClient http;
+	private RestTemplate rest;
+	private final ObjectMapper json = new ObjectMapper();
+	private final FormHttpMessageConverter form = new AllEncompassingFormHttpMessageConverter();
+
+	private Map<String, Object> chatBody;
+	private HttpHeaders chatHeaders;
+	private MockMultipartFile audio;
+	private HttpHeaders sttHeaders;
+	private HttpEntity<Map<String, Object>> ttsRequest;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		upstream = BenchUpstream.start();
+		// UpstreamClientConfig 와 같은 keep-alive 풀 구성
+		pool = PoolingHttpClientConnectionManagerBuilder.create().setMaxConnTotal(16).setMaxConnPerRoute(16).build();
+		http = HttpClients.custom().setConnectionManager(pool).build();
+		rest = new RestTemplate(new HttpComponentsClientHttpRequestFactory(http));
+
+		// 게이트웨이가 세션 히스토리를 붙여 보내는 모양 (10턴)
+		List<Map<String, String>> history = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			history.add(Map.of("role", "user", "content", "삼성전자 주가 알려줘 " + i));
+			history.add(Map.of("role", "assistant", "content", "삼성전자(005930)의 최근 종가는 71,200원입니다. 전일 대비 1.2% 상승했습니다."));
+		}
+		chatBody = new LinkedHashMap<>();
+		chatBody.put("message", "오늘 환율 어때?");
+		chatBody.put("lang", "ko");
+		chatBody.put("session_id", "AAAAAAAAAAAAAAAAAAAAAA");
+		chatBody.put("history", history);
+		chatHeaders = new HttpHeaders();
+		chatHeaders.setContentType(MediaType.APPLICATION_JSON);
+		chatHeaders.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+		audio = new MockMultipartFile("audio_file", "voice.webm", "audio/webm", new byte[STT_UPLOAD_BYTES]);
+		sttHeaders = new HttpHeaders();
+		sttHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
+		sttHeaders.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+		HttpHeaders ttsHeaders = new HttpHeaders();
+		ttsHeaders.setContentType(MediaType.APPLICATION_JSON);
+		ttsRequest = new HttpEntity<>(Map.of("text", "오늘 코스피는 0.8% 상승했습니다.", "lang", "ko"), ttsHeaders);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		http.close();
+		pool.close();
+		upstream.close();
+	}
+
+	// === Chat: Map<String,Object> → JSON 재직렬화 ===
+	@Benchmark
+	public byte[] jsonReserialize() throws IOException {
+		return json.writeValueAsBytes(chatBody);
+	}
+
+	@Benchmark
+	public String chatRoundTrip() {
+		return rest.postForEntity(upstream.url("/chat"), new HttpEntity<>(chatBody, chatHeaders), String.class).getBody();
+	}
+
+	// === STT: multipart 조립 (proxyStt 와 같은 파트 구성) ===
+	@Benchmark
+	public long sttMultipartEncode() throws IOException {
+		CountingMessage out = new CountingMessage(sttHeaders);
+		form.write(sttBody(), MediaType.MULTIPART_FORM_DATA, out);
+		return out.bytes;
+	}
+
+	@Benchmark
+	public String sttRoundTrip() {
+		return rest.postForEntity(upstream.url("/api/stt?lang=Kor"), new HttpEntity<>(sttBody(), sttHeaders), String.class).getBody();
+	}
+
+	private MultiValueMap<String, Object> sttBody() {
+		HttpHeaders fileHdr = new HttpHeaders();
+		fileHdr.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+		fileHdr.setContentDisposition(ContentDisposition.formData().name("audio_file").filename(audio.getOriginalFilename()).build());
+		MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+		body.add("audio_file", new HttpEntity<>(new StreamingMultipartResource(audio, n -> { }), fileHdr));
+		return body;
+	}
+
+	// === TTS: 고정 버퍼 relay vs byte[] 전체 수집 ===
+	@Benchmark
+	public long ttsRelay() {
+		return rest.execute(upstream.url("/api/tts"), HttpMethod.POST, rest.httpEntityCallback(ttsRequest),
+				res -> ChatController.relay(res.getBody(), OutputStream.nullOutputStream(), TTS_BUFFER_BYTES));
+	}
+
+	@Benchmark
+	public int ttsBuffered() {
+		byte[] body = rest.postForEntity(upstream.url("/api/tts"), ttsRequest, byte[].class).getBody();
+		return body != null ? body.length : 0;
+	}
+
+	// === 오류 응답: FastAPI 5xx → 예외 → 게이트웨이 ResponseEntity ===
+	@Benchmark
+	public ResponseEntity<String> errorMapping() {
+		try {
+			return rest.postForEntity(upstream.url("/error"), new HttpEntity<>(chatBody, chatHeaders), String.class);
+		} catch (HttpStatusCodeException ex) {
+			return ChatController.upstreamError(ex);
+		}
+	}
+
+	// 본문은 버리고 길이만 센다 (출력 버퍼 할당이 측정에 섞이지 않도록)
+	private static final class CountingMessage implements HttpOutputMessage {
+		private final HttpHeaders headers = new HttpHeaders();
+		long bytes;
+
+		CountingMessage(HttpHeaders base) {
+			headers.putAll(base);
+		}
+
+		@Override
+		public OutputStream getBody() {
+			return new OutputStream() {
+				@Override
+				public void write(int b) { bytes++; }
+
+				@Override
+				public void write(byte[] b, int off, int len) { bytes += len; }
+			};
+		}
+
+		@Override
+		public HttpHeaders getHeaders() { return headers; }
+	}
+}
@@ -0,0 +1,95 @@
+package com.chatbot.yoo.chatbot.audio;
+
+/**
+ * 스트리밍 windowed-sinc 리샘플러 (mono float).
+ * 다운샘플링 시 차단 주파수를 출력 나이퀴스트에 맞춰 에일리어싱을 막는다.
+ * 입력을 청크 단위로 넣으면 만들 수 있는 출력만 내보내고, 필터 길이만큼의 이력은 다음 청크로 넘긴다.
+ */
+final class Resampler {
+
+    /** 출력 샘플 소비자 */
+    interface Sink {
+        void accept(float sample);
+    }
+
+    // 한쪽 탭 수 (입력 샘플 기준). 16 이면 음성 대역에서 충분
+    private static final int HALF_TAPS = 16;
+
+    private final double step;     // 출력 1샘플당 입력 샘플 진행량
+    private final double cutoff;   // 입력 나이퀴스트 대비 차단 비율
+    private final boolean passthrough;
+
+    private float[] buf = new float[4096];
+    private int len;
+    private double pos;            // 다음 출력의 buf 내 위치
+
+    Resampler(int inRate, int outRate) {
+        this.step = (double) inRate / outRate;
+        this.cutoff = Math.min(1.0, (double) outRate / inRate);
+        this.passthrough = inRate == outRate;
+        this.pos = HALF_TAPS;      // 앞쪽은 0 으로 채운 이력
+        this.len = HALF_TAPS;
+    }
+
+    void process(float[] in, int n, Sink out) {
+        if (passthrough) {
+            for (int i = 0; i < n; i++) out.accept(in[i]);
+            return;
+        }
+        ensure(len + n);
+        System.arraycopy(in, 0, buf, len, n);
+        len += n;
+        drain(out, len - HALF_TAPS - 1);
+    }
+
+    /** 남은 입력을 뒤쪽 0 이력으로 마저 내보냄 */
+    void flush(Sink out) {
+        if (passthrough) return;
+        int end = len;
+        ensure(len + HALF_TAPS + 1);
+        for (int i = 0; i <= HALF_TAPS; i++) buf[len++] = 0;
+        drain(out, end);
+    }
+
+    private void drain(Sink out, double limit) {
+        while (pos < limit) {
+            out.accept(interpolate(pos));
+            pos += step;
+        }
+        // 다음 출력에 필요한 이력만 남기고 앞으로 당김
+        int keepFrom = Math.max(0, (int) Math.floor(pos) - HALF_TAPS);
+        if (keepFrom > 0) {
+            System.arraycopy(buf, keepFrom, buf, 0, len - keepFrom);
+            len -= keepFrom;
+            pos -= keepFrom;
+        }
+    }
+
+    private float interpolate(double t) {
+        int center = (int) Math.floor(t);
+        double sum = 0;
+        for (int i = center - HALF_TAPS + 1; i <= center + HALF_TAPS; i++) {
+            double x = t - i;
+            sum += buf[i] * kernel(x);
+        }
+        return (float) sum;
+    }
+
+    // cutoff 스케일 sinc × Hann 창
+    private double kernel(double x) {
+        double ax = Math.abs(x);
+        if (ax >= HALF_TAPS) return 0;
+        double w = 0.5 + 0.5 * Math.cos(Math.PI * ax / HALF_TAPS);
+        double arg = Math.PI * cutoff * x;
+        double sinc = ax < 1e-9 ? 1.0 : Math.sin(arg) / arg;
+        return cutoff * sinc * w;
+    }
+
+    private void ensure(int capacity) {
+        if (buf.length < capacity) {
+            float[] grown = new float[Math.max(capacity, buf.length * 2)];
+            System.arraycopy(buf, 0, grown, 0, len);
+            buf = grown;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.chatbot.yoo.chatbot.audio;
+
+/**
+ * 16kHz mono 스트림을 받아 발화 단위로 자르는 VAD.
+ * 10ms 프레임 에너지를 노이즈 바닥(무음 프레임의 지수 평균)과 비교해 음성 여부를 정하고,
+ * 30ms 연속 음성이면 발화 시작, hangover 만큼 연속 무음이면 발화 끝으로 본다.
+ * 샘플은 고정 크기 링 버퍼에만 쌓이고, 발화 구간은 시작 전 pre-roll 까지 포함해 그때그때 복사해 넘긴다.
+ */
+final class SpeechSegmenter {
+
+    /** 구간 이벤트 (accept/flush 를 부른 스레드에서 호출) */
+    interface Listener {
+        void speechStart(int seq);
+
+        /** 말하는 중간 지금까지의 구간 (partial-interval 마다) */
+        void partial(int seq, short[] pcm);
+
+        /** 발화 끝: 앞뒤 여유(pre-roll)를 포함한 전체 구간 */
+        void utterance(int seq, short[] pcm);
+    }
+
+    record Config(double silenceDbfs, int hangoverMs, int preRollMs, int partialIntervalMs, int maxSegmentMs) { }
+
+    private static final int RATE = WavPreprocessor.TARGET_RATE;
+    private static final int FRAME = RATE / 100;
+    private static final int START_FRAMES = 3;
+    // 노이즈 바닥보다 10dB(에너지 10배) 이상이어야 음성
+    private static final double SNR = 10;
+    private static final double FLOOR_ALPHA = 0.05;
+
+    private final Listener listener;
+    private final double minEnergy;
+    private final int hangoverFrames;
+    private final int preRoll;
+    private final int partialInterval;
+    private final int maxSegment;
+
+    private final short[] ring;
+    private long written;            // 누적 샘플 수 (링 버퍼의 절대 위치)
+
+    private double frameEnergy;
+    private int inFrame;
+    private double noiseFloor;
+    private int voicedRun;
+    private int silentRun;
+
+    private int seq;
+    private long segmentStart = -1;  // 발화 중이 아니면 -1
+    private long lastPartial;
+
+    SpeechSegmenter(Config config, Listener listener) {
+        this.listener = listener;
+        this.minEnergy = Math.pow(10, config.silenceDbfs() / 10);
+        this.hangoverFrames = Math.max(1, config.hangoverMs() / 10);
+        this.preRoll = config.preRollMs() * RATE / 1000;
+        this.partialInterval = Math.max(FRAME, config.partialIntervalMs() * RATE / 1000);
+        this.maxSegment = Math.max(FRAME * 10, config.maxSegmentMs() * RATE / 1000);
+        // 가장 긴 발화 + pre-roll 이 덮어써지지 않을 크기
+        this.ring = new short[maxSegment + preRoll + FRAME * (START_FRAMES + 1)];
+        this.noiseFloor = minEnergy / SNR;
+    }
+
+    boolean speaking() { return segmentStart >= 0; }
+
+    void accept(float sample) {
+        float s = Math.max(-1f, Math.min(1f, sample));
+        ring[(int) (written % ring.length)] = (short) Math.round(s * 32767);
+        written++;
+        frameEnergy += (double) s * s;
+        if (++inFrame == FRAME) endFrame();
+    }
+
+    /** 말하는 중이면 지금까지를 발화로 끝낸다 (클라이언트가 녹음을 멈출 때). */
+    void flush() {
+        if (segmentStart >= 0) end(written);
+    }
+
+    private void endFrame() {
+        double energy = frameEnergy / FRAME;
+        frameEnergy = 0;
+        inFrame = 0;
+        boolean voice = energy >= Math.max(minEnergy, noiseFloor * SNR);
+        if (!voice) noiseFloor += FLOOR_ALPHA * (energy - noiseFloor);
+
+        if (segmentStart < 0) {
+            voicedRun = voice ? voicedRun + 1 : 0;
+            if (voicedRun < START_FRAMES) return;
+            voicedRun = 0;
+            silentRun = 0;
+            segmentStart = Math.max(Math.max(0, written - ring.length),
+                    written - (long) START_FRAMES * FRAME - preRoll);
+            lastPartial = written;
+            listener.speechStart(++seq);
+            return;
+        }
+
+        silentRun = voice ? 0 : silentRun + 1;
+        if (silentRun >= hangoverFrames || written - segmentStart >= maxSegment) {
+            // 끝의 무음은 pre-roll 만큼만 남김
+            end(written - Math.max(0, (long) silentRun * FRAME - preRoll));
+        } else if (silentRun == 0 && written - lastPartial >= partialInterval) {   // 끝나가는 무음 구간에선 생략
+            lastPartial = written;
+            listener.partial(seq, copy(segmentStart, written));
+        }
+    }
+
+    private void end(long to) {
+        short[] pcm = copy(segmentStart, to);
+        segmentStart = -1;
+        silentRun = 0;
+        listener.utterance(seq, pcm);
+    }
+
+    private short[] copy(long from, long to) {
+        from = Math.max(from, written - ring.length);
+        short[] out = new short[(int) (to - from)];
+        int start = (int) (from % ring.length);
+        int first = Math.min(out.length, ring.length - start);
+        System.arraycopy(ring, start, out, 0, first);
+        System.arraycopy(ring, 0, out, first, out.length - first);
+        return out;
+    }
+}
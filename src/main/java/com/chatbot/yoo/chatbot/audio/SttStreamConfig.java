@@ -0,0 +1,53 @@
+package com.chatbot.yoo.chatbot.audio;
+
+import jakarta.websocket.server.ServerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 스트리밍 STT 웹소켓 등록 (fastapi.stt.stream.enabled, 기본 켜짐).
+ * 서블릿(blocking) 게이트웨이에서만 켠다: reactive 모드에는 ServletContext 가 없다.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "fastapi.stt.stream.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnExpression("'${fastapi.gateway.mode:blocking}' != 'reactive'")
+public class SttStreamConfig implements WebSocketConfigurer {
+
+    // 브라우저 오디오 프레임(48kHz 4096 샘플 = 8KB)이 컨테이너 기본 버퍼(8KB)에 걸리지 않도록
+    private static final int MAX_BINARY_MESSAGE_BYTES = 64 * 1024;
+
+    private final SttStreamHandler handler;
+
+    public SttStreamConfig(SttStreamHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, "/api/stt/stream");
+    }
+
+    /**
+     * 실제 서블릿 컨테이너가 만든 ServerContainer 가 있을 때만 기본값 조정.
+     * ServletServerContainerFactoryBean 은 속성이 없으면 기동을 실패시키므로
+     * (@SpringBootTest MOCK 환경의 MockServletContext 등) 대신 속성이 있을 때만 설정한다.
+     */
+    @Bean
+    public ServletContextAware sttWebSocketContainer() {
+        return servletContext -> {
+            if (servletContext.getAttribute(ServerContainer.class.getName()) instanceof ServerContainer container) {
+                container.setDefaultMaxBinaryMessageBufferSize(MAX_BINARY_MESSAGE_BYTES);
+                container.setDefaultMaxSessionIdleTimeout(60_000L);
+            }
+        };
+    }
+}
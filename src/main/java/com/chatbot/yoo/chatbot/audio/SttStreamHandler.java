@@ -0,0 +1,333 @@
+package com.chatbot.yoo.chatbot.audio;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.trace.TraceFilter;
+import com.chatbot.yoo.chatbot.upstream.UpstreamGuard;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.logging.Logger;
+
+/**
+ * 스트리밍 STT: WS /api/stt/stream?lang=ko-KR&rate=48000
+ * 클라이언트는 말하는 동안 16bit little-endian mono PCM 프레임(binary)을 계속 보내고, 녹음을 멈추면 텍스트 "end" 를 보낸다.
+ * 게이트웨이는 16kHz 로 리샘플해 SpeechSegmenter(링 버퍼 + VAD)로 발화를 자르고,
+ * 말하는 중에는 partial-interval 마다 지금까지의 구간을, 발화가 끝나면 전체 구간을 16k WAV 로 FastAPI /api/stt 에 보낸다.
+ * 응답은 {"type":"start|partial|final|error","seq":n,"text":...} 로 push. 세션마다 upstream 호출은 순서대로 하나씩만,
+ * partial 은 앞선 호출이 밀려 있으면 건너뛴다.
+ */
+@Component
+public class SttStreamHandler extends AbstractWebSocketHandler implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(SttStreamHandler.class.getName());
+
+    private static final String ROUTE = "/api/stt";
+    private static final String END = "end";
+    private static final Pattern LANG = Pattern.compile("[A-Za-z-]{2,10}");
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_BYTES = 64 * 1024;
+
+    @Value("${fastapi.stt.stream.silence-dbfs:-50}")
+    private double silenceDbfs;
+
+    // 이만큼 무음이 이어지면 발화 끝 (end-of-speech → 텍스트 지연의 하한)
+    @Value("${fastapi.stt.stream.hangover-ms:300}")
+    private int hangoverMs;
+
+    @Value("${fastapi.stt.stream.pre-roll-ms:200}")
+    private int preRollMs;
+
+    @Value("${fastapi.stt.stream.partial-interval-ms:800}")
+    private int partialIntervalMs;
+
+    @Value("${fastapi.stt.stream.max-segment-ms:15000}")
+    private int maxSegmentMs;
+
+    private final RestTemplate rest;
+    private final UpstreamGuard guard;
+    private final ObjectMapper json;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Stream> streams = new ConcurrentHashMap<>();
+
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder utterances = new LongAdder();
+    private final LongAdder partials = new LongAdder();
+    private final LongAdder partialsSkipped = new LongAdder();
+    private final LongAdder finals = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder finalLatencyMs = new LongAdder();
+    private final AtomicLong maxFinalLatencyMs = new AtomicLong();
+
+    public SttStreamHandler(RestTemplate rest, UpstreamGuard guard, ObjectMapper json) {
+        this.rest = rest;
+        this.guard = guard;
+        this.json = json;
+    }
+
+    // === WebSocket ===
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        MultiValueMap<String, String> q = session.getUri() != null
+                ? UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams()
+                : new LinkedMultiValueMap<>();
+        String lang = q.getFirst("lang");
+        if (lang == null || !LANG.matcher(lang).matches()) lang = "Kor";
+        int rate = parseRate(q.getFirst("rate"));
+        streams.put(session.getId(), new Stream(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_BYTES), lang, rate));
+        sessions.increment();
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        Stream s = streams.get(session.getId());
+        if (s == null) return;
+        ByteBuffer payload = message.getPayload().order(ByteOrder.LITTLE_ENDIAN);
+        bytesIn.add(payload.remaining());
+        s.feed(payload);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Stream s = streams.get(session.getId());
+        if (s == null || !END.equals(message.getPayload().strip())) return;
+        // 남은 발화를 마무리하고, 그 결과까지 보낸 뒤 닫음
+        s.segmenter.flush();
+        s.then(() -> {
+            try {
+                s.out.close(CloseStatus.NORMAL);
+            } catch (IOException ignored) { }
+        });
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.fine("stt stream transport error: " + exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Stream s = streams.remove(session.getId());
+        if (s != null) s.closed = true;
+    }
+
+    private static int parseRate(String rate) {
+        try {
+            int r = rate != null ? Integer.parseInt(rate) : WavPreprocessor.TARGET_RATE;
+            return r >= 8_000 && r <= 192_000 ? r : WavPreprocessor.TARGET_RATE;
+        } catch (NumberFormatException e) {
+            return WavPreprocessor.TARGET_RATE;
+        }
+    }
+
+    // === 세션 1개: 리샘플 → VAD → upstream 호출 직렬화 ===
+    private final class Stream implements SpeechSegmenter.Listener {
+        final WebSocketSession out;
+        final String lang;
+        final Resampler resampler;
+        final SpeechSegmenter segmenter;
+        final AtomicBoolean partialQueued = new AtomicBoolean();
+        float[] block = new float[4096];
+        CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        volatile int finalizedSeq;
+        volatile boolean closed;
+
+        Stream(WebSocketSession out, String lang, int rate) {
+            this.out = out;
+            this.lang = lang;
+            this.resampler = new Resampler(rate, WavPreprocessor.TARGET_RATE);
+            this.segmenter = new SpeechSegmenter(new SpeechSegmenter.Config(
+                    silenceDbfs, hangoverMs, preRollMs, partialIntervalMs, maxSegmentMs), this);
+        }
+
+        void feed(ByteBuffer pcm16) {
+            int n = pcm16.remaining() / 2;
+            if (block.length < n) block = new float[n];
+            for (int i = 0; i < n; i++) block[i] = pcm16.getShort() / 32768f;
+            resampler.process(block, n, segmenter::accept);
+        }
+
+        // 웹소켓 수신 스레드에서만 tail 을 갱신 (세션 메시지는 순서대로 한 스레드씩 전달됨)
+        void then(Runnable task) {
+            tail = tail.thenRunAsync(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {   // 한 건 실패로 뒤 작업이 끊기지 않도록
+                    errors.increment();
+                    log.warning("stt stream task failed: " + e);
+                }
+            }, executor);
+        }
+
+        @Override
+        public void speechStart(int seq) {
+            then(() -> send(Map.of("type", "start", "seq", seq)));
+        }
+
+        @Override
+        public void partial(int seq, short[] pcm) {
+            if (!partialQueued.compareAndSet(false, true)) {
+                partialsSkipped.increment();
+                return;
+            }
+            then(() -> {
+                partialQueued.set(false);
+                if (closed || finalizedSeq >= seq) return;   // 이미 끝난 발화의 늦은 partial
+                String text = transcribe(seq, pcm);
+                if (text != null && finalizedSeq < seq) {
+                    partials.increment();
+                    send(Map.of("type", "partial", "seq", seq, "text", text));
+                }
+            });
+        }
+
+        @Override
+        public void utterance(int seq, short[] pcm) {
+            utterances.increment();
+            long detected = System.nanoTime();
+            then(() -> {
+                finalizedSeq = seq;
+                if (closed) return;
+                String text = transcribe(seq, pcm);
+                if (text == null) return;
+                finals.increment();
+                // 실제 말이 끝난 시점은 hangover 만큼 앞
+                long ms = (System.nanoTime() - detected) / 1_000_000 + hangoverMs;
+                finalLatencyMs.add(ms);
+                maxFinalLatencyMs.accumulateAndGet(ms, Math::max);
+                send(Map.of("type", "final", "seq", seq, "text", text, "latencyMs", ms));
+            });
+        }
+
+        private String transcribe(int seq, short[] pcm) {
+            try {
+                return upstreamStt(WavPreprocessor.wav16k(pcm, pcm.length), lang);
+            } catch (SttException e) {
+                errors.increment();
+                send(Map.of("type", "error", "seq", seq, "error", e.getMessage()));
+                return null;
+            }
+        }
+
+        private void send(Map<String, Object> event) {
+            if (closed || !out.isOpen()) return;
+            try {
+                out.sendMessage(new TextMessage(json.writeValueAsBytes(event)));
+            } catch (IOException | RuntimeException e) {
+                log.fine("stt stream send failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // === upstream: 구간 WAV → FastAPI /api/stt (proxyStt 와 같은 multipart) ===
+    private static final class SttException extends Exception {
+        SttException(String message) { super(message, null, false, false); }
+    }
+
+    private String upstreamStt(byte[] wav, String lang) throws SttException {
+        HttpHeaders fileHdr = new HttpHeaders();
+        fileHdr.setContentType(MediaType.parseMediaType("audio/wav"));
+        fileHdr.setContentDisposition(ContentDisposition.formData().name("audio_file").filename("audio.wav").build());
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("audio_file", new HttpEntity<>(new ByteArrayResource(wav) {
+            @Override
+            public String getFilename() { return "audio.wav"; }
+        }, fileHdr));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+
+        UpstreamGuard.Permit permit = guard.acquire(ROUTE);
+        if (permit == null) throw new SttException("게이트웨이 오류: FastAPI /api/stt 접속 실패");
+        if (permit.traceparent() != null) headers.set(TraceFilter.TRACEPARENT, permit.traceparent());
+        try {
+            ResponseEntity<String> res = rest.postForEntity(permit.url(ROUTE + "?lang=" + lang),
+                    new HttpEntity<>(body, headers), String.class);
+            permit.success();
+            return transcript(res.getBody());
+        } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
+            throw new SttException("STT 실패: " + ex.getStatusCode().value());
+        } catch (RestClientException e) {
+            permit.failure(e);
+            log.warning("stt stream upstream error: " + e.getMessage());
+            throw new SttException("게이트웨이 오류: FastAPI /api/stt 접속 실패");
+        } finally {
+            permit.ignore();
+        }
+    }
+
+    // FastAPI 는 CSR 응답 원문({"text":"..."})을 text 에 그대로 담아 돌려줌 → 안쪽 text 까지 풀어서 반환
+    private String transcript(String body) {
+        try {
+            JsonNode node = json.readTree(body == null ? "" : body);
+            String text = node.path("text").asText("");
+            if (text.startsWith("{")) text = json.readTree(text).path("text").asText("");
+            return text.strip();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String name() { return "sttStream"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        long n = finals.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("active", streams.size());
+        m.put("sessions", sessions.sum());
+        m.put("bytesIn", bytesIn.sum());
+        m.put("utterances", utterances.sum());
+        m.put("partials", partials.sum());
+        m.put("partialsSkipped", partialsSkipped.sum());
+        m.put("finals", n);
+        m.put("errors", errors.sum());
+        m.put("avgFinalLatencyMs", n > 0 ? finalLatencyMs.sum() / n : 0);
+        m.put("maxFinalLatencyMs", maxFinalLatencyMs.get());
+        return m;
+    }
+}
@@ -0,0 +1,256 @@
+package com.chatbot.yoo.chatbot.audio;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * STT 업로드 전처리 (opt-in: fastapi.stt.preprocess.enabled).
+ * WAV(PCM 8/16/24/32bit, float32, 채널 수 무관)를 블록 단위로 읽어 mono 다운믹스 → 16kHz 리샘플 →
+ * 앞뒤 무음 제거 후 16bit PCM WAV 로 만든다. FastAPI 는 이미 16k mono 인 WAV 면 ffmpeg 변환을 건너뛴다.
+ * WebM/Opus 등 JDK 로 디코딩할 수 없는 형식은 null 을 돌려주고 호출부가 원본을 그대로 보낸다.
+ */
+@Component
+public class WavPreprocessor implements StatsSource {
+
+    public static final int TARGET_RATE = 16_000;
+
+    private static final int FRAME = TARGET_RATE / 100;   // 무음 판정 단위 10ms
+    private static final int BLOCK_FRAMES = 4096;
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+    // 헤더 값은 업로드한 쪽 마음대로라 범위 밖이면 지원하지 않는 형식으로 봄 (블록 버퍼/리샘플 비율 폭주 방지)
+    private static final int MAX_CHANNELS = 8;
+    private static final int MIN_RATE = 8_000;
+    private static final int MAX_RATE = 192_000;
+    // data 청크는 이만큼까지만 읽음 (업로드 상한 25MB 보다 넉넉히)
+    private static final long MAX_DATA_BYTES = 32L << 20;
+
+    @Value("${fastapi.stt.preprocess.enabled:false}")
+    private boolean enabled;
+
+    // 10ms 프레임 RMS 가 이 값(dBFS) 이상이면 음성으로 봄
+    @Value("${fastapi.stt.preprocess.silence-dbfs:-45}")
+    private double silenceDbfs;
+
+    // 음성 앞뒤로 남길 여유
+    @Value("${fastapi.stt.preprocess.pad-ms:150}")
+    private int padMs;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder passedThrough = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder trimmedMs = new LongAdder();
+
+    public boolean enabled() { return enabled; }
+
+    /** 변환 결과: 16k mono 16bit WAV 와 길이 */
+    public record Result(byte[] wav, int durationMs) { }
+
+    /** RIFF/WAVE 헤더인지 (앞 12바이트) */
+    public static boolean isWav(byte[] head) {
+        return head.length >= 12
+                && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'A' && head[10] == 'V' && head[11] == 'E';
+    }
+
+    /** 지원하지 않는 형식이면 null (in 은 헤더 이후 일부를 읽었을 수 있으므로 호출부는 원본을 다시 열어야 함). */
+    public Result process(InputStream in, long inputBytes) throws IOException {
+        Format fmt = readHeader(in);
+        if (fmt == null) {
+            passedThrough.increment();
+            return null;
+        }
+        PcmWriter out = new PcmWriter(Math.max(1, padMs * TARGET_RATE / 1000),
+                Math.pow(10, silenceDbfs / 10) * FRAME);
+        Resampler resampler = new Resampler(fmt.rate, TARGET_RATE);
+
+        int frameBytes = fmt.channels * fmt.bytesPerSample;
+        byte[] block = new byte[BLOCK_FRAMES * frameBytes];
+        float[] mono = new float[BLOCK_FRAMES];
+        long remaining = fmt.dataBytes;
+        long inputFrames = 0;
+        while (remaining > 0) {
+            int want = (int) Math.min(block.length, remaining);
+            want -= want % frameBytes;
+            if (want == 0) break;
+            int n = in.readNBytes(block, 0, want);
+            int frames = n / frameBytes;
+            if (frames == 0) break;
+            decode(fmt, block, frames, mono);
+            resampler.process(mono, frames, out::accept);
+            inputFrames += frames;
+            remaining -= n;
+            if (n < want) break;   // data 청크 길이보다 짧게 끝난 파일
+        }
+        resampler.flush(out::accept);
+
+        byte[] wav = out.toWav();
+        int durationMs = (int) ((wav.length - 44) / 2 * 1000L / TARGET_RATE);
+        processed.increment();
+        bytesIn.add(inputBytes);
+        bytesOut.add(wav.length);
+        trimmedMs.add(Math.max(0, inputFrames * 1000 / fmt.rate - durationMs));
+        return new Result(wav, durationMs);
+    }
+
+    // === WAV 헤더 ===
+    private record Format(int encoding, int channels, int rate, int bytesPerSample, long dataBytes) { }
+
+    private static Format readHeader(InputStream in) throws IOException {
+        byte[] riff = in.readNBytes(12);
+        if (!isWav(riff)) return null;
+        int encoding = -1, channels = 0, rate = 0, bits = 0;
+        while (true) {
+            byte[] hdr = in.readNBytes(8);
+            if (hdr.length < 8) return null;
+            String id = new String(hdr, 0, 4, StandardCharsets.US_ASCII);
+            long size = ByteBuffer.wrap(hdr, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+            if (id.equals("fmt ")) {
+                byte[] f = in.readNBytes((int) Math.min(size, 64));
+                if (f.length < 16) return null;
+                ByteBuffer b = ByteBuffer.wrap(f).order(ByteOrder.LITTLE_ENDIAN);
+                encoding = b.getShort(0) & 0xFFFF;
+                channels = b.getShort(2) & 0xFFFF;
+                rate = b.getInt(4);
+                bits = b.getShort(14) & 0xFFFF;
+                if (encoding == FORMAT_EXTENSIBLE && f.length >= 26) encoding = b.getShort(24) & 0xFFFF;
+                skip(in, size - f.length + (size & 1));
+            } else if (id.equals("data")) {
+                if (channels <= 0 || channels > MAX_CHANNELS || rate < MIN_RATE || rate > MAX_RATE) return null;
+                boolean pcm = encoding == FORMAT_PCM && (bits == 8 || bits == 16 || bits == 24 || bits == 32);
+                boolean flt = encoding == FORMAT_FLOAT && bits == 32;
+                if (!pcm && !flt) return null;
+                // 스트리밍 녹음은 data 크기를 0/0xFFFFFFFF 로 두기도 함 → 끝까지 (상한까지) 읽음
+                long data = size == 0 || size == 0xFFFFFFFFL ? MAX_DATA_BYTES : Math.min(size, MAX_DATA_BYTES);
+                return new Format(encoding, channels, rate, bits / 8, data);
+            } else {
+                skip(in, size + (size & 1));
+            }
+        }
+    }
+
+    private static void skip(InputStream in, long n) throws IOException {
+        if (n <= 0) return;
+        long skipped = in.skip(n);
+        while (skipped < n) {
+            if (in.read() < 0) throw new EOFException();
+            skipped++;
+        }
+    }
+
+    // interleaved → mono float [-1, 1]
+    private static void decode(Format fmt, byte[] block, int frames, float[] mono) {
+        int bps = fmt.bytesPerSample;
+        int ch = fmt.channels;
+        ByteBuffer b = ByteBuffer.wrap(block).order(ByteOrder.LITTLE_ENDIAN);
+        int off = 0;
+        for (int f = 0; f < frames; f++) {
+            float sum = 0;
+            for (int c = 0; c < ch; c++, off += bps) {
+                sum += switch (bps) {
+                    case 1 -> ((block[off] & 0xFF) - 128) / 128f;
+                    case 2 -> b.getShort(off) / 32768f;
+                    case 3 -> ((block[off] & 0xFF) | (block[off + 1] & 0xFF) << 8 | block[off + 2] << 16) / 8388608f;
+                    default -> fmt.encoding == FORMAT_FLOAT ? b.getFloat(off) : b.getInt(off) / 2147483648f;
+                };
+            }
+            mono[f] = sum / ch;
+        }
+    }
+
+    // === 16bit PCM 출력 + 앞뒤 무음 제거 ===
+    private static final class PcmWriter {
+        private final int padSamples;
+        private final double frameEnergyThreshold;
+        private short[] pcm = new short[TARGET_RATE];
+        private int len;
+        private boolean voiced;
+        private int lastVoicedEnd;
+        private int frameStart;
+        private double frameEnergy;
+
+        PcmWriter(int padSamples, double frameEnergyThreshold) {
+            this.padSamples = padSamples;
+            this.frameEnergyThreshold = frameEnergyThreshold;
+        }
+
+        void accept(float sample) {
+            float s = Math.max(-1f, Math.min(1f, sample));
+            if (len == pcm.length) {
+                short[] grown = new short[pcm.length * 2];
+                System.arraycopy(pcm, 0, grown, 0, len);
+                pcm = grown;
+            }
+            pcm[len++] = (short) Math.round(s * 32767);
+            frameEnergy += (double) s * s;
+            if (len - frameStart == FRAME) endFrame();
+        }
+
+        private void endFrame() {
+            if (frameEnergy >= frameEnergyThreshold) {
+                if (!voiced) {
+                    // 첫 음성 프레임: 앞쪽 여유만 남기고 무음 제거
+                    int keepFrom = Math.max(0, frameStart - padSamples);
+                    System.arraycopy(pcm, keepFrom, pcm, 0, len - keepFrom);
+                    len -= keepFrom;
+                    frameStart -= keepFrom;
+                    voiced = true;
+                }
+                lastVoicedEnd = len;
+            } else if (!voiced && frameStart > padSamples * 2) {
+                // 음성 전 무음은 여유분만 유지 (버퍼가 무음으로 커지지 않도록)
+                int drop = frameStart - padSamples;
+                System.arraycopy(pcm, drop, pcm, 0, len - drop);
+                len -= drop;
+            }
+            frameStart = len;
+            frameEnergy = 0;
+        }
+
+        byte[] toWav() {
+            // 음성이 전혀 없으면 그대로 (판정은 STT 에 맡김)
+            int end = voiced ? Math.min(len, lastVoicedEnd + padSamples) : len;
+            return wav16k(pcm, end);
+        }
+    }
+
+    /** 16k mono 16bit PCM 앞 n 샘플 → 44바이트 헤더 WAV */
+    static byte[] wav16k(short[] pcm, int n) {
+        byte[] out = new byte[44 + n * 2];
+        ByteBuffer b = ByteBuffer.wrap(out).order(ByteOrder.LITTLE_ENDIAN);
+        b.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(36 + n * 2).put(new byte[]{'W', 'A', 'V', 'E'});
+        b.put(new byte[]{'f', 'm', 't', ' '}).putInt(16).putShort((short) FORMAT_PCM).putShort((short) 1)
+                .putInt(TARGET_RATE).putInt(TARGET_RATE * 2).putShort((short) 2).putShort((short) 16);
+        b.put(new byte[]{'d', 'a', 't', 'a'}).putInt(n * 2);
+        for (int i = 0; i < n; i++) b.putShort(pcm[i]);
+        return out;
+    }
+
+    @Override
+    public String name() { return "sttPreprocess"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("processed", processed.sum());
+        m.put("passedThrough", passedThrough.sum());
+        m.put("bytesIn", bytesIn.sum());
+        m.put("bytesOut", bytesOut.sum());
+        m.put("trimmedMs", trimmedMs.sum());
+        return m;
+    }
+}
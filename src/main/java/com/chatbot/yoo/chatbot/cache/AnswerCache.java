@@ -0,0 +1,205 @@
+package com.chatbot.yoo.chatbot.cache;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.upstream.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * /api/chat 완전일치 답변 캐시 (opt-in: fastapi.chat.cache.enabled).
+ * 키 = 정규화 메시지 + lang + scope(global: 전체 공유 / client: 클라이언트별), TTL 은 질문 유형별로 다르다.
+ * 같은 키의 동시 miss 는 upstream 호출 1번으로 합친다. 세션 히스토리가 붙은 요청은 캐시하지 않는다.
+ */
+@Component
+public class AnswerCache implements StatsSource {
+
+    public static final String HEADER = "X-Answer-Cache";
+
+    enum Intent { NEWS, MARKET, INDICATOR, GENERAL }
+
+    // 질문 유형 분류용 키워드 (소문자 비교)
+    private static final Map<Intent, List<String>> KEYWORDS = Map.of(
+            Intent.NEWS, List.of("뉴스", "기사", "헤드라인", "news", "headline"),
+            Intent.MARKET, List.of("코스피", "코스닥", "환율", "주가", "지수", "원달러", "엔화", "유로", "kospi", "kosdaq", "usd", "jpy", "eur", "stock", "index"),
+            Intent.INDICATOR, List.of("금리", "물가", "cpi", "ppi", "gdp", "무역수지", "경상수지", "성장률", "fed", "fomc", "interest rate", "inflation")
+    );
+
+    private record Cached(HttpStatusCode status, MediaType contentType, String body, long expiresAt, long size) { }
+
+    @Value("${fastapi.chat.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fastapi.chat.cache.scope:global}")
+    private String scope;
+
+    @Value("${fastapi.chat.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${fastapi.chat.cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${fastapi.chat.cache.ttl-seconds.news:60}")
+    private long ttlNews;
+
+    @Value("${fastapi.chat.cache.ttl-seconds.market:30}")
+    private long ttlMarket;
+
+    @Value("${fastapi.chat.cache.ttl-seconds.indicator:3600}")
+    private long ttlIndicator;
+
+    @Value("${fastapi.chat.cache.ttl-seconds.general:600}")
+    private long ttlGeneral;
+
+    // access-order LinkedHashMap = LRU
+    private final LinkedHashMap<String, Cached> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private long bytes;
+    private final SingleFlight<String, ResponseEntity<String>> loads = new SingleFlight<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** 캐시 대상 여부: 비활성, 빈 메시지, 세션/히스토리 동반 요청은 제외. 집계 없음 (요청당 한 번 bypass() 로 셈) */
+    public boolean cacheable(Map<String, Object> body) {
+        return enabled
+                && !normalize(body.get("message")).isEmpty()
+                && isBlank(body.get("session_id"))
+                && isBlank(body.get("history"));
+    }
+
+    /** 캐시를 거치지 않은 요청 1건 (활성일 때만 셈) */
+    public void bypass() {
+        if (enabled) bypassed.increment();
+    }
+
+    public ResponseEntity<String> getOrLoad(Map<String, Object> body, String clientId,
+                                            Supplier<ResponseEntity<String>> loader) {
+        String message = normalize(body.get("message"));
+        String key = String.join("\u0000", message, String.valueOf(body.getOrDefault("lang", "")),
+                "client".equals(scope) ? clientId : "global");
+
+        Cached c = lookup(key);
+        if (c != null) {
+            hits.increment();
+            return toResponse(c, "HIT");
+        }
+
+        // 스탬피드 방지: 첫 miss 만 upstream 호출, 나머지는 같은 결과를 기다림
+        return loads.execute(key, () -> {
+            ResponseEntity<String> res = loader.get();
+            if (res.getStatusCode().is2xxSuccessful() && res.getBody() != null) {
+                store(key, new Cached(res.getStatusCode(), res.getHeaders().getContentType(), res.getBody(),
+                        System.currentTimeMillis() + ttlOf(message) * 1000,
+                        key.length() * 2L + res.getBody().getBytes(StandardCharsets.UTF_8).length));
+            }
+            return ResponseEntity.status(res.getStatusCode())
+                    .headers(res.getHeaders())
+                    .header(HEADER, "MISS")
+                    .body(res.getBody());
+        }).value();
+    }
+
+    private Cached lookup(String key) {
+        synchronized (entries) {
+            Cached c = entries.get(key);
+            if (c == null) return null;
+            if (c.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                bytes -= c.size();
+                return null;
+            }
+            return c;
+        }
+    }
+
+    private void store(String key, Cached c) {
+        synchronized (entries) {
+            Cached old = entries.put(key, c);
+            if (old != null) bytes -= old.size();
+            bytes += c.size();
+            Iterator<Map.Entry<String, Cached>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+                Map.Entry<String, Cached> e = it.next();
+                bytes -= e.getValue().size();
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    // === 질문 유형별 TTL ===
+    long ttlOf(String normalizedMessage) {
+        return switch (classify(normalizedMessage)) {
+            case NEWS -> ttlNews;
+            case MARKET -> ttlMarket;
+            case INDICATOR -> ttlIndicator;
+            case GENERAL -> ttlGeneral;
+        };
+    }
+
+    static Intent classify(String normalizedMessage) {
+        for (Intent intent : List.of(Intent.NEWS, Intent.MARKET, Intent.INDICATOR)) {
+            for (String kw : KEYWORDS.get(intent)) {
+                if (normalizedMessage.contains(kw)) return intent;
+            }
+        }
+        return Intent.GENERAL;
+    }
+
+    // NFKC + 소문자 + 공백 정리 + 끝 문장부호 제거
+    static String normalize(Object message) {
+        if (message == null) return "";
+        String s = Normalizer.normalize(message.toString(), Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .strip();
+        return s.replaceAll("[\\s?!.~]+$", "");
+    }
+
+    private static ResponseEntity<String> toResponse(Cached c, String state) {
+        return ResponseEntity.status(c.status())
+                .contentType(c.contentType() != null ? c.contentType() : MediaType.APPLICATION_JSON)
+                .header(HEADER, state)
+                .body(c.body());
+    }
+
+    private static boolean isBlank(Object o) {
+        if (o == null) return true;
+        if (o instanceof Collection<?> col) return col.isEmpty();
+        return o.toString().isBlank();
+    }
+
+    @Override
+    public String name() { return "answerCache"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("scope", scope);
+        m.put("hits", hits.sum());
+        m.put("misses", loads.executed());
+        m.put("collapsed", loads.coalesced());
+        m.put("bypassed", bypassed.sum());
+        m.put("evictions", evictions.sum());
+        synchronized (entries) {
+            m.put("entries", entries.size());
+            m.put("bytes", bytes);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,47 @@
+package com.chatbot.yoo.chatbot.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 응답 스트림으로 그대로 쓰면서 maxBytes 까지만 사본을 남긴다. 넘치면 사본은 버린다.
+ */
+public final class CapturingOutputStream extends FilterOutputStream {
+
+    private final int maxBytes;
+    private ByteArrayOutputStream copy;
+
+    public CapturingOutputStream(OutputStream out, int maxBytes) {
+        super(out);
+        this.maxBytes = maxBytes;
+        this.copy = new ByteArrayOutputStream(Math.min(maxBytes, 64 * 1024));
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        capture(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        capture(b, off, len);
+    }
+
+    /** 상한을 넘었으면 null. */
+    public byte[] captured() {
+        return copy == null ? null : copy.toByteArray();
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (copy == null) return;
+        if (copy.size() + len > maxBytes) {
+            copy = null;
+            return;
+        }
+        copy.write(b, off, len);
+    }
+}
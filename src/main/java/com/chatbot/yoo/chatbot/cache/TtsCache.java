@@ -0,0 +1,273 @@
+package com.chatbot.yoo.chatbot.cache;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * 정규화한 TTS 요청의 SHA-256 을 키로 쓰는 2단 오디오 캐시.
+ * 메모리 LRU(바이트 상한) → 디스크 LRU(바이트 상한, mmap 읽기) 순으로 찾고, 디스크 히트는 메모리로 승격한다.
+ * 같은 키는 같은 합성 요청이므로 키를 그대로 강한 ETag 로 쓴다.
+ */
+@Component
+public class TtsCache implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(TtsCache.class.getName());
+    private static final String SUFFIX = ".tts";
+
+    public record Entry(String contentType, String disposition, byte[] audio) { }
+
+    @Value("${fastapi.tts.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fastapi.tts.cache.memory-max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${fastapi.tts.cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    @Value("${fastapi.tts.cache.max-entry-bytes:5242880}")
+    private int maxEntryBytes;
+
+    @Value("${fastapi.tts.cache.disk-dir:${java.io.tmpdir}/yoo-tts-cache}")
+    private String diskDirPath;
+
+    private Path diskDir;
+
+    // access-order LinkedHashMap = LRU
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(1024, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // === 키: text/lang/voice/fmt/rate/pitch 정규화 후 SHA-256 ===
+    public static String keyOf(Map<String, Object> body) {
+        String text = str(body.get("text")).strip().replaceAll("\\s+", " ");
+        String lang = str(body.get("lang")).isEmpty() ? "ko-KR" : str(body.get("lang"));
+        String voice = str(body.get("voice"));
+        // FastAPI 는 fmt == "MP3" 만 MP3, 나머지는 LINEAR16 → 대소문자 그대로 키에
+        String fmt = str(body.get("fmt")).isEmpty() ? "MP3" : str(body.get("fmt"));
+        double rate = num(body.get("rate"), 1.0);
+        double pitch = num(body.get("pitch"), 0.0);
+        String canonical = String.join("\u0000", text, lang, voice, fmt, Double.toString(rate), Double.toString(pitch));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean enabled() { return enabled; }
+
+    public int maxEntryBytes() { return maxEntryBytes; }
+
+    public Entry get(String key) {
+        synchronized (memory) {
+            Entry e = memory.get(key);
+            if (e != null) {
+                memoryHits.increment();
+                return e;
+            }
+        }
+        Entry e = readDisk(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        diskHits.increment();
+        putMemory(key, e);
+        return e;
+    }
+
+    public void put(String key, Entry e) {
+        if (e.audio().length > maxEntryBytes) return;
+        stores.increment();
+        putMemory(key, e);
+        writeDisk(key, e);
+    }
+
+    // === 메모리 계층 ===
+    private void putMemory(String key, Entry e) {
+        synchronized (memory) {
+            Entry old = memory.put(key, e);
+            if (old != null) memoryBytes -= old.audio().length;
+            memoryBytes += e.audio().length;
+            Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && it.hasNext()) {
+                memoryBytes -= it.next().getValue().audio().length;
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    // === 디스크 계층: [len][content-type][len][disposition][audio] ===
+    private Entry readDisk(String key) {
+        synchronized (disk) {
+            if (disk.get(key) == null) return null;
+        }
+        try (FileChannel ch = FileChannel.open(file(key), StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            String ct = readString(buf);
+            String disp = readString(buf);
+            byte[] audio = new byte[buf.remaining()];
+            buf.get(audio);
+            return new Entry(ct, disp, audio);
+        } catch (NoSuchFileException e) {
+            synchronized (disk) { forget(key); }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warning("tts cache read failed: " + key + " " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, Entry e) {
+        byte[] ct = e.contentType().getBytes(StandardCharsets.UTF_8);
+        byte[] disp = e.disposition().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(4 + ct.length + disp.length + e.audio().length);
+        buf.putShort((short) ct.length).put(ct).putShort((short) disp.length).put(disp).put(e.audio()).flip();
+
+        List<String> victims = new ArrayList<>();
+        try {
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (disk) {
+                track(key, buf.limit());
+                Iterator<Map.Entry<String, Long>> it = disk.entrySet().iterator();
+                while (diskBytes > diskMaxBytes && it.hasNext()) {
+                    Map.Entry<String, Long> victim = it.next();
+                    diskBytes -= victim.getValue();
+                    victims.add(victim.getKey());
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        } catch (IOException ex) {
+            log.warning("tts cache write failed: " + key + " " + ex.getMessage());
+        }
+        for (String v : victims) {
+            try { Files.deleteIfExists(file(v)); }
+            catch (IOException ex) { log.warning("tts cache evict failed: " + v); }
+        }
+    }
+
+    // 재시작 시 디스크 계층 복원 (오래된 파일부터 넣어 LRU 순서 유지)
+    @PostConstruct
+    void loadDisk() {
+        diskDir = Path.of(diskDirPath);
+        if (!enabled) return;
+        try {
+            Files.createDirectories(diskDir);
+            try (Stream<Path> files = Files.list(diskDir)) {
+                List<Path> sorted = files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                        .sorted(Comparator.comparingLong(TtsCache::mtime))
+                        .toList();
+                synchronized (disk) {
+                    for (Path p : sorted) {
+                        String name = p.getFileName().toString();
+                        track(name.substring(0, name.length() - SUFFIX.length()), size(p));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("tts cache dir unavailable: " + diskDir, e);
+        }
+    }
+
+    private void track(String key, long size) {
+        Long old = disk.put(key, size);
+        if (old != null) diskBytes -= old;
+        diskBytes += size;
+    }
+
+    private void forget(String key) {
+        Long old = disk.remove(key);
+        if (old != null) diskBytes -= old;
+    }
+
+    private Path file(String key) { return diskDir.resolve(key + SUFFIX); }
+
+    @Override
+    public String name() { return "ttsCache"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("memoryHits", memoryHits.sum());
+        m.put("diskHits", diskHits.sum());
+        m.put("misses", misses.sum());
+        m.put("stores", stores.sum());
+        m.put("evictions", evictions.sum());
+        synchronized (memory) {
+            m.put("memoryEntries", memory.size());
+            m.put("memoryBytes", memoryBytes);
+        }
+        synchronized (disk) {
+            m.put("diskEntries", disk.size());
+            m.put("diskBytes", diskBytes);
+        }
+        return m;
+    }
+
+    // === 유틸 ===
+    private static String readString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getShort() & 0xFFFF];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static String str(Object o) { return o == null ? "" : o.toString(); }
+
+    private static double num(Object o, double def) {
+        if (o instanceof Number n) return n.doubleValue();
+        try { return o == null ? def : Double.parseDouble(o.toString()); }
+        catch (NumberFormatException e) { return def; }
+    }
+
+    private static long mtime(Path p) {
+        try { return Files.getLastModifiedTime(p).toMillis(); }
+        catch (IOException e) { return 0L; }
+    }
+
+    private static long size(Path p) {
+        try { return Files.size(p); }
+        catch (IOException e) { return 0L; }
+    }
+}
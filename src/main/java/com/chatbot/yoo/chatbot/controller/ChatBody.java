@@ -0,0 +1,167 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * /api/chat 요청 바디를 Map 으로 바인딩하지 않고 다루기 위한 도우미.
+ * 최상위 필드만 토큰 단위로 훑어 message/lang 등을 꺼내고(중첩 값은 건너뜀),
+ * 원본 바이트 끝의 '}' 앞에 session_id/history 를 덧붙여 upstream 으로 그대로 보낸다.
+ * JSON 키가 중복되면 FastAPI(json.loads)는 마지막 값을 쓰므로 덧붙인 값이 클라이언트 값을 덮는다.
+ */
+final class ChatBody {
+
+    private static final byte[] SESSION_ID_KEY = "\"session_id\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final String message;
+    private final String lang;
+    private final boolean hasSessionId;
+    private final boolean hasHistory;
+    private final int closeBrace;
+    private final boolean empty;
+
+    private ChatBody(String message, String lang, boolean hasSessionId, boolean hasHistory, int closeBrace, boolean empty) {
+        this.message = message;
+        this.lang = lang;
+        this.hasSessionId = hasSessionId;
+        this.hasHistory = hasHistory;
+        this.closeBrace = closeBrace;
+        this.empty = empty;
+    }
+
+    /** JSON 객체가 아니거나 문법 오류면 IOException (전체를 한 번 훑으므로 검증도 겸함). */
+    static ChatBody scan(JsonFactory factory, byte[] raw) throws IOException {
+        String message = null, lang = null;
+        boolean sessionId = false, history = false, empty = true;
+        try (JsonParser p = factory.createParser(raw)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IOException("JSON object expected");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                empty = false;
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (name) {
+                    case "message" -> message = value.isScalarValue() ? p.getValueAsString() : null;
+                    case "lang" -> lang = value.isScalarValue() ? p.getValueAsString() : null;
+                    case "session_id" -> sessionId = value.isScalarValue() && !p.getValueAsString("").isBlank();
+                    case "history" -> history = value == JsonToken.START_ARRAY
+                            ? skipArray(p)
+                            : value != JsonToken.VALUE_NULL;
+                    default -> { }
+                }
+                p.skipChildren();
+            }
+            if (p.nextToken() != null) throw new IOException("trailing content after JSON object");
+        }
+        int end = raw.length - 1;
+        while (end >= 0 && raw[end] != '}') end--;
+        return new ChatBody(message, lang, sessionId, history, end, empty);
+    }
+
+    // 배열 끝까지 건너뛰고 원소가 있었는지 반환
+    private static boolean skipArray(JsonParser p) throws IOException {
+        boolean any = false;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            any = true;
+            p.skipChildren();
+        }
+        return any;
+    }
+
+    String message() { return message; }
+
+    String lang() { return lang; }
+
+    /** AnswerCache/뉴스 빠른 경로 판단용 최소 필드 (값이 있는 것만) */
+    Map<String, Object> fields() {
+        Map<String, Object> m = new HashMap<>(4);
+        if (message != null) m.put("message", message);
+        if (lang != null) m.put("lang", lang);
+        if (hasSessionId) m.put("session_id", "1");
+        if (hasHistory) m.put("history", "1");
+        return m;
+    }
+
+    /** 원본 바디 + ,"session_id":...,"history":[...] (바이트 복사 1회) */
+    byte[] inject(byte[] raw, byte[] sessionIdJson, byte[] historyJson) {
+        byte[] k1 = (empty ? "\"session_id\":" : ",\"session_id\":").getBytes(StandardCharsets.US_ASCII);
+        byte[] k2 = ",\"history\":".getBytes(StandardCharsets.US_ASCII);
+        byte[] out = new byte[closeBrace + k1.length + sessionIdJson.length + k2.length + historyJson.length + 1];
+        int n = 0;
+        System.arraycopy(raw, 0, out, n, closeBrace);
+        n += closeBrace;
+        System.arraycopy(k1, 0, out, n, k1.length);
+        n += k1.length;
+        System.arraycopy(sessionIdJson, 0, out, n, sessionIdJson.length);
+        n += sessionIdJson.length;
+        System.arraycopy(k2, 0, out, n, k2.length);
+        n += k2.length;
+        System.arraycopy(historyJson, 0, out, n, historyJson.length);
+        n += historyJson.length;
+        out[n] = '}';
+        return out;
+    }
+
+    /**
+     * 여러 사용자가 나눠 받는 응답(AnswerCache, 합쳐진 호출)에서 최상위 session_id 를 뺀 바이트.
+     * FastAPI 가 요청의 session_id 를 그대로 돌려주므로 다른 사람 세션 식별자가 새지 않게 한다.
+     * session_id 가 없거나 JSON 객체가 아니면 원본 그대로.
+     */
+    static byte[] withoutSessionId(JsonFactory factory, byte[] response) {
+        if (response == null || indexOf(response, SESSION_ID_KEY) < 0) return response;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(response.length);
+        try (JsonParser p = factory.createParser(response); JsonGenerator g = factory.createGenerator(out)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return response;
+            g.writeStartObject();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                p.nextToken();
+                if ("session_id".equals(name)) {
+                    p.skipChildren();
+                    continue;
+                }
+                g.writeFieldName(name);
+                g.copyCurrentStructure(p);
+            }
+            g.writeEndObject();
+        } catch (IOException e) {
+            return response;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle) {
+        outer:
+        for (int i = 0; i <= haystack.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /** upstream 응답의 최상위 "answer" 문자열 (트리로 올리지 않고 찾으면 바로 중단) */
+    static String answerOf(JsonFactory factory, byte[] response) {
+        if (response == null || response.length == 0) return null;
+        try (JsonParser p = factory.createParser(response)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("answer".equals(name)) return value == JsonToken.VALUE_STRING ? p.getText() : null;
+                p.skipChildren();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -1,9 +1,30 @@
 package com.chatbot.yoo.chatbot.controller;
 
+import com.chatbot.yoo.chatbot.audio.WavPreprocessor;
+import com.chatbot.yoo.chatbot.cache.AnswerCache;
+import com.chatbot.yoo.chatbot.cache.CapturingOutputStream;
+import com.chatbot.yoo.chatbot.cache.TtsCache;
+import com.chatbot.yoo.chatbot.intent.IntentRouter;
+import com.chatbot.yoo.chatbot.session.SessionStore;
+import com.chatbot.yoo.chatbot.stats.TransferStats;
+import com.chatbot.yoo.chatbot.trace.Span;
+import com.chatbot.yoo.chatbot.trace.TraceFilter;
+import com.chatbot.yoo.chatbot.trace.Tracer;
+import com.chatbot.yoo.chatbot.upstream.RequestCoalescer;
+import com.chatbot.yoo.chatbot.upstream.SingleFlight;
+import com.chatbot.yoo.chatbot.upstream.UpstreamGuard;
+import com.chatbot.yoo.chatbot.upstream.UpstreamHedger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -12,28 +33,110 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.logging.Logger;
 
 @Controller
+@ConditionalOnProperty(name = "fastapi.gateway.mode", havingValue = "blocking", matchIfMissing = true)
 public class ChatController {
 
     private static final Logger log = Logger.getLogger(ChatController.class.getName());
 
-    // FastAPI 주소 (application.properties: fastapi.url=http://localhost:8000)
-    @Value("${fastapi.chat:http://localhost:8000}")
-    private String FASTAPI_URL;
+    // SSE relay 버퍼 크기 (토큰 몇 개 분량이면 충분)
+    private static final int SSE_CHUNK = 1024;
 
-    private static RestTemplate createRestTemplate() {
-        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
-        f.setConnectTimeout(5_000);
-        f.setReadTimeout(180_000);
-        return new RestTemplate(f);
+    // 게이트웨이가 직접 답한 경우 분류된 유형 (MARKET | INDICATOR | NEWS)
+    private static final String INTENT_HEADER = "X-Intent";
+
+    private static final Pattern TOP_N = Pattern.compile("top\\s*(\\d{1,2})", Pattern.CASE_INSENSITIVE);
+
+    // guard 라우트: 뉴스 빠른 경로(DB 조회, ms)와 GPT 호출(수 초)은 지연 기준을 따로 잡음
+    private static final String CHAT_ROUTE = "/chat";
+    private static final String CHAT_NEWS_ROUTE = "/chat#news";
+
+    // SSE done 프레임(전체 답변 포함) 기록 상한
+    private static final int SSE_DONE_MAX_BYTES = 64 * 1024;
+
+    // TTS 오디오 relay 버퍼 (스트림마다 고정 크기 1개)
+    @Value("${fastapi.tts.buffer-bytes:8192}")
+    private int ttsBufferBytes;
+
+    // TTS 캐시 응답: 브라우저는 보관하되 매번 ETag 로 재검증
+    private static final String TTS_CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    // FastAPI 내부 구간(gpt_1, tool_*, gpt_2 ...) → upstream span 의 하위 span
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String TTS_ACCEPT = "audio/mpeg, audio/ogg, audio/wav, application/json";
+
+    private static final byte[] TTS_GATEWAY_ERROR =
+            "{\"error\":\"Gateway error: cannot reach FastAPI /api/tts\"}".getBytes(StandardCharsets.UTF_8);
+
+    // /api/chat 요청 바디 상한 (초과 시 JSON 413)
+    @Value("${fastapi.chat.max-bytes:65536}")
+    private int chatMaxBytes;
+
+    // 요청/응답 바디를 Map/String 으로 변환하지 않고 바이트 그대로 중계 (session_id/history 만 덧붙임)
+    @Value("${fastapi.chat.passthrough.enabled:true}")
+    private boolean chatPassthrough;
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() { };
+
+    private static final byte[] CHAT_GATEWAY_ERROR =
+            "{\"error\":\"게이트웨이 오류: FastAPI /chat 접속 실패\"}".getBytes(StandardCharsets.UTF_8);
+
+    // STT 업로드 상한 (multipart 한도와 별개로 게이트웨이에서 JSON 413 반환)
+    @Value("${fastapi.stt.max-bytes:20971520}")
+    private long sttMaxBytes;
+
+    // keep-alive 커넥션 풀 기반 RestTemplate (UpstreamClientConfig)
+    private final RestTemplate rest;
+    private final TransferStats transfer;
+    private final TtsCache ttsCache;
+    private final AnswerCache answerCache;
+    private final RequestCoalescer coalescer;
+    private final SessionStore sessions;
+    private final ObjectMapper json;
+    // 라우트별 서킷 브레이커 + 동시성 제한 (거절 시 대기 없이 502)
+    private final UpstreamGuard guard;
+    // 멱등 호출(TTS, 뉴스 빠른 경로)의 hedged request (opt-in)
+    private final UpstreamHedger hedger;
+    private final Tracer tracer;
+    // STT 업로드 WAV → 16k mono 변환 (opt-in)
+    private final WavPreprocessor wavPreprocessor;
+    // 시세/지표/최신 뉴스 질문은 게이트웨이 캐시로 바로 답함 (opt-in)
+    private final IntentRouter intentRouter;
+
+    public ChatController(RestTemplate rest, TransferStats transfer, TtsCache ttsCache,
+                          AnswerCache answerCache, RequestCoalescer coalescer,
+                          SessionStore sessions, ObjectMapper json, UpstreamGuard guard,
+                          UpstreamHedger hedger, Tracer tracer, WavPreprocessor wavPreprocessor,
+                          IntentRouter intentRouter) {
+        this.rest = rest;
+        this.transfer = transfer;
+        this.ttsCache = ttsCache;
+        this.answerCache = answerCache;
+        this.coalescer = coalescer;
+        this.sessions = sessions;
+        this.json = json;
+        this.guard = guard;
+        this.hedger = hedger;
+        this.tracer = tracer;
+        this.wavPreprocessor = wavPreprocessor;
+        this.intentRouter = intentRouter;
     }
-    private final RestTemplate rest = createRestTemplate();
 
     // 챗봇 페이지
     @GetMapping("/chat")
@@ -42,46 +145,329 @@ public class ChatController {
     // === Chat: POST /api/chat → FastAPI /chat ===
     @PostMapping(value = "/api/chat", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ResponseEntity<String> proxyChat(@RequestBody Map<String, Object> body) {
-        final String url = FASTAPI_URL + "/chat";
+    public ResponseEntity<?> proxyChat(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] raw = readBody(request, chatMaxBytes);
+        if (raw == null) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":\"요청이 너무 큽니다 (최대 " + chatMaxBytes + " bytes)\"}");
+        }
+        ChatBody head;
+        try {
+            head = ChatBody.scan(json.getFactory(), raw);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":\"잘못된 JSON 요청입니다\"}");
+        }
+        // 히스토리는 게이트웨이 세션에서 꺼내 매 요청에 실어 보냄 (FastAPI 는 stateless)
+        SessionStore.Session session = sessions.resolve(request, response);
+
+        // 도구 하나로 답이 정해지는 질문은 LLM 을 거치지 않음
+        IntentRouter.Routed local = intentRouter.route(head.message());
+        if (local != null) {
+            session.append(head.message(), local.answer());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(INTENT_HEADER, local.intent())
+                    .body(json.writeValueAsBytes(Map.of("answer", local.answer())));
+        }
+
+        // AnswerCache 대상(세션 첫 질문)은 캐시가 문자열 응답을 보관하므로 Map 경로로 처리
+        boolean cacheable = session.isEmpty() && answerCache.cacheable(head.fields());
+        if (!cacheable) answerCache.bypass();
+        if (chatPassthrough && !cacheable) {
+            return passthroughChat(raw, head, session);
+        }
+        return mappedChat(json.readValue(raw, JSON_OBJECT), session, request, cacheable);
+    }
+
+    private ResponseEntity<String> mappedChat(Map<String, Object> body, SessionStore.Session session,
+                                              HttpServletRequest request, boolean cacheable) {
+        List<Map<String, String>> history = session.history();
+        Map<String, Object> forwarded = withSession(body, session.upstreamId(), history);
+        String key = RequestCoalescer.chatKey(body.get("message"), body.get("lang"), history);
+
+        // 동일 질문은 AnswerCache 에서 응답 (히스토리가 없는 세션 첫 질문만)
+        ResponseEntity<String> res = cacheable
+                ? answerCache.getOrLoad(body, request.getRemoteAddr(), () -> shared(coalescedChat(forwarded, key)))
+                : coalescedChat(forwarded, key);
+
+        if (res.getStatusCode().is2xxSuccessful()) remember(session, body, doneFrame(res.getBody()));
+        return res;
+    }
+
+    // === passthrough: 원본 바이트 + session_id/history → upstream, 응답 바이트 그대로 반환 ===
+    private ResponseEntity<byte[]> passthroughChat(byte[] raw, ChatBody head, SessionStore.Session session) throws IOException {
+        List<Map<String, String>> history = session.history();
+        byte[] forwarded = head.inject(raw, json.writeValueAsBytes(session.upstreamId()), json.writeValueAsBytes(history));
+        boolean newsFastPath = isNewsFastPath(head.message());
+        ResponseEntity<byte[]> res = coalescer.enabled()
+                ? coalescer.chatRaw(RequestCoalescer.chatKey(head.message(), head.lang(), history),
+                        () -> sharedRaw(forwardChatRaw(forwarded, session.upstreamId(), newsFastPath))).value()
+                : forwardChatRaw(forwarded, session.upstreamId(), newsFastPath);
+
+        if (res.getStatusCode().is2xxSuccessful() && head.message() != null) {
+            String answer = ChatBody.answerOf(json.getFactory(), res.getBody());
+            if (answer != null) session.append(head.message(), answer);
+        }
+        return res;
+    }
+
+    private ResponseEntity<byte[]> forwardChatRaw(byte[] body, String sessionId, boolean newsFastPath) {
+        if (hedger.enabled() && newsFastPath) return hedgedChatRaw(body);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
 
+        UpstreamGuard.Permit permit = guard.acquire(newsFastPath ? CHAT_NEWS_ROUTE : CHAT_ROUTE, sessionId);
+        if (permit == null) return chatGatewayErrorRaw();
+        long t0 = System.nanoTime();
         try {
-            return rest.postForEntity(url, new HttpEntity<>(body, headers), String.class);
+            ResponseEntity<byte[]> res = rest.postForEntity(permit.url("/chat"), new HttpEntity<>(body, traced(headers, permit)), byte[].class);
+            permit.serverTiming(res.getHeaders().getFirst(SERVER_TIMING));
+            permit.success();
+            intentRouter.upstreamLatency(System.nanoTime() - t0);
+            return res;
         } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
+            MediaType ct = ex.getResponseHeaders() != null ? ex.getResponseHeaders().getContentType() : null;
             return ResponseEntity.status(ex.getStatusCode())
-                    .contentType(ex.getResponseHeaders() != null
-                            ? ex.getResponseHeaders().getContentType()
-                            : MediaType.APPLICATION_JSON)
-                    .body(ex.getResponseBodyAsString());
+                    .contentType(ct != null ? ct : MediaType.APPLICATION_JSON)
+                    .body(ex.getResponseBodyAsByteArray());
         } catch (RestClientException e) {
+            permit.failure(e);
             log.severe("proxyChat upstream error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"게이트웨이 오류: FastAPI /chat 접속 실패\"}");
+            return chatGatewayErrorRaw();
+        } finally {
+            permit.ignore();
+        }
+    }
+
+    private ResponseEntity<byte[]> hedgedChatRaw(byte[] body) {
+        try (UpstreamHedger.Winner w = hedger.post(CHAT_NEWS_ROUTE, "/chat", body, MediaType.APPLICATION_JSON_VALUE)) {
+            if (w == null) return chatGatewayErrorRaw();
+            byte[] bytes = w.body().readAllBytes();
+            w.permit().serverTiming(w.header(SERVER_TIMING));
+            w.permit().complete(HttpStatusCode.valueOf(w.status()));
+            String ct = w.header(HttpHeaders.CONTENT_TYPE);
+            return ResponseEntity.status(w.status())
+                    .contentType(ct != null ? MediaType.parseMediaType(ct) : MediaType.APPLICATION_JSON)
+                    .body(bytes);
+        } catch (IOException e) {
+            log.severe("proxyChat upstream error: " + e.getMessage());
+            return chatGatewayErrorRaw();
+        }
+    }
+
+    private static ResponseEntity<byte[]> chatGatewayErrorRaw() {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(CHAT_GATEWAY_ERROR);
+    }
+
+    // 동일 요청이 동시에 진행 중이면 그 upstream 호출 결과를 같이 받음
+    private ResponseEntity<String> coalescedChat(Map<String, Object> body, String key) {
+        if (!coalescer.enabled()) return forwardChat(body);
+        return coalescer.chat(key, () -> shared(forwardChat(body))).value();
+    }
+
+    // 합쳐진 호출/캐시 응답은 다른 사용자도 받으므로 upstream 이 되돌려 준 session_id 를 뺌
+    private ResponseEntity<byte[]> sharedRaw(ResponseEntity<byte[]> res) {
+        byte[] body = ChatBody.withoutSessionId(json.getFactory(), res.getBody());
+        if (body == res.getBody()) return res;
+        return ResponseEntity.status(res.getStatusCode()).headers(withoutLength(res.getHeaders())).body(body);
+    }
+
+    private ResponseEntity<String> shared(ResponseEntity<String> res) {
+        if (res.getBody() == null || !res.getBody().contains("\"session_id\"")) return res;
+        byte[] body = ChatBody.withoutSessionId(json.getFactory(), res.getBody().getBytes(StandardCharsets.UTF_8));
+        return ResponseEntity.status(res.getStatusCode()).headers(withoutLength(res.getHeaders()))
+                .body(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static HttpHeaders withoutLength(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(upstream);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return headers;
+    }
+
+    private ResponseEntity<String> forwardChat(Map<String, Object> body) {
+        // 뉴스 최신/Top N 빠른 경로는 도구 조회만 하는 멱등 호출 → hedge 대상
+        if (hedger.enabled() && isNewsFastPath(body.get("message"))) return hedgedChat(body);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
+
+        // 세션은 같은 FastAPI 인스턴스로 고정
+        UpstreamGuard.Permit permit = guard.acquire(isNewsFastPath(body.get("message")) ? CHAT_NEWS_ROUTE : CHAT_ROUTE,
+                Objects.toString(body.get("session_id"), null));
+        if (permit == null) return chatGatewayError();
+        long t0 = System.nanoTime();
+        try {
+            ResponseEntity<String> res = rest.postForEntity(permit.url("/chat"), new HttpEntity<>(body, traced(headers, permit)), String.class);
+            permit.serverTiming(res.getHeaders().getFirst(SERVER_TIMING));
+            permit.success();
+            intentRouter.upstreamLatency(System.nanoTime() - t0);
+            return res;
+        } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
+            return upstreamError(ex);
+        } catch (RestClientException e) {
+            permit.failure(e);
+            log.severe("proxyChat upstream error: " + e.getMessage());
+            return chatGatewayError();
+        } finally {
+            permit.ignore();
+        }
+    }
+
+    private ResponseEntity<String> hedgedChat(Map<String, Object> body) {
+        byte[] bytes;
+        try {
+            bytes = json.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return chatGatewayError();
+        }
+        ResponseEntity<byte[]> res = hedgedChatRaw(bytes);
+        return ResponseEntity.status(res.getStatusCode())
+                .headers(res.getHeaders())
+                .body(new String(res.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // FastAPI chat() 의 "뉴스 최신/Top N" 분기와 같은 조건
+    static boolean isNewsFastPath(Object message) {
+        if (message == null) return false;
+        String m = message.toString();
+        return m.contains("뉴스") && (m.contains("최신") || TOP_N.matcher(m).find());
+    }
+
+    private static ResponseEntity<String> chatGatewayError() {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new String(CHAT_GATEWAY_ERROR, StandardCharsets.UTF_8));
+    }
+
+    // === Chat(SSE): POST /api/chat/stream → FastAPI /chat/stream ===
+    // upstream 청크를 도착 즉시 그대로 흘려보냄 (응답 전체를 모으지 않음)
+    @PostMapping(value = "/api/chat/stream", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> proxyChatStream(@RequestBody Map<String, Object> body,
+                                                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SessionStore.Session session = sessions.resolve(request, response);
+        IntentRouter.Routed local = intentRouter.route(Objects.toString(body.get("message"), null));
+        if (local != null) return localStream(local, body, session);
+        Map<String, Object> forwarded = withSession(body, session.upstreamId(), session.history());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Arrays.asList(MediaType.TEXT_EVENT_STREAM));
+        // 스트리밍은 비동기 스레드에서 돌므로 요청 span 을 넘겨 줌
+        Span requestSpan = tracer.current();
+
+        StreamingResponseBody stream = out -> {
+            try (Tracer.Scope ignored = tracer.attach(requestSpan)) {
+                streamChat(out, forwarded, headers, session, body);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .header("X-Accel-Buffering", "no")
+                .body(stream);
+    }
+
+    // 게이트웨이 답변을 FastAPI /chat/stream 과 같은 프레임으로 (delta 1개 + done)
+    private ResponseEntity<StreamingResponseBody> localStream(IntentRouter.Routed local, Map<String, Object> body,
+                                                              SessionStore.Session session) throws JsonProcessingException {
+        session.append(body.get("message").toString(), local.answer());
+        Map<String, Object> done = new LinkedHashMap<>();
+        done.put("session_id", session.upstreamId());
+        done.put("answer", local.answer());
+        byte[] frames = ("data: " + json.writeValueAsString(Map.of("delta", local.answer())) + "\n\n"
+                + "event: done\ndata: " + json.writeValueAsString(done) + "\n\n").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .header(INTENT_HEADER, local.intent())
+                .body(out -> out.write(frames));
+    }
+
+    private void streamChat(OutputStream out, Map<String, Object> forwarded, HttpHeaders headers,
+                            SessionStore.Session session, Map<String, Object> body) throws IOException {
+        UpstreamGuard.Permit permit = guard.acquire("/chat/stream", session.upstreamId());
+        if (permit == null) {
+            sseError(out, "게이트웨이 오류: FastAPI /chat/stream 접속 실패");
+            return;
+        }
+        boolean[] started = {false};
+        try {
+            rest.execute(permit.url("/chat/stream"), HttpMethod.POST, rest.httpEntityCallback(new HttpEntity<>(forwarded, traced(headers, permit))), res -> {
+                started[0] = true;
+                SseDoneTap tap = new SseDoneTap(out, SSE_DONE_MAX_BYTES);
+                relay(res.getBody(), tap, SSE_CHUNK);
+                // done 프레임의 전체 답변으로 세션 턴 기록, server_timing 은 trace 로
+                if (res.getStatusCode().is2xxSuccessful()) {
+                    JsonNode done = doneFrame(tap.doneData());
+                    remember(session, body, done);
+                    permit.serverTiming(done.path("server_timing").asText(null));
+                }
+                return null;
+            });
+            permit.success();
+        } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
+            sseError(out, "FastAPI /chat/stream 오류(" + ex.getStatusCode().value() + ")");
+        } catch (RestClientException e) {
+            // 스트림 시작 후 끊김은 클라이언트 중단일 수 있어 실패로 세지 않음
+            if (!started[0]) permit.failure(e);
+            log.severe("proxyChatStream upstream error: " + e.getMessage());
+            sseError(out, "게이트웨이 오류: FastAPI /chat/stream 접속 실패");
+        } finally {
+            permit.ignore();
         }
     }
 
     // === Reset: POST /api/reset → FastAPI /reset ===
+    // 호출한 쿠키의 세션만 비움 (다른 사용자 대화는 유지)
     @PostMapping(value = "/api/reset", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
-    public ResponseEntity<String> proxyReset() {
+    public ResponseEntity<String> proxyReset(HttpServletRequest request) {
+        String sessionId = sessions.clear(request);
+        if (sessionId == null) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status\":\"ok\",\"message\":\"대화 기록 초기화 완료\"}");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        UpstreamGuard.Permit permit = guard.acquire("/reset", sessionId);
+        if (permit == null) return resetGatewayError();
         try {
-            return rest.postForEntity(FASTAPI_URL + "/reset", null, String.class);
+            ResponseEntity<String> res = rest.postForEntity(permit.url("/reset"),
+                    new HttpEntity<>(Map.of("session_id", sessionId), traced(headers, permit)), String.class);
+            permit.success();
+            return res;
         } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
             return ResponseEntity.status(ex.getStatusCode())
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(ex.getResponseBodyAsString());
         } catch (RestClientException e) {
+            permit.failure(e);
             log.severe("proxyReset upstream error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"message\":\"게이트웨이 오류: FastAPI /reset 접속 실패\"}");
+            return resetGatewayError();
+        } finally {
+            permit.ignore();
         }
     }
 
+    private static ResponseEntity<String> resetGatewayError() {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"message\":\"게이트웨이 오류: FastAPI /reset 접속 실패\"}");
+    }
+
     // === STT: POST multipart /api/stt → FastAPI /api/stt ===
     @PostMapping(value = "/api/stt", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseBody
@@ -89,19 +475,32 @@ public class ChatController {
             @RequestParam("audio_file") MultipartFile audioFile,
             @RequestParam(name = "lang", defaultValue = "Kor") String lang
     ) {
-        final String url = FASTAPI_URL + "/api/stt?lang=" + lang;
+        if (audioFile.getSize() > sttMaxBytes) {
+            transfer.sttRejected();
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"error\":\"음성 파일이 너무 큽니다 (최대 " + sttMaxBytes + " bytes)\"}");
+        }
+        transfer.sttUpload();
+
+        // WAV 는 게이트웨이에서 16k mono + 무음 제거 (opt-in), 그 외 형식은 원본 그대로
+        WavPreprocessor.Result pre = preprocessStt(audioFile);
 
         // 파일 파트에 Content-Disposition/Type 명시
         HttpHeaders fileHdr = new HttpHeaders();
-        fileHdr.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        fileHdr.setContentType(pre != null ? MediaType.parseMediaType("audio/wav") : MediaType.APPLICATION_OCTET_STREAM);
         fileHdr.setContentDisposition(ContentDisposition.formData()
                 .name("audio_file")
-                .filename(audioFile.getOriginalFilename())
+                .filename(pre != null ? "audio.wav" : audioFile.getOriginalFilename())
                 .build());
-        ByteArrayResource fileRes = new ByteArrayResource(toBytes(audioFile)) {
-            @Override public String getFilename() { return audioFile.getOriginalFilename(); }
-        };
-        HttpEntity<ByteArrayResource> fileEntity = new HttpEntity<>(fileRes, fileHdr);
+        // 변환 결과는 메모리의 16k WAV, 원본은 byte[] 복사 없이 임시파일 스트림 → upstream 요청 바디로 바로 전송
+        HttpEntity<?> fileEntity = pre != null
+                ? new HttpEntity<>(new ByteArrayResource(pre.wav()) {
+                    @Override
+                    public String getFilename() { return "audio.wav"; }
+                }, fileHdr)
+                : new HttpEntity<>(new StreamingMultipartResource(audioFile, transfer::sttBytes), fileHdr);
+        if (pre != null) transfer.sttBytes(pre.wav().length);
 
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
         body.add("audio_file", fileEntity);
@@ -110,66 +509,267 @@ public class ChatController {
         headers.setContentType(MediaType.MULTIPART_FORM_DATA);
         headers.setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
 
+        UpstreamGuard.Permit permit = guard.acquire("/api/stt");
+        if (permit == null) return sttGatewayError();
         try {
-            return rest.postForEntity(url, new HttpEntity<>(body, headers), String.class);
+            ResponseEntity<String> res = rest.postForEntity(permit.url("/api/stt?lang=" + lang),
+                    new HttpEntity<>(body, traced(headers, permit)), String.class);
+            permit.success();
+            return res;
         } catch (HttpStatusCodeException ex) { // FastAPI 4xx/5xx 그대로
-            MediaType ct = ex.getResponseHeaders() != null ? ex.getResponseHeaders().getContentType() : MediaType.APPLICATION_JSON;
-            return ResponseEntity.status(ex.getStatusCode()).contentType(ct).body(ex.getResponseBodyAsString());
+            permit.complete(ex.getStatusCode());
+            return upstreamError(ex);
         } catch (RestClientException e) {
+            permit.failure(e);
             log.severe("proxyStt upstream error: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"게이트웨이 오류: FastAPI /api/stt 접속 실패\"}");
+            return sttGatewayError();
+        } finally {
+            permit.ignore();
+        }
+    }
+
+    private WavPreprocessor.Result preprocessStt(MultipartFile audioFile) {
+        if (!wavPreprocessor.enabled()) return null;
+        try (InputStream in = audioFile.getInputStream()) {
+            return wavPreprocessor.process(in, audioFile.getSize());
+        } catch (IOException | RuntimeException e) {
+            // 깨진 WAV 등: 변환은 포기하고 원본을 보내 FastAPI(ffmpeg) 판단에 맡김
+            log.warning("stt preprocess skipped: " + e.getMessage());
+            return null;
         }
     }
 
+    private static ResponseEntity<String> sttGatewayError() {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\":\"게이트웨이 오류: FastAPI /api/stt 접속 실패\"}");
+    }
+
     // === TTS: POST JSON /api/tts → FastAPI /api/tts ===
+    // upstream 오디오를 byte[] 로 모으지 않고 고정 크기 버퍼로 청크 단위 전달
+    // 같은 요청(정규화 해시)은 TtsCache 에서 바로 응답, ETag 일치 시 304
     @PostMapping(value = "/api/tts", consumes = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseBody
-    public ResponseEntity<byte[]> proxyTtsPost(@RequestBody Map<String, Object> body) {
-        final String url = FASTAPI_URL + "/api/tts";
+    public void proxyTtsPost(@RequestBody Map<String, Object> body,
+                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                             HttpServletResponse response) throws IOException {
+        final String key = TtsCache.keyOf(body);
+        final String etag = ttsCache.enabled() ? "\"" + key + "\"" : null;
+        if (etag != null) {
+            if (etag.equals(ifNoneMatch)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, TTS_CACHE_CONTROL);
+                return;
+            }
+            TtsCache.Entry hit = ttsCache.get(key);
+            if (hit != null) {
+                writeAudio(response, hit, etag);
+                return;
+            }
+        }
+        if (!coalescer.enabled()) {
+            streamTts(body, key, etag, response);
+            return;
+        }
+
+        // 동시에 같은 요청이면 leader 만 upstream 호출, follower 는 leader 가 캡처한 오디오를 그대로 받음
+        SingleFlight.Outcome<TtsCache.Entry> flight = coalescer.tts(key, () -> {
+            try { return streamTts(body, key, etag, response); }
+            catch (IOException e) { throw new UncheckedIOException(e); }
+        });
+        if (!flight.shared()) return;
+        if (flight.value() != null) writeAudio(response, flight.value(), etag);
+        else streamTts(body, key, etag, response); // leader 실패/캡처 상한 초과 → 각자 호출
+    }
+
+    // upstream 오디오를 클라이언트로 흘려보내며 상한까지 사본을 남김 (정상 오디오가 아니면 null)
+    private TtsCache.Entry streamTts(Map<String, Object> body, String key, String etag,
+                                     HttpServletResponse response) throws IOException {
+        if (hedger.enabled()) return streamTtsHedged(body, key, etag, response);
+        UpstreamGuard.Permit permit = guard.acquire("/api/tts");
+        if (permit == null) {
+            writeJson(response, HttpStatus.BAD_GATEWAY.value(), TTS_GATEWAY_ERROR);
+            return null;
+        }
         try {
             HttpHeaders hdr = new HttpHeaders();
             hdr.setContentType(MediaType.APPLICATION_JSON);
-            hdr.setAccept(Arrays.asList(
-                    MediaType.valueOf("audio/mpeg"),
-                    MediaType.valueOf("audio/ogg"),
-                    MediaType.valueOf("audio/wav"),
-                    MediaType.APPLICATION_JSON
-            ));
-
-            ResponseEntity<byte[]> res = rest.exchange(url, HttpMethod.POST, new HttpEntity<>(body, hdr), byte[].class);
+            hdr.set(HttpHeaders.ACCEPT, TTS_ACCEPT);
 
-            HttpHeaders out = new HttpHeaders();
-            MediaType ct = res.getHeaders().getContentType();
-            out.setContentType(ct != null ? ct : MediaType.APPLICATION_OCTET_STREAM);
-            String disp = res.getHeaders().getFirst("Content-Disposition");
-            out.set("Content-Disposition", disp != null ? disp : "inline; filename=\"speech.bin\"");
-            out.setCacheControl(CacheControl.noCache());
-
-            return new ResponseEntity<>(res.getBody(), out, res.getStatusCode());
+            TtsCache.Entry result = rest.execute(permit.url("/api/tts"), HttpMethod.POST, rest.httpEntityCallback(new HttpEntity<>(body, traced(hdr, permit))), res ->
+                    relayTts(res.getStatusCode().value(), res.getHeaders().getContentType(),
+                            res.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION), res.getHeaders().getContentLength(),
+                            res.getBody(), key, etag, response));
+            permit.success();
+            return result;
 
         } catch (HttpStatusCodeException ex) {
             // FastAPI가 JSON 에러 반환 시 그대로 전달
-            HttpHeaders out = new HttpHeaders();
-            out.setContentType(MediaType.APPLICATION_JSON);
-            return new ResponseEntity<>(ex.getResponseBodyAsByteArray(), out, ex.getStatusCode());
+            permit.complete(ex.getStatusCode());
+            writeJson(response, ex.getStatusCode().value(), ex.getResponseBodyAsByteArray());
         } catch (RestClientException e) {
-            return jsonError("{\"error\":\"Gateway error: cannot reach FastAPI /api/tts\"}", HttpStatus.BAD_GATEWAY);
+            if (response.isCommitted()) {
+                // 이미 오디오 전송 중 (클라이언트 중단 포함) → 응답 변경 불가
+                log.warning("proxyTtsPost stream aborted: " + e.getMessage());
+                return null;
+            }
+            permit.failure(e);
+            writeJson(response, HttpStatus.BAD_GATEWAY.value(), TTS_GATEWAY_ERROR);
         } catch (Exception e) {
-            return jsonError("{\"error\":\"Unexpected error in /api/tts\"}", HttpStatus.INTERNAL_SERVER_ERROR);
+            if (response.isCommitted()) return null;
+            writeJson(response, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "{\"error\":\"Unexpected error in /api/tts\"}".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            permit.ignore();
+        }
+        return null;
+    }
+
+    // hedged 경로: 느린 인스턴스면 다른 인스턴스에도 보내고 먼저 응답한 쪽 오디오를 전달
+    private TtsCache.Entry streamTtsHedged(Map<String, Object> body, String key, String etag,
+                                           HttpServletResponse response) throws IOException {
+        try (UpstreamHedger.Winner w = hedger.post("/api/tts", "/api/tts", json.writeValueAsBytes(body), TTS_ACCEPT)) {
+            if (w == null) {
+                writeJson(response, HttpStatus.BAD_GATEWAY.value(), TTS_GATEWAY_ERROR);
+                return null;
+            }
+            if (w.status() >= 400) {
+                // FastAPI가 JSON 에러 반환 시 그대로 전달
+                byte[] err = w.body().readAllBytes();
+                w.permit().complete(HttpStatusCode.valueOf(w.status()));
+                writeJson(response, w.status(), err);
+                return null;
+            }
+            String ct = w.header(HttpHeaders.CONTENT_TYPE);
+            TtsCache.Entry entry = relayTts(w.status(), ct != null ? MediaType.parseMediaType(ct) : null,
+                    w.header(HttpHeaders.CONTENT_DISPOSITION), w.contentLength(), w.body(), key, etag, response);
+            w.permit().success();
+            return entry;
+        } catch (IOException e) {
+            if (response.isCommitted()) {
+                log.warning("proxyTtsPost stream aborted: " + e.getMessage());
+                return null;
+            }
+            log.severe("proxyTtsPost upstream error: " + e.getMessage());
+            writeJson(response, HttpStatus.BAD_GATEWAY.value(), TTS_GATEWAY_ERROR);
+            return null;
+        }
+    }
+
+    // upstream 응답 헤더/오디오를 클라이언트로 전달하고, 정상 오디오면 캡처해 캐시에 넣음
+    private TtsCache.Entry relayTts(int status, MediaType ct, String disp, long len, InputStream in,
+                                    String key, String etag, HttpServletResponse response) throws IOException {
+        if (disp == null) disp = "inline; filename=\"speech.bin\"";
+        response.setStatus(status);
+        response.setContentType((ct != null ? ct : MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disp);
+        if (len >= 0) response.setContentLengthLong(len);
+
+        boolean audio = status / 100 == 2 && ct != null && "audio".equals(ct.getType());
+        if (!audio) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            transfer.ttsStream();
+            transfer.ttsBytes(relay(in, response.getOutputStream(), ttsBufferBytes));
+            return null;
+        }
+        if (etag != null) response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, etag != null ? TTS_CACHE_CONTROL : CacheControl.noCache().getHeaderValue());
+        CapturingOutputStream out = new CapturingOutputStream(response.getOutputStream(), ttsCache.maxEntryBytes());
+        transfer.ttsStream();
+        transfer.ttsBytes(relay(in, out, ttsBufferBytes));
+        byte[] captured = out.captured();
+        if (captured == null) return null;
+        TtsCache.Entry entry = new TtsCache.Entry(ct.toString(), disp, captured);
+        if (ttsCache.enabled()) ttsCache.put(key, entry);
+        return entry;
+    }
+
+    private void writeAudio(HttpServletResponse response, TtsCache.Entry entry, String etag) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(entry.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, entry.disposition());
+        if (etag != null) response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, etag != null ? TTS_CACHE_CONTROL : CacheControl.noCache().getHeaderValue());
+        response.setContentLength(entry.audio().length);
+        response.getOutputStream().write(entry.audio());
+        transfer.ttsBytes(entry.audio().length);
+    }
+
+    // === 세션 ===
+    private static Map<String, Object> withSession(Map<String, Object> body, String upstreamId,
+                                                   List<Map<String, String>> history) {
+        Map<String, Object> out = new LinkedHashMap<>(body);
+        out.put("session_id", upstreamId);
+        out.put("history", history);
+        return out;
+    }
+
+    // upstream 응답 JSON 의 answer 를 이번 턴으로 기록
+    private static void remember(SessionStore.Session session, Map<String, Object> body, JsonNode response) {
+        Object message = body.get("message");
+        String answer = response.path("answer").asText(null);
+        if (message != null && answer != null) session.append(message.toString(), answer);
+    }
+
+    // /chat 응답 또는 SSE done 프레임 JSON (없거나 깨졌으면 빈 노드)
+    private JsonNode doneFrame(String responseJson) {
+        if (responseJson == null || responseJson.isEmpty()) return MissingNode.getInstance();
+        try {
+            return json.readTree(responseJson);
+        } catch (JsonProcessingException e) {
+            log.warning("upstream response not parsed: " + e.getOriginalMessage());
+            return MissingNode.getInstance();
         }
     }
 
     // === 유틸 ===
-    private byte[] toBytes(MultipartFile f) {
-        try { return f.getBytes(); }
-        catch (Exception e) { throw new RuntimeException("파일 읽기 실패", e); }
+    // Content-Length 와 실제 읽은 양 모두 상한 검사 (초과면 null)
+    private static byte[] readBody(HttpServletRequest request, int maxBytes) throws IOException {
+        long declared = request.getContentLengthLong();
+        if (declared > maxBytes) return null;
+        byte[] raw = request.getInputStream().readNBytes(maxBytes + 1);
+        return raw.length > maxBytes ? null : raw;
+    }
+
+    // FastAPI 4xx/5xx 응답을 상태/Content-Type/본문 그대로 전달
+    static ResponseEntity<String> upstreamError(HttpStatusCodeException ex) {
+        MediaType ct = ex.getResponseHeaders() != null ? ex.getResponseHeaders().getContentType() : null;
+        return ResponseEntity.status(ex.getStatusCode())
+                .contentType(ct != null ? ct : MediaType.APPLICATION_JSON)
+                .body(ex.getResponseBodyAsString());
+    }
+
+    // upstream span 을 FastAPI 로 전파
+    private static HttpHeaders traced(HttpHeaders headers, UpstreamGuard.Permit permit) {
+        String traceparent = permit.traceparent();
+        if (traceparent != null) headers.set(TraceFilter.TRACEPARENT, traceparent);
+        return headers;
+    }
+
+    // 읽은 만큼 바로 쓰고 flush (SSE 청크 경계 유지, 오디오 첫 바이트 지연 최소화)
+    static long relay(InputStream in, OutputStream out, int bufferBytes) throws IOException {
+        byte[] buf = new byte[bufferBytes];
+        long total = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+            out.flush();
+            total += n;
+        }
+        return total;
+    }
+
+    private static void sseError(OutputStream out, String message) throws IOException {
+        String frame = "event: error\ndata: {\"error\":\"" + message + "\"}\n\n";
+        out.write(frame.getBytes(StandardCharsets.UTF_8));
+        out.flush();
     }
 
-    private ResponseEntity<byte[]> jsonError(String json, HttpStatus status) {
-        HttpHeaders hdr = new HttpHeaders();
-        hdr.setContentType(MediaType.APPLICATION_JSON);
-        return new ResponseEntity<>(json.getBytes(StandardCharsets.UTF_8), hdr, status);
+    private static void writeJson(HttpServletResponse response, int status, byte[] json) throws IOException {
+        response.resetBuffer();
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
     }
-}
\ No newline at end of file
+}
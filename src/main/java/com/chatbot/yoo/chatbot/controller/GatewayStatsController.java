@@ -0,0 +1,52 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.trace.Tracer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+public class GatewayStatsController {
+
+    private final List<StatsSource> sources;
+    private final Tracer tracer;
+
+    public GatewayStatsController(List<StatsSource> sources, Tracer tracer) {
+        this.sources = sources;
+        this.tracer = tracer;
+    }
+
+    // === Stats: GET /api/gateway/stats → 풀/캐시 등 런타임 상태 ===
+    @GetMapping(value = "/api/gateway/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (StatsSource s : sources) {
+            out.put(s.name(), s.snapshot());
+        }
+        return out;
+    }
+
+    // === Traces: GET /api/gateway/traces → 최근 trace 요약, /{traceId} → 구간별 span ===
+    @GetMapping(value = "/api/gateway/traces", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<Map<String, Object>> traces(@RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return tracer.recentTraces(Math.max(1, Math.min(200, limit)));
+    }
+
+    @GetMapping(value = "/api/gateway/traces/{traceId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<List<Map<String, Object>>> trace(@PathVariable("traceId") String traceId) {
+        List<Map<String, Object>> spans = tracer.trace(traceId);
+        return spans.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(spans);
+    }
+}
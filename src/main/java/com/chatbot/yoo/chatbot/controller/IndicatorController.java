@@ -0,0 +1,66 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.chatbot.yoo.chatbot.indicator.IndicatorStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Controller
+public class IndicatorController {
+
+    private final IndicatorStore indicators;
+
+    public IndicatorController(IndicatorStore indicators) {
+        this.indicators = indicators;
+    }
+
+    // === Indicators: GET /api/indicators → 시리즈별 최신/직전값 (IndicatorStore) ===
+    @GetMapping(value = "/api/indicators", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> indicators() {
+        if (!indicators.enabled()) return error(HttpStatus.SERVICE_UNAVAILABLE, "경제지표 기능이 꺼져 있습니다 (fastapi.indicator.enabled)");
+        return ResponseEntity.ok(indicators.latestAll());
+    }
+
+    // === GET /api/indicators/{code}?from=YYYY-MM&to=YYYY-MM → 최신/직전값 + 구간 (code: 901Y009 등 또는 CPI 등 별칭) ===
+    @GetMapping(value = "/api/indicators/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> indicator(@PathVariable("code") String code,
+                                       @RequestParam(name = "from", required = false) String from,
+                                       @RequestParam(name = "to", required = false) String to) {
+        if (!indicators.enabled()) return error(HttpStatus.SERVICE_UNAVAILABLE, "경제지표 기능이 꺼져 있습니다 (fastapi.indicator.enabled)");
+        IndicatorStore.Reading r = indicators.latest(code);
+        if (r == null) return error(HttpStatus.NOT_FOUND, "지표를 찾을 수 없습니다: " + code);
+        if (from == null && to == null) return ResponseEntity.ok(r);
+
+        int fromMonth, toMonth;
+        try {
+            fromMonth = from != null ? IndicatorStore.parseMonth(from) : Integer.MIN_VALUE;
+            toMonth = to != null ? IndicatorStore.parseMonth(to) : IndicatorStore.currentMonth();
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        IndicatorStore.Columns c = indicators.range(code, fromMonth, toMonth);
+        String[] months = new String[c.size()];
+        for (int i = 0; i < months.length; i++) months[i] = IndicatorStore.monthLabel(c.months()[i]);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("latest", r);
+        out.put("months", months);
+        out.put("values", c.values());
+        return ResponseEntity.ok(out);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", message));
+    }
+}
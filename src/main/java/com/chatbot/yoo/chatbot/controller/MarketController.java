@@ -0,0 +1,60 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.chatbot.yoo.chatbot.market.MarketService;
+import com.chatbot.yoo.chatbot.market.QuoteStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Controller
+public class MarketController {
+
+    private final MarketService markets;
+
+    public MarketController(MarketService markets) {
+        this.markets = markets;
+    }
+
+    // === Markets: GET /api/markets → 감시 중인 전 종목 최신 시세 (MarketService 캐시) ===
+    @GetMapping(value = "/api/markets", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> markets() {
+        if (!markets.enabled()) return disabled();
+        return ResponseEntity.ok(markets.quotes());
+    }
+
+    // === GET /api/markets/{symbol}?minutes=N → 최신 시세 + 최근 N분 시계열 (symbol: KOSPI 등 키 또는 ticker) ===
+    @GetMapping(value = "/api/markets/{symbol}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> market(@PathVariable("symbol") String symbol,
+                                    @RequestParam(name = "minutes", defaultValue = "0") int minutes) {
+        if (!markets.enabled()) return disabled();
+        QuoteStore.Quote q = markets.quote(symbol);
+        if (q == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "시세를 찾을 수 없습니다: " + symbol));
+        }
+        if (minutes <= 0) return ResponseEntity.ok(q);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("quote", q);
+        QuoteStore.Series s = markets.series(q.key(), System.currentTimeMillis() - Math.min(minutes, 7 * 24 * 60) * 60_000L);
+        out.put("times", s != null ? s.times() : new long[0]);
+        out.put("prices", s != null ? s.prices() : new double[0]);
+        return ResponseEntity.ok(out);
+    }
+
+    private static ResponseEntity<Map<String, String>> disabled() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", "시세 기능이 꺼져 있습니다 (fastapi.market.enabled)"));
+    }
+}
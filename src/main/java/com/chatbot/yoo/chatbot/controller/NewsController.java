@@ -0,0 +1,39 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.chatbot.yoo.chatbot.news.NewsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+@Controller
+public class NewsController {
+
+    private final NewsService news;
+
+    public NewsController(NewsService news) {
+        this.news = news;
+    }
+
+    // === News: GET /api/news/latest?n=5 → 최신 뉴스 n건 (NewsService 메모리 읽기 모델, 1~50) ===
+    @GetMapping(value = "/api/news/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> latest(@RequestParam(name = "n", defaultValue = "5") int n) {
+        if (!news.enabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "뉴스 기능이 꺼져 있습니다 (fastapi.news.enabled)"));
+        }
+        if (!news.ready()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "뉴스를 아직 불러오지 못했습니다"));
+        }
+        return ResponseEntity.ok(news.latest(Math.max(1, Math.min(50, n))));
+    }
+}
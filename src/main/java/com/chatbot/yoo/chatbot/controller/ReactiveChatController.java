@@ -0,0 +1,256 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.chatbot.yoo.chatbot.session.SessionStore;
+import com.chatbot.yoo.chatbot.upstream.UpstreamBalancer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * ChatController 의 논블로킹 대안 (fastapi.gateway.mode=reactive, reactive 프로파일).
+ * 요청/응답 바디를 DataBuffer 스트림으로 그대로 흘려보내므로 업로드/다운로드 동안 스레드를 잡지 않는다.
+ * 에러 매핑은 ChatController 와 동일: upstream 4xx/5xx 는 그대로, 접속 실패는 502.
+ * upstream 인스턴스는 UpstreamBalancer 가 요청마다 고른다.
+ * 대화 세션은 ChatController 와 같은 SessionStore 를 쓴다: /api/chat 에 session_id/history 를 실어 보내고
+ * (답을 히스토리에 남기려고 /chat 응답만은 모아서 돌려줌), /api/reset 은 호출한 세션만 비운다.
+ */
+@Controller
+@ConditionalOnProperty(name = "fastapi.gateway.mode", havingValue = "reactive")
+public class ReactiveChatController {
+
+    private static final Logger log = Logger.getLogger(ReactiveChatController.class.getName());
+
+    private final WebClient web;
+    private final UpstreamBalancer balancer;
+    private final SessionStore sessions;
+    private final ObjectMapper json;
+
+    public ReactiveChatController(WebClient upstreamWebClient, UpstreamBalancer balancer,
+                                  SessionStore sessions, ObjectMapper json) {
+        this.web = upstreamWebClient;
+        this.balancer = balancer;
+        this.sessions = sessions;
+        this.json = json;
+    }
+
+    // 챗봇 페이지
+    @GetMapping("/chat")
+    public String chatPage() { return "chat"; }
+
+    // === Chat: POST /api/chat → FastAPI /chat ===
+    @PostMapping(value = "/api/chat", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Mono<ResponseEntity<Flux<DataBuffer>>> proxyChat(@RequestBody(required = false) Mono<byte[]> body,
+                                                           ServerWebExchange exchange) {
+        return body.defaultIfEmpty(new byte[0]).flatMap(raw -> {
+            ChatBody head;
+            try {
+                head = ChatBody.scan(json.getFactory(), raw);
+            } catch (IOException e) {
+                return Mono.just(jsonBody("{\"error\":\"잘못된 JSON 요청입니다\"}", HttpStatus.BAD_REQUEST));
+            }
+            // 히스토리는 게이트웨이 세션에서 꺼내 매 요청에 실어 보냄 (FastAPI 는 stateless)
+            SessionStore.Session session = sessions.resolve(exchange);
+            byte[] forwarded;
+            try {
+                forwarded = head.inject(raw, json.writeValueAsBytes(session.upstreamId()),
+                        json.writeValueAsBytes(session.history()));
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+            return balanced(up -> web.post().uri(up.url("/chat"))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(forwarded)
+                    .retrieve()
+                    .toEntity(byte[].class))
+                    .map(res -> {
+                        byte[] out = res.getBody() != null ? res.getBody() : new byte[0];
+                        if (res.getStatusCode().is2xxSuccessful() && head.message() != null) {
+                            String answer = ChatBody.answerOf(json.getFactory(), out);
+                            if (answer != null) session.append(head.message(), answer);
+                        }
+                        MediaType ct = res.getHeaders().getContentType();
+                        return buffered(out, ct != null ? ct : MediaType.APPLICATION_JSON, res.getStatusCode());
+                    });
+        })
+                .onErrorResume(WebClientResponseException.class, ex -> Mono.just(upstreamError(ex)))
+                .onErrorResume(WebClientRequestException.class, e -> {
+                    log.severe("proxyChat upstream error: " + e.getMessage());
+                    return Mono.just(jsonBody("{\"error\":\"게이트웨이 오류: FastAPI /chat 접속 실패\"}", HttpStatus.BAD_GATEWAY));
+                });
+    }
+
+    // === Reset: POST /api/reset → FastAPI /reset ===
+    // 호출한 쿠키의 세션만 비움 (빈 바디로 보내면 FastAPI 가 모든 세션을 지움)
+    @PostMapping(value = "/api/reset", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Mono<ResponseEntity<Flux<DataBuffer>>> proxyReset(ServerWebExchange exchange) {
+        String sessionId = sessions.clear(exchange);
+        if (sessionId == null) {
+            return Mono.just(jsonBody("{\"status\":\"ok\",\"message\":\"대화 기록 초기화 완료\"}", HttpStatus.OK));
+        }
+        return streamed(up -> web.post().uri(up.url("/reset"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("session_id", sessionId))
+                .retrieve()
+                .toEntityFlux(DataBuffer.class))
+                .map(res -> passthrough(res, MediaType.APPLICATION_JSON))
+                .onErrorResume(WebClientResponseException.class, ex -> Mono.just(upstreamError(ex)))
+                .onErrorResume(WebClientRequestException.class, e -> {
+                    log.severe("proxyReset upstream error: " + e.getMessage());
+                    return Mono.just(jsonBody("{\"message\":\"게이트웨이 오류: FastAPI /reset 접속 실패\"}", HttpStatus.BAD_GATEWAY));
+                });
+    }
+
+    // === STT: POST multipart /api/stt → FastAPI /api/stt ===
+    // 파트 이벤트를 디스크/메모리에 모으지 않고 그대로 upstream multipart 로 재전송
+    @PostMapping(value = "/api/stt", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Mono<ResponseEntity<Flux<DataBuffer>>> proxyStt(
+            @RequestBody Flux<PartEvent> parts,
+            @RequestParam(name = "lang", defaultValue = "Kor") String lang
+    ) {
+        return streamed(up -> web.post().uri(up.url("/api/stt?lang={lang}"), lang)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(parts.filter(p -> "audio_file".equals(p.name())), PartEvent.class)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class))
+                .map(res -> passthrough(res, MediaType.APPLICATION_JSON))
+                .onErrorResume(WebClientResponseException.class, ex -> Mono.just(upstreamError(ex)))
+                .onErrorResume(WebClientRequestException.class, e -> {
+                    log.severe("proxyStt upstream error: " + e.getMessage());
+                    return Mono.just(jsonBody("{\"error\":\"게이트웨이 오류: FastAPI /api/stt 접속 실패\"}", HttpStatus.BAD_GATEWAY));
+                });
+    }
+
+    // === TTS: POST JSON /api/tts → FastAPI /api/tts ===
+    @PostMapping(value = "/api/tts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Mono<ResponseEntity<Flux<DataBuffer>>> proxyTtsPost(@RequestBody Flux<DataBuffer> body) {
+        return streamed(up -> web.post().uri(up.url("/api/tts"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.valueOf("audio/mpeg"),
+                        MediaType.valueOf("audio/ogg"),
+                        MediaType.valueOf("audio/wav"),
+                        MediaType.APPLICATION_JSON)
+                .body(body, DataBuffer.class)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class))
+                .map(res -> {
+                    HttpHeaders out = new HttpHeaders();
+                    MediaType ct = res.getHeaders().getContentType();
+                    out.setContentType(ct != null ? ct : MediaType.APPLICATION_OCTET_STREAM);
+                    String disp = res.getHeaders().getFirst("Content-Disposition");
+                    out.set("Content-Disposition", disp != null ? disp : "inline; filename=\"speech.bin\"");
+                    out.setCacheControl(CacheControl.noCache());
+                    return new ResponseEntity<>(res.getBody(), out, res.getStatusCode());
+                })
+                .onErrorResume(WebClientResponseException.class, ex ->
+                        // FastAPI가 JSON 에러 반환 시 그대로 전달
+                        Mono.just(jsonBody(ex.getResponseBodyAsByteArray(), ex.getStatusCode())))
+                .onErrorResume(WebClientRequestException.class, e ->
+                        Mono.just(jsonBody("{\"error\":\"Gateway error: cannot reach FastAPI /api/tts\"}", HttpStatus.BAD_GATEWAY)))
+                .onErrorResume(e ->
+                        Mono.just(jsonBody("{\"error\":\"Unexpected error in /api/tts\"}", HttpStatus.INTERNAL_SERVER_ERROR)));
+    }
+
+    // === 유틸 ===
+    // 인스턴스 선택(P2C) → 호출 → 결과 반영 (접속 실패/5xx 만 실패로 집계, 취소는 자리만 반납)
+    // 응답 바디까지 모두 받은 뒤 끝나는 호출용 (toEntity(byte[]) 등)
+    private <T> Mono<T> balanced(Function<UpstreamBalancer.Instance, Mono<T>> call) {
+        return Mono.usingWhen(Mono.fromSupplier(() -> balancer.pick(null)), call,
+                up -> Mono.fromRunnable(() -> balancer.success(up)),
+                (up, e) -> Mono.fromRunnable(() -> settle(up, e)),
+                up -> Mono.fromRunnable(() -> balancer.release(up)));
+    }
+
+    // 바디를 흘려보내는 호출용: 헤더가 와도 바디가 끝나거나(오류/취소 포함) 할 때까지 자리를 잡고 있어야
+    // 느린 응답(TTS, 업로드 중계)이 P2C 부하 비교에서 빠지지 않는다
+    private Mono<ResponseEntity<Flux<DataBuffer>>> streamed(
+            Function<UpstreamBalancer.Instance, Mono<ResponseEntity<Flux<DataBuffer>>>> call) {
+        return Mono.defer(() -> {
+            UpstreamBalancer.Instance up = balancer.pick(null);
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) balancer.release(up);
+            };
+            return call.apply(up)
+                    .map(res -> {
+                        Flux<DataBuffer> body = res.getBody() != null ? res.getBody() : Flux.empty();
+                        return new ResponseEntity<>(body
+                                .doOnComplete(() -> balancer.success(up))
+                                .doOnError(e -> balancer.failure(up))
+                                .doFinally(signal -> release.run()), res.getHeaders(), res.getStatusCode());
+                    })
+                    .doOnError(e -> {
+                        settle(up, e);
+                        release.run();
+                    })
+                    .doOnCancel(release);
+        });
+    }
+
+    private void settle(UpstreamBalancer.Instance up, Throwable e) {
+        boolean failed = e instanceof WebClientRequestException
+                || e instanceof WebClientResponseException r && r.getStatusCode().is5xxServerError();
+        if (failed) balancer.failure(up);
+        else balancer.success(up);
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> passthrough(ResponseEntity<Flux<DataBuffer>> res, MediaType fallback) {
+        MediaType ct = res.getHeaders().getContentType();
+        return ResponseEntity.status(res.getStatusCode())
+                .contentType(ct != null ? ct : fallback)
+                .body(res.getBody());
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> upstreamError(WebClientResponseException ex) {
+        MediaType ct = ex.getHeaders().getContentType();
+        return ResponseEntity.status(ex.getStatusCode())
+                .contentType(ct != null ? ct : MediaType.APPLICATION_JSON)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(ex.getResponseBodyAsByteArray())));
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> buffered(byte[] body, MediaType contentType, HttpStatusCode status) {
+        return ResponseEntity.status(status)
+                .contentType(contentType)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> jsonBody(String json, HttpStatusCode status) {
+        return jsonBody(json.getBytes(StandardCharsets.UTF_8), status);
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> jsonBody(byte[] json, HttpStatusCode status) {
+        return buffered(json, MediaType.APPLICATION_JSON, status);
+    }
+}
@@ -0,0 +1,66 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * SSE 를 그대로 흘려보내면서 마지막 "event: done" 프레임의 data 만 따로 남긴다.
+ * 프레임 하나가 상한을 넘으면 그 프레임은 기록하지 않는다.
+ */
+class SseDoneTap extends FilterOutputStream {
+
+    private static final String DONE = "event: done";
+
+    private final int maxFrameBytes;
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+    private boolean overflow;
+    private int prev = -1;
+    private String doneData;
+
+    SseDoneTap(OutputStream out, int maxFrameBytes) {
+        super(out);
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        tap(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        for (int i = off; i < off + len; i++) tap(b[i]);
+    }
+
+    /** done 프레임의 data 줄 (없으면 null) */
+    String doneData() { return doneData; }
+
+    private void tap(int b) {
+        b &= 0xFF;
+        if (b == '\r') return;
+        if (b == '\n' && prev == '\n') {
+            if (!overflow) inspect(frame.toByteArray());
+            frame.reset();
+            overflow = false;
+        } else if (!overflow) {
+            if (frame.size() >= maxFrameBytes) overflow = true;
+            else frame.write(b);
+        }
+        prev = b;
+    }
+
+    private void inspect(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (!text.startsWith(DONE)) return;
+        StringBuilder data = new StringBuilder();
+        for (String line : text.split("\n")) {
+            if (line.startsWith("data:")) data.append(line.substring(5).strip());
+        }
+        doneData = data.toString();
+    }
+}
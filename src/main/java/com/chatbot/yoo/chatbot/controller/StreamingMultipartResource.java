@@ -0,0 +1,53 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * MultipartFile 을 byte[] 로 올리지 않고 Tomcat 임시파일 스트림에서 바로 읽어 보내는 multipart 파트.
+ * 복사는 메시지 컨버터의 고정 버퍼로만 이뤄지고, 읽은 바이트 수는 onBytes 로 넘긴다.
+ */
+final class StreamingMultipartResource extends AbstractResource {
+
+    private final MultipartFile file;
+    private final LongConsumer onBytes;
+
+    StreamingMultipartResource(MultipartFile file, LongConsumer onBytes) {
+        this.file = file;
+        this.onBytes = onBytes;
+    }
+
+    @Override
+    public String getFilename() { return file.getOriginalFilename(); }
+
+    // 기본 구현은 길이를 알기 위해 스트림을 끝까지 읽으므로 파트 크기를 바로 반환
+    @Override
+    public long contentLength() { return file.getSize(); }
+
+    @Override
+    public String getDescription() { return "multipart [" + file.getName() + "]"; }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new FilterInputStream(file.getInputStream()) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) onBytes.accept(1);
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) onBytes.accept(n);
+                return n;
+            }
+        };
+    }
+}
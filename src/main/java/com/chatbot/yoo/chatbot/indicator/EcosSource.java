@@ -0,0 +1,126 @@
+package com.chatbot.yoo.chatbot.indicator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.TreeMap;
+
+/**
+ * 한국은행 ECOS StatisticSearch. 코드 형식: 통계표[/항목][@주기] (예: 901Y009, 722Y001/0101000, 200Y101@A).
+ * 주기 M(기본)/Q/A 의 시점은 그 기간의 마지막 달로 저장한다 (2024Q1 → 2024-03, 2024 → 2024-12).
+ * 같은 시점에 행이 여럿이면(항목 미지정) FastAPI 와 같이 마지막 행을 쓴다.
+ */
+@Component
+public class EcosSource implements ObservationSource {
+
+    @Value("${fastapi.indicator.ecos.url:https://ecos.bok.or.kr/api}")
+    private String baseUrl;
+
+    @Value("${fastapi.indicator.ecos.api-key:${ECOS_API_KEY:}}")
+    private String apiKey;
+
+    @Value("${fastapi.indicator.timeout-ms:20000}")
+    private long timeoutMs;
+
+    private final ObjectMapper json;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public EcosSource(ObjectMapper json) {
+        this.json = json;
+    }
+
+    @Override
+    public String name() { return "ecos"; }
+
+    @Override
+    public Observations fetch(String code, int fromMonth, int toMonth) throws IOException {
+        if (apiKey.isBlank()) throw new IOException("ECOS_API_KEY 가 없습니다");
+        String cycle = "M";
+        int at = code.indexOf('@');
+        if (at > 0) {
+            cycle = code.substring(at + 1);
+            code = code.substring(0, at);
+        }
+        String item = "";
+        int slash = code.indexOf('/');
+        if (slash > 0) {
+            item = code.substring(slash + 1) + "/";
+            code = code.substring(0, slash);
+        }
+        String url = baseUrl + "/StatisticSearch/" + apiKey + "/json/kr/1/1000/" + code + "/" + cycle + "/"
+                + period(fromMonth, cycle) + "/" + period(toMonth, cycle) + "/" + item;
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMillis(timeoutMs)).GET().build();
+        HttpResponse<byte[]> res;
+        try {
+            res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+        if (res.statusCode() != 200) throw new IOException("ECOS " + res.statusCode() + " for " + code);
+        return parse(json.readTree(res.body()));
+    }
+
+    // {"StatisticSearch":{"row":[{"TIME":"202401","DATA_VALUE":"113.15",...}]}} / 데이터 없음은 {"RESULT":{"CODE":"INFO-200"}}
+    static Observations parse(JsonNode root) throws IOException {
+        JsonNode rows = root.path("StatisticSearch").path("row");
+        if (!rows.isArray()) {
+            String code = root.path("RESULT").path("CODE").asText("");
+            if (code.equals("INFO-200")) return Observations.EMPTY;
+            throw new IOException("ECOS " + code + " " + root.path("RESULT").path("MESSAGE").asText(""));
+        }
+        TreeMap<Integer, Double> byMonth = new TreeMap<>();
+        for (JsonNode r : rows) {
+            int m = month(r.path("TIME").asText(""));
+            String v = r.path("DATA_VALUE").asText("").replace(",", "").strip();
+            if (m == Integer.MIN_VALUE || v.isEmpty()) continue;
+            try {
+                byMonth.put(m, Double.parseDouble(v));
+            } catch (NumberFormatException ignored) {
+                // 값 없음 표기("-" 등)
+            }
+        }
+        int[] months = new int[byMonth.size()];
+        double[] values = new double[byMonth.size()];
+        int i = 0;
+        for (var e : byMonth.entrySet()) {
+            months[i] = e.getKey();
+            values[i++] = e.getValue();
+        }
+        return new Observations(months, values);
+    }
+
+    private static String period(int epochMonth, String cycle) {
+        int y = ObservationSource.year(epochMonth);
+        int m = ObservationSource.month(epochMonth);
+        return switch (cycle) {
+            case "A" -> Integer.toString(y);
+            case "Q" -> y + "Q" + ((m - 1) / 3 + 1);
+            default -> String.format("%04d%02d", y, m);
+        };
+    }
+
+    // 202401 / 2024Q1 / 2024 → 그 기간의 마지막 달
+    private static int month(String time) {
+        try {
+            if (time.length() == 6 && time.charAt(4) == 'Q') {
+                return ObservationSource.epochMonth(Integer.parseInt(time.substring(0, 4)), (time.charAt(5) - '0') * 3);
+            }
+            if (time.length() == 6) {
+                return ObservationSource.epochMonth(Integer.parseInt(time.substring(0, 4)), Integer.parseInt(time.substring(4)));
+            }
+            if (time.length() == 4) return ObservationSource.epochMonth(Integer.parseInt(time), 12);
+        } catch (NumberFormatException ignored) {
+            // 아래에서 무시
+        }
+        return Integer.MIN_VALUE;
+    }
+}
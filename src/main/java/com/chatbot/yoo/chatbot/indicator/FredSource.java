@@ -0,0 +1,87 @@
+package com.chatbot.yoo.chatbot.indicator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * FRED series/observations. 일별 시리즈(DFEDTARU 등)는 frequency=m, aggregation_method=eop 로 받아 월말 값을 저장한다.
+ */
+@Component
+public class FredSource implements ObservationSource {
+
+    @Value("${fastapi.indicator.fred.url:https://api.stlouisfed.org/fred/series/observations}")
+    private String baseUrl;
+
+    @Value("${fastapi.indicator.fred.api-key:${FRED_API_KEY:}}")
+    private String apiKey;
+
+    @Value("${fastapi.indicator.timeout-ms:20000}")
+    private long timeoutMs;
+
+    private final ObjectMapper json;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public FredSource(ObjectMapper json) {
+        this.json = json;
+    }
+
+    @Override
+    public String name() { return "fred"; }
+
+    @Override
+    public Observations fetch(String code, int fromMonth, int toMonth) throws IOException {
+        if (apiKey.isBlank()) throw new IOException("FRED_API_KEY 가 없습니다");
+        String url = baseUrl + "?series_id=" + URLEncoder.encode(code, StandardCharsets.UTF_8)
+                + "&api_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)
+                + "&file_type=json&frequency=m&aggregation_method=eop"
+                + "&observation_start=" + date(fromMonth) + "&observation_end=" + date(toMonth);
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMillis(timeoutMs)).GET().build();
+        HttpResponse<byte[]> res;
+        try {
+            res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+        if (res.statusCode() != 200) throw new IOException("FRED " + res.statusCode() + " for " + code);
+        return parse(json.readTree(res.body()));
+    }
+
+    // {"observations":[{"date":"2024-01-01","value":"5.33"}, {"value":"."} ...]}
+    static Observations parse(JsonNode root) {
+        JsonNode obs = root.path("observations");
+        int[] months = new int[obs.size()];
+        double[] values = new double[obs.size()];
+        int n = 0;
+        for (JsonNode o : obs) {
+            String d = o.path("date").asText("");
+            String v = o.path("value").asText("");
+            if (d.length() < 7 || v.isEmpty() || v.equals(".")) continue;
+            try {
+                int m = ObservationSource.epochMonth(Integer.parseInt(d.substring(0, 4)), Integer.parseInt(d.substring(5, 7)));
+                if (n > 0 && months[n - 1] == m) n--;   // 같은 달이면 마지막 값
+                months[n] = m;
+                values[n++] = Double.parseDouble(v);
+            } catch (NumberFormatException ignored) {
+                // 형식이 다른 행은 건너뜀
+            }
+        }
+        return new Observations(Arrays.copyOf(months, n), Arrays.copyOf(values, n));
+    }
+
+    private static String date(int epochMonth) {
+        return String.format("%04d-%02d-01", ObservationSource.year(epochMonth), ObservationSource.month(epochMonth));
+    }
+}
@@ -0,0 +1,340 @@
+package com.chatbot.yoo.chatbot.indicator;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * 경제지표 시계열 저장소 (opt-in: fastapi.indicator.enabled). 키는 통계 코드(ECOS 901Y009, FRED FEDFUNDS 등), 별칭(CPI 등)으로도 찾는다.
+ * 시리즈마다 epoch-month 오름차순 int[] 와 double[] 두 열을 불변으로 두고 갱신 때 새 배열로 바꿔 끼운다 (읽기는 잠금 없음).
+ * refresh-ms 마다 마지막 저장 시점부터만 다시 받아 합치고(마지막 달은 잠정치/월중 값일 수 있어 덮어씀),
+ * 바뀐 게 있으면 전체를 바이너리 파일로 저장해 재시작 때 외부 호출 없이 바로 읽어 들인다.
+ */
+@Component
+public class IndicatorStore implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(IndicatorStore.class.getName());
+    private static final int MAGIC = 0x59494E44;   // "YIND"
+    private static final int VERSION = 1;
+    // 파일 검증 상한 (월별 200년, 시리즈 수). 깨진 길이 값으로 큰 배열을 잡지 않게
+    private static final int MAX_POINTS = 12 * 200;
+    private static final int MAX_SERIES = 4096;
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${fastapi.indicator.enabled:false}")
+    private boolean enabled;
+
+    // [별칭=]공급원:코드 (예: CPI=ecos:901Y009, US_FEDFUNDS=fred:FEDFUNDS)
+    @Value("${fastapi.indicator.series:CPI=ecos:901Y009,PPI=ecos:404Y014,GDP=ecos:200Y101,EXPORTS=ecos:901Y011,IMPORTS=ecos:901Y012,CURRENT_ACCOUNT=ecos:301Y013,BASE_RATE=ecos:722Y001/0101000,US_FEDFUNDS=fred:FEDFUNDS,US_FED_TARGET_UPPER=fred:DFEDTARU,US_FED_TARGET_LOWER=fred:DFEDTARL}")
+    private String[] seriesConfig;
+
+    // 저장된 점이 없을 때 처음 받을 기간
+    @Value("${fastapi.indicator.backfill-months:36}")
+    private int backfillMonths;
+
+    @Value("${fastapi.indicator.file:${java.io.tmpdir}/yoo-indicators.bin}")
+    private String file;
+
+    /** 시리즈 한 구간의 열 (months 오름차순, 같은 길이) */
+    public record Columns(int[] months, double[] values, long fetchedAt) {
+        static final Columns EMPTY = new Columns(new int[0], new double[0], 0);
+
+        public int size() { return months.length; }
+    }
+
+    /** 최신값과 직전값 (직전이 없으면 prev* 는 null). month 는 "YYYY-MM". */
+    public record Reading(String code, String alias, String month, double value,
+                          String prevMonth, Double prevValue, Double change) { }
+
+    private static final class Entry {
+        final String code;
+        final String alias;
+        final String source;
+        volatile Columns columns = Columns.EMPTY;
+
+        Entry(String code, String alias, String source) {
+            this.code = code;
+            this.alias = alias;
+            this.source = source;
+        }
+    }
+
+    private final Map<String, ObservationSource> sources = new HashMap<>();
+    private final Map<String, Entry> byCode = new LinkedHashMap<>();
+    private final Map<String, Entry> byAlias = new HashMap<>();
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder fetchedPoints = new LongAdder();
+    private final LongAdder fetchErrors = new LongAdder();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private volatile long lastRefreshAt;
+    private volatile int loadedFromFile;
+
+    public IndicatorStore(List<ObservationSource> sources) {
+        for (ObservationSource s : sources) this.sources.put(s.name(), s);
+    }
+
+    @PostConstruct
+    void init() {
+        for (String s : seriesConfig) {
+            String spec = s.strip();
+            String alias = null;
+            int eq = spec.indexOf('=');
+            int colon = spec.indexOf(':');
+            if (eq > 0 && eq < colon) {
+                alias = spec.substring(0, eq).strip().toUpperCase(Locale.ROOT);
+                spec = spec.substring(eq + 1).strip();
+                colon = spec.indexOf(':');
+            }
+            if (colon <= 0 || colon == spec.length() - 1) continue;
+            String source = spec.substring(0, colon).toLowerCase(Locale.ROOT);
+            String code = spec.substring(colon + 1).strip();
+            if (!sources.containsKey(source)) {
+                log.warning("unknown indicator source '" + source + "' for " + code);
+                continue;
+            }
+            Entry e = new Entry(code, alias, source);
+            byCode.put(code.toUpperCase(Locale.ROOT), e);
+            if (alias != null) byAlias.put(alias, e);
+        }
+        if (enabled) load();
+    }
+
+    public boolean enabled() { return enabled; }
+
+    // === 조회 (잠금 없음) ===
+    /** 코드 또는 별칭의 전체 열, 없는 시리즈면 null */
+    public Columns columns(String codeOrAlias) {
+        reads.increment();
+        Entry e = entry(codeOrAlias);
+        return e != null ? e.columns : null;
+    }
+
+    /** [fromMonth, toMonth] (epoch-month, 양끝 포함) 구간 복사본 */
+    public Columns range(String codeOrAlias, int fromMonth, int toMonth) {
+        Columns c = columns(codeOrAlias);
+        if (c == null) return null;
+        int from = lowerBound(c.months(), fromMonth);
+        int to = lowerBound(c.months(), toMonth + 1);
+        if (from >= to) return new Columns(new int[0], new double[0], c.fetchedAt());
+        return new Columns(Arrays.copyOfRange(c.months(), from, to), Arrays.copyOfRange(c.values(), from, to), c.fetchedAt());
+    }
+
+    /** 최신값 + 직전값, 점이 없으면 null */
+    public Reading latest(String codeOrAlias) {
+        reads.increment();
+        Entry e = entry(codeOrAlias);
+        return e != null ? reading(e) : null;
+    }
+
+    public List<Reading> latestAll() {
+        reads.increment();
+        List<Reading> out = new ArrayList<>(byCode.size());
+        for (Entry e : byCode.values()) {
+            Reading r = reading(e);
+            if (r != null) out.add(r);
+        }
+        return out;
+    }
+
+    private Entry entry(String codeOrAlias) {
+        String k = codeOrAlias.strip().toUpperCase(Locale.ROOT);
+        Entry e = byAlias.get(k);
+        return e != null ? e : byCode.get(k);
+    }
+
+    private static Reading reading(Entry e) {
+        Columns c = e.columns;
+        int n = c.size();
+        if (n == 0) return null;
+        double v = c.values()[n - 1];
+        boolean prev = n >= 2;
+        double p = prev ? c.values()[n - 2] : 0;
+        return new Reading(e.code, e.alias, monthLabel(c.months()[n - 1]), v,
+                prev ? monthLabel(c.months()[n - 2]) : null,
+                prev ? p : null,
+                prev ? v - p : null);
+    }
+
+    public static String monthLabel(int epochMonth) {
+        return String.format("%04d-%02d", ObservationSource.year(epochMonth), ObservationSource.month(epochMonth));
+    }
+
+    /** "YYYY-MM" 또는 "YYYYMM" → epoch-month, 형식이 아니면 IllegalArgumentException */
+    public static int parseMonth(String s) {
+        String t = s.strip().replace("-", "");
+        if (t.length() != 6) throw new IllegalArgumentException("YYYY-MM 형식이 아닙니다: " + s);
+        int m = Integer.parseInt(t.substring(4));
+        if (m < 1 || m > 12) throw new IllegalArgumentException("월이 잘못되었습니다: " + s);
+        return ObservationSource.epochMonth(Integer.parseInt(t.substring(0, 4)), m);
+    }
+
+    public static int currentMonth() {
+        LocalDate d = LocalDate.now(KST);
+        return ObservationSource.epochMonth(d.getYear(), d.getMonthValue());
+    }
+
+    // === 증분 갱신 ===
+    @Scheduled(fixedDelayString = "${fastapi.indicator.refresh-ms:21600000}")
+    void refresh() {
+        if (!enabled) return;
+        int now = currentMonth();
+        boolean changed = false;
+        for (Entry e : byCode.values()) changed |= refresh(e, now);
+        refreshes.increment();
+        lastRefreshAt = System.currentTimeMillis();
+        if (changed) save();
+    }
+
+    private boolean refresh(Entry e, int now) {
+        Columns old = e.columns;
+        int from = old.size() > 0 ? old.months()[old.size() - 1] : now - backfillMonths;
+        ObservationSource.Observations obs;
+        try {
+            obs = sources.get(e.source).fetch(e.code, from, now);
+        } catch (IOException | RuntimeException ex) {
+            fetchErrors.increment();
+            log.warning("indicator fetch failed for " + e.code + ": " + ex.getMessage());
+            return false;
+        }
+        fetchedPoints.add(obs.months().length);
+        Columns merged = merge(old, obs, System.currentTimeMillis());
+        boolean changed = !Arrays.equals(merged.months(), old.months()) || !Arrays.equals(merged.values(), old.values());
+        e.columns = changed ? merged : new Columns(old.months(), old.values(), merged.fetchedAt());
+        return changed;
+    }
+
+    /** 두 정렬된 열을 합침, 같은 달은 새 값 */
+    static Columns merge(Columns old, ObservationSource.Observations add, long fetchedAt) {
+        int[] om = old.months(), am = add.months();
+        double[] ov = old.values(), av = add.values();
+        int[] m = new int[om.length + am.length];
+        double[] v = new double[m.length];
+        int i = 0, j = 0, n = 0;
+        while (i < om.length || j < am.length) {
+            if (j == am.length || (i < om.length && om[i] < am[j])) {
+                m[n] = om[i];
+                v[n++] = ov[i++];
+            } else {
+                if (i < om.length && om[i] == am[j]) i++;
+                m[n] = am[j];
+                v[n++] = av[j++];
+            }
+        }
+        return new Columns(Arrays.copyOf(m, n), Arrays.copyOf(v, n), fetchedAt);
+    }
+
+    private static int lowerBound(int[] months, int month) {
+        int i = Arrays.binarySearch(months, month);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    // === 바이너리 파일: MAGIC, VERSION, 시리즈 수, (코드 UTF, fetchedAt, n, int[n], double[n])* ===
+    synchronized void save() {
+        Path path = Path.of(file);
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(byCode.size());
+                for (Entry e : byCode.values()) {
+                    Columns c = e.columns;
+                    out.writeUTF(e.code);
+                    out.writeLong(c.fetchedAt());
+                    out.writeInt(c.size());
+                    for (int m : c.months()) out.writeInt(m);
+                    for (double v : c.values()) out.writeDouble(v);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            saves.increment();
+        } catch (IOException e) {
+            log.warning("indicator store save failed: " + e.getMessage());
+        }
+    }
+
+    /** 파일 전체를 검증한 뒤에만 반영. 하나라도 어긋나면 파일을 무시하고 빈 상태로 시작 (다음 refresh 가 다시 채움) */
+    synchronized void load() {
+        Path path = Path.of(file);
+        Map<Entry, Columns> pending = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warning("indicator store file ignored (format): " + path);
+                return;
+            }
+            int count = in.readInt();
+            if (count < 0 || count > MAX_SERIES) throw new IOException("series count " + count);
+            for (int k = 0; k < count; k++) {
+                String code = in.readUTF();
+                long fetchedAt = in.readLong();
+                int n = in.readInt();
+                if (n < 0 || n > MAX_POINTS) throw new IOException(code + ": point count " + n);
+                int[] months = new int[n];
+                double[] values = new double[n];
+                for (int i = 0; i < n; i++) {
+                    months[i] = in.readInt();
+                    if (i > 0 && months[i] <= months[i - 1]) throw new IOException(code + ": months not ascending at " + i);
+                }
+                for (int i = 0; i < n; i++) values[i] = in.readDouble();
+                Entry e = byCode.get(code.toUpperCase(Locale.ROOT));
+                if (e == null) continue;   // 설정에서 빠진 시리즈
+                pending.put(e, new Columns(months, values, fetchedAt));
+            }
+        } catch (NoSuchFileException e) {
+            return;   // 첫 실행
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            log.warning("indicator store file ignored (" + e + "): " + path);
+            return;
+        }
+        for (Map.Entry<Entry, Columns> p : pending.entrySet()) p.getKey().columns = p.getValue();
+        loadedFromFile = pending.size();
+    }
+
+    @Override
+    public String name() { return "indicators"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("series", byCode.size());
+        int points = 0;
+        for (Entry e : byCode.values()) points += e.columns.size();
+        m.put("points", points);
+        m.put("loadedFromFile", loadedFromFile);
+        m.put("refreshes", refreshes.sum());
+        m.put("lastRefreshAt", lastRefreshAt);
+        m.put("fetchedPoints", fetchedPoints.sum());
+        m.put("fetchErrors", fetchErrors.sum());
+        m.put("saves", saves.sum());
+        m.put("reads", reads.sum());
+        return m;
+    }
+}
@@ -0,0 +1,32 @@
+package com.chatbot.yoo.chatbot.indicator;
+
+import java.io.IOException;
+
+/**
+ * 경제지표 관측치 공급원 (ecos | fred). 시점은 epoch-month = (연도 - 1970) * 12 + (월 - 1).
+ */
+public interface ObservationSource {
+
+    /** months 오름차순, values 와 같은 길이 */
+    record Observations(int[] months, double[] values) {
+        static final Observations EMPTY = new Observations(new int[0], new double[0]);
+    }
+
+    /** IndicatorStore 설정의 접두어 (예: "ecos:901Y009" 의 ecos) */
+    String name();
+
+    /** code 의 [fromMonth, toMonth] 관측치. 통신/응답 오류는 IOException. */
+    Observations fetch(String code, int fromMonth, int toMonth) throws IOException;
+
+    static int epochMonth(int year, int month) {
+        return (year - 1970) * 12 + (month - 1);
+    }
+
+    static int year(int epochMonth) {
+        return Math.floorDiv(epochMonth, 12) + 1970;
+    }
+
+    static int month(int epochMonth) {
+        return Math.floorMod(epochMonth, 12) + 1;
+    }
+}
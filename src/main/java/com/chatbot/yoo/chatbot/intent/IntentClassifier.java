@@ -0,0 +1,186 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 사전 기반 질문 분류 (한/영 어휘, 종목명 → ticker).
+ * 사전의 모든 어휘를 KeywordAutomaton 하나로 컴파일해 메시지를 한 번만 훑고,
+ * 다른 어휘 안에 들어 있는 짧은 어휘는 버린다 (생산자물가 ⊃ 물가, 카카오뱅크 ⊃ 카카오).
+ * 한 가지 유형(시세/지표/뉴스)만 잡히고 분석형 표현(왜, 전망 ...)이 없을 때만 결정적 질문으로 본다.
+ * 날짜/기간(2023년, 3월, 2024-06 ...)이 붙으면 최신값이 답이 아니고, 나라/지역 이름(미국, 일본 ...)이 따로 나오면 국내 지표로 답하면 안 되므로 upstream 으로 넘긴다
+ * (그 나라 전용 어휘가 이름을 품고 있으면 예: 미국 기준금리, 긴 어휘가 이겨 그대로 결정적).
+ * 인스턴스는 불변이라 사전을 다시 읽으면 새로 만들어 바꿔 끼운다 (IntentRouter).
+ */
+final class IntentClassifier {
+
+    /** 질문 유형 (게이트웨이에서 바로 답할 수 있는 것만) */
+    enum Intent { MARKET, INDICATOR, NEWS }
+
+    // 어휘 종류: 유형 어휘 + 뉴스 최신 트리거 + 분석형/나라·지역(그대로 upstream)
+    enum Kind { MARKET, INDICATOR, NEWS, LATEST, ANALYSIS, REGION }
+
+    /** target: 시세 키/ticker 또는 지표 별칭, group 이면 같은 유형의 구체 어휘가 없을 때만 쓰는 묶음 (FX 등) */
+    record Term(Kind kind, String target, boolean group) { }
+
+    /** 분류 결과. targets 는 등장 순서(중복 없음), count 는 뉴스 건수 (없으면 0). */
+    record Result(Intent intent, List<String> targets, boolean latest, int count) { }
+
+    static final String DEFAULT_DICTIONARY = "intent-lexicon.tsv";
+
+    private static final Pattern TOP_N = Pattern.compile("top\\s*(\\d{1,2})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COUNT_KO = Pattern.compile("(\\d{1,2})\\s*(?:건|개)");
+    // 특정 시점을 묻는 질문 (2023년, 2024-06, 3월, 15일, 2분기, Q3, in 2023) → 최신값으로 답하면 안 됨
+    private static final Pattern DATED = Pattern.compile(
+            "(?:19|20)\\d{2}\\s*(?:년|[-./]\\s*\\d)|(?<!\\d)\\d{1,2}\\s*(?:월|일|분기)|\\bq[1-4]\\b|\\bin\\s+(?:19|20)\\d{2}\\b",
+            Pattern.CASE_INSENSITIVE);
+    // values() 는 매번 배열을 복사하므로 한 번만
+    private static final Intent[] INTENTS = Intent.values();
+    private static final Kind[] KINDS = Kind.values();
+
+    private final KeywordAutomaton automaton;
+    private final Term[] terms;
+
+    // 출현 버퍼 풀 (scan 중 할당 없음, 넘칠 때만 늘림). 요청마다 새 가상 스레드라 ThreadLocal 은 매번 새로 만들게 됨.
+    // 동시 분류 수만큼만 생기고 풀이 차면 버림
+    private static final int SCRATCH_POOL_SIZE = 64;
+    private static final ArrayBlockingQueue<Scratch> SCRATCH = new ArrayBlockingQueue<>(SCRATCH_POOL_SIZE);
+
+    private IntentClassifier(KeywordAutomaton automaton, Term[] terms) {
+        this.automaton = automaton;
+        this.terms = terms;
+    }
+
+    int size() { return terms.length; }
+
+    int states() { return automaton.states(); }
+
+    // === 사전 ===
+    /**
+     * 탭 구분 사전: kind, target, 어휘들('|' 구분)[, group]. '#' 주석, 빈 줄 무시.
+     * 예) MARKET	005930.KS	삼성전자|삼전|samsung electronics
+     */
+    static IntentClassifier parse(Reader reader, String name) throws IOException {
+        List<String> words = new ArrayList<>();
+        List<Term> meta = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(reader)) {
+            String line;
+            int no = 0;
+            while ((line = in.readLine()) != null) {
+                no++;
+                if (line.isBlank() || line.strip().startsWith("#")) continue;
+                String[] f = line.split("\t");
+                if (f.length < 3) throw new IOException(name + ":" + no + ": kind<TAB>target<TAB>어휘|어휘[<TAB>group] 형식이 아닙니다");
+                Kind kind;
+                try {
+                    kind = Kind.valueOf(f[0].strip().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(name + ":" + no + ": 알 수 없는 kind " + f[0].strip());
+                }
+                Term term = new Term(kind, f[1].strip(), f.length > 3 && "group".equalsIgnoreCase(f[3].strip()));
+                for (String w : f[2].split("\\|")) {
+                    if (w.isBlank()) continue;
+                    words.add(w);
+                    meta.add(term);
+                }
+            }
+        }
+        return new IntentClassifier(KeywordAutomaton.compile(words), meta.toArray(Term[]::new));
+    }
+
+    // === 분류 ===
+    /** 결정적 질문이 아니면 null (유형 없음, 유형 둘 이상, 분석형, 나라/지역 한정, 특정 시점, 같은 유형에서 대상 둘 이상인 지표) */
+    Result classify(String message) {
+        if (message == null || message.isEmpty() || DATED.matcher(message).find()) return null;
+        Scratch s = SCRATCH.poll();
+        if (s == null) s = new Scratch();
+        try {
+            return classify(message, s);
+        } finally {
+            s.reset();
+            SCRATCH.offer(s);
+        }
+    }
+
+    private Result classify(String message, Scratch s) {
+        automaton.scan(KeywordAutomaton.prepare(message), s);
+
+        // 더 긴 어휘 안에 든 것을 빼고 종류별 구체/묶음 출현 집계
+        int intentKinds = 0;
+        int specificKinds = 0;
+        for (int i = 0; i < s.size; i++) {
+            if (s.contained(i)) {
+                s.ids[i] = -1;
+                continue;
+            }
+            Term t = terms[s.ids[i]];
+            int bit = 1 << t.kind().ordinal();
+            if (t.kind() == Kind.ANALYSIS || t.kind() == Kind.REGION) return null;
+            if (!t.group()) specificKinds |= bit;
+            if (t.kind().ordinal() < INTENTS.length) intentKinds |= bit;
+        }
+        if (Integer.bitCount(intentKinds) != 1) return null;   // 유형 없음 또는 둘 이상
+
+        Intent intent = INTENTS[Integer.numberOfTrailingZeros(intentKinds)];
+        Kind kind = KINDS[intent.ordinal()];
+        boolean useGroups = (specificKinds & (1 << kind.ordinal())) == 0;
+        List<String> targets = new ArrayList<>(2);
+        for (int i = 0; i < s.size; i++) {
+            if (s.ids[i] < 0) continue;
+            Term t = terms[s.ids[i]];
+            if (t.kind() == kind && t.group() == useGroups && !targets.contains(t.target())) targets.add(t.target());
+        }
+        // 지표는 한 번에 하나만 (둘 이상이면 비교 질문일 가능성)
+        if (intent == Intent.INDICATOR && targets.size() > 1) return null;
+        boolean latest = (specificKinds & (1 << Kind.LATEST.ordinal())) != 0;
+        return new Result(intent, List.copyOf(targets), latest, intent == Intent.NEWS ? count(message) : 0);
+    }
+
+    private static int count(String message) {
+        Matcher m = TOP_N.matcher(message);
+        if (m.find()) return Integer.parseInt(m.group(1));
+        m = COUNT_KO.matcher(message);
+        return m.find() ? Integer.parseInt(m.group(1)) : 0;
+    }
+
+    // === 출현 버퍼 ===
+    private static final class Scratch implements KeywordAutomaton.Hits {
+        int[] ids = new int[16];
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        @Override
+        public void hit(int term, int start, int end) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ids[size] = term;
+            starts[size] = start;
+            ends[size++] = end;
+        }
+
+        // 더 긴 다른 출현 안에 들어 있는지
+        boolean contained(int i) {
+            int len = ends[i] - starts[i];
+            for (int j = 0; j < size; j++) {
+                if (j != i && starts[j] <= starts[i] && ends[i] <= ends[j] && ends[j] - starts[j] > len) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import com.chatbot.yoo.chatbot.indicator.IndicatorStore;
+import com.chatbot.yoo.chatbot.market.MarketService;
+import com.chatbot.yoo.chatbot.market.QuoteStore;
+import com.chatbot.yoo.chatbot.news.NewsService;
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * /api/chat 앞단 질문 분류 (opt-in: fastapi.intent.enabled).
+ * "코스피 지금", "원달러 환율", "기준금리", "최신 뉴스 top 5" 처럼 도구 하나로 답이 정해지는 질문은
+ * MarketService/IndicatorStore/NewsService 캐시에서 바로 답하고 (GPT 호출 2번 생략),
+ * 애매하거나 캐시에 값이 없거나 오래됐으면 null 을 돌려 평소대로 upstream 으로 보낸다.
+ * 어휘는 사전 파일(기본: classpath intent-lexicon.tsv)에서 읽고, fastapi.intent.dictionary 로 지정한 파일은
+ * 바뀌면(크기/수정 시각) 다시 컴파일해 통째로 바꿔 끼운다. 새 사전에 오류가 있으면 이전 사전을 계속 쓴다.
+ */
+@Component
+public class IntentRouter implements StatsSource {
+
+    /** 게이트웨이가 직접 만든 답변 */
+    public record Routed(String intent, String answer) { }
+
+    private static final Logger log = Logger.getLogger(IntentRouter.class.getName());
+
+    private static final List<String> FX = List.of("USD_KRW", "JPY_KRW", "EUR_USD");
+    // MarketService 기본 감시 키, 그 밖의 target 은 ticker (종목명 → ticker)
+    private static final List<String> MARKET_KEYS = List.of("KOSPI", "KOSDAQ", "USD_KRW", "JPY_KRW", "EUR_USD");
+
+    @Value("${fastapi.intent.enabled:false}")
+    private boolean enabled;
+
+    // 이보다 긴 질문은 맥락/조건이 붙었을 가능성이 커서 분류하지 않음
+    @Value("${fastapi.intent.max-chars:40}")
+    private int maxChars;
+
+    // 이보다 오래된 시세면 upstream 으로
+    @Value("${fastapi.intent.market-max-age-ms:120000}")
+    private long marketMaxAgeMs;
+
+    // 지표/뉴스도 마지막으로 받아 온 지 이보다 오래됐으면 upstream 으로 (갱신이 계속 실패하는 경우)
+    @Value("${fastapi.intent.indicator-max-age-ms:86400000}")
+    private long indicatorMaxAgeMs;
+
+    @Value("${fastapi.intent.news-max-age-ms:300000}")
+    private long newsMaxAgeMs;
+
+    // 비어 있으면 classpath 기본 사전 (다시 읽지 않음)
+    @Value("${fastapi.intent.dictionary:}")
+    private String dictionary;
+
+    private volatile IntentClassifier classifier;
+    private long loadedSize = -1;
+    private long loadedModified = -1;
+    private volatile long loadedAt;
+    private final MarketService markets;
+    private final IndicatorStore indicators;
+    private final NewsService news;
+
+    // === 통계 ===
+    private static final class Counters {
+        final LongAdder matched = new LongAdder();
+        final LongAdder answered = new LongAdder();
+        final LongAdder localNanos = new LongAdder();
+        final LongAdder savedNanos = new LongAdder();
+    }
+
+    private final Map<IntentClassifier.Intent, Counters> counters = new EnumMap<>(IntentClassifier.Intent.class);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong reloadErrors = new AtomicLong();
+    // upstream /chat 응답 시간 지수 평균 (절약 시간 추정용)
+    private final AtomicLong upstreamEwmaNanos = new AtomicLong();
+
+    public IntentRouter(MarketService markets, IndicatorStore indicators, NewsService news) {
+        this.markets = markets;
+        this.indicators = indicators;
+        this.news = news;
+        for (IntentClassifier.Intent it : IntentClassifier.Intent.values()) counters.put(it, new Counters());
+    }
+
+    public boolean enabled() { return enabled; }
+
+    // === 사전 ===
+    @PostConstruct
+    void init() throws IOException {
+        classifier = classpathDefault();
+        loadedAt = System.currentTimeMillis();
+        if (!dictionary.isBlank()) reload();
+    }
+
+    @Scheduled(fixedDelayString = "${fastapi.intent.reload-ms:5000}")
+    synchronized void reload() {
+        if (!enabled || dictionary.isBlank()) return;
+        Path path = Path.of(dictionary);
+        try {
+            long size = Files.size(path);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (size == loadedSize && modified == loadedModified) return;
+            IntentClassifier next = IntentClassifier.parse(Files.newBufferedReader(path, StandardCharsets.UTF_8), dictionary);
+            loadedSize = size;
+            loadedModified = modified;
+            classifier = next;
+            loadedAt = System.currentTimeMillis();
+            reloads.incrementAndGet();
+        } catch (IOException e) {
+            reloadErrors.incrementAndGet();
+            log.warning("intent dictionary not reloaded, keeping previous: " + e.getMessage());
+        }
+    }
+
+    static IntentClassifier classpathDefault() throws IOException {
+        InputStream in = IntentRouter.class.getClassLoader().getResourceAsStream(IntentClassifier.DEFAULT_DICTIONARY);
+        if (in == null) throw new IOException("classpath:" + IntentClassifier.DEFAULT_DICTIONARY + " 없음");
+        return IntentClassifier.parse(new InputStreamReader(in, StandardCharsets.UTF_8), IntentClassifier.DEFAULT_DICTIONARY);
+    }
+
+    /** 캐시로 답할 수 있으면 답변, 아니면 null (upstream 으로) */
+    public Routed route(String message) {
+        if (!enabled || message == null) return null;
+        long t0 = System.nanoTime();
+        requests.increment();
+        IntentClassifier.Result r = message.length() <= maxChars ? classifier.classify(message) : null;
+        if (r == null) {
+            unmatched.increment();
+            return null;
+        }
+        Counters c = counters.get(r.intent());
+        c.matched.increment();
+        String answer = switch (r.intent()) {
+            case MARKET -> market(r.targets());
+            case INDICATOR -> indicator(r.targets().get(0));
+            case NEWS -> news(r);
+        };
+        if (answer == null) return null;
+        long local = System.nanoTime() - t0;
+        c.answered.increment();
+        c.localNanos.add(local);
+        c.savedNanos.add(Math.max(0, upstreamEwmaNanos.get() - local));
+        return new Routed(r.intent().name(), answer);
+    }
+
+    /** upstream 으로 보낸 /chat 한 건의 응답 시간 */
+    public void upstreamLatency(long nanos) {
+        upstreamEwmaNanos.accumulateAndGet(nanos, (avg, x) -> avg == 0 ? x : avg + (x - avg) / 8);
+    }
+
+    private String market(List<String> targets) {
+        if (!markets.enabled()) return null;
+        List<String> keys = targets.equals(List.of("FX")) ? FX : targets;
+        long now = System.currentTimeMillis();
+        List<String> parts = new ArrayList<>(keys.size());
+        for (String k : keys) {
+            QuoteStore.Quote q = markets.cached(k);
+            // 아직 감시하지 않는 종목은 이번엔 upstream 으로 보내고 다음 질문부터 캐시에서
+            if (q == null && !MARKET_KEYS.contains(k)) markets.prefetch(k);
+            if (q == null || now - q.fetchedAt() > marketMaxAgeMs) return null;
+            parts.add(LocalAnswers.quote(q));
+        }
+        return String.join("\n\n", parts);
+    }
+
+    private String indicator(String alias) {
+        if (!indicators.enabled()) return null;
+        return switch (alias) {
+            case "TRADE_BALANCE" -> {
+                IndicatorStore.Reading e = latestFresh("EXPORTS"), i = latestFresh("IMPORTS");
+                yield e != null && i != null ? LocalAnswers.tradeBalance(e, i) : null;
+            }
+            case "US_FED_TARGET" -> {
+                IndicatorStore.Reading u = latestFresh("US_FED_TARGET_UPPER"), l = latestFresh("US_FED_TARGET_LOWER");
+                yield u != null && l != null ? LocalAnswers.fedTarget(u, l) : null;
+            }
+            default -> {
+                IndicatorStore.Reading rd = latestFresh(alias);
+                yield rd != null ? LocalAnswers.indicator(alias, rd) : null;
+            }
+        };
+    }
+
+    // 파일에서 읽은 뒤 갱신이 계속 실패한 시리즈는 최신값이라 할 수 없음
+    private IndicatorStore.Reading latestFresh(String alias) {
+        IndicatorStore.Columns c = indicators.columns(alias);
+        if (c == null || System.currentTimeMillis() - c.fetchedAt() > indicatorMaxAgeMs) return null;
+        return indicators.latest(alias);
+    }
+
+    // FastAPI 빠른 경로와 같이 "최신"/top N 이 붙은 뉴스 질문만 (기본 5건, 1~50)
+    private String news(IntentClassifier.Result r) {
+        if (!news.enabled() || !news.ready() || (!r.latest() && r.count() == 0)) return null;
+        if (System.currentTimeMillis() - news.fetchedAt() > newsMaxAgeMs) return null;
+        int n = r.count() > 0 ? Math.max(1, Math.min(50, r.count())) : 5;
+        return LocalAnswers.news(news.latest(n));
+    }
+
+    @Override
+    public String name() { return "intent"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        long total = requests.sum();
+        long upstream = upstreamEwmaNanos.get();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        IntentClassifier c0 = classifier;
+        m.put("dictionary", dictionary.isBlank() ? "classpath:" + IntentClassifier.DEFAULT_DICTIONARY : dictionary);
+        m.put("terms", c0 == null ? 0 : c0.size());
+        m.put("states", c0 == null ? 0 : c0.states());
+        m.put("reloads", reloads.get());
+        m.put("reloadErrors", reloadErrors.get());
+        m.put("loadedAt", loadedAt);
+        m.put("requests", total);
+        m.put("unmatched", unmatched.sum());
+        m.put("upstreamAvgMs", upstream / 1_000_000);
+        long answeredAll = 0;
+        long savedAll = 0;
+        for (Map.Entry<IntentClassifier.Intent, Counters> e : counters.entrySet()) {
+            Counters c = e.getValue();
+            long matched = c.matched.sum();
+            long answered = c.answered.sum();
+            answeredAll += answered;
+            savedAll += c.savedNanos.sum();
+            Map<String, Object> i = new LinkedHashMap<>();
+            i.put("matched", matched);
+            i.put("answered", answered);
+            // 분류는 됐지만 캐시 값이 없거나 오래돼 upstream 으로 보낸 건
+            i.put("fallbacks", matched - answered);
+            i.put("hitRate", matched == 0 ? 0.0 : (double) answered / matched);
+            i.put("shareOfRequests", total == 0 ? 0.0 : (double) answered / total);
+            i.put("localAvgUs", answered == 0 ? 0 : c.localNanos.sum() / answered / 1_000);
+            i.put("savedMs", c.savedNanos.sum() / 1_000_000);
+            m.put(e.getKey().name().toLowerCase(Locale.ROOT), i);
+        }
+        m.put("answered", answeredAll);
+        m.put("hitRate", total == 0 ? 0.0 : (double) answeredAll / total);
+        m.put("savedMs", savedAll / 1_000_000);
+        return m;
+    }
+}
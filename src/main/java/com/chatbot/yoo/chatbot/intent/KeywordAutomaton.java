@@ -0,0 +1,170 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * 다중 키워드 Aho-Corasick 오토마톤.
+ * 사전(수천 개 어휘)을 한 번 컴파일해 두면 메시지를 왼쪽에서 오른쪽으로 한 번만 훑어 모든 어휘 출현을 찾는다.
+ * 상태 전이는 CSR 배열(상태별 정렬된 문자 + 다음 상태, 이진 탐색), 실패 링크/출력 링크도 int[] 라
+ * scan 은 객체를 만들지 않는다 (Hits 구현을 호출자가 재사용).
+ * 문자 비교는 fold() 기준: 소문자, 전각 영숫자 → 반각, 공백/구분기호는 건너뜀 ("원/달러" = "원 달러" = "원달러").
+ */
+final class KeywordAutomaton {
+
+    /** 어휘 출현. start/end 는 fold 후 문자 위치 (end 제외), term 은 compile 에 넘긴 목록의 index. */
+    interface Hits {
+        void hit(int term, int start, int end);
+    }
+
+    private static final String SEPARATORS = "/·・-_.,?!~'\"()[]";
+
+    private final int[] edgeStart;   // 상태 s 의 간선 = [edgeStart[s], edgeStart[s + 1])
+    private final char[] edgeChar;
+    private final int[] edgeNext;
+    private final int[] fail;
+    private final int[] term;        // 이 상태에서 끝나는 어휘 (-1 없음)
+    private final int[] output;      // 실패 링크를 따라 가장 가까운, 어휘가 끝나는 상태 (-1 없음)
+    private final int[] termLength;
+
+    private KeywordAutomaton(int[] edgeStart, char[] edgeChar, int[] edgeNext, int[] fail,
+                             int[] term, int[] output, int[] termLength) {
+        this.edgeStart = edgeStart;
+        this.edgeChar = edgeChar;
+        this.edgeNext = edgeNext;
+        this.fail = fail;
+        this.term = term;
+        this.output = output;
+        this.termLength = termLength;
+    }
+
+    int states() { return fail.length; }
+
+    int terms() { return termLength.length; }
+
+    // === 컴파일 ===
+    /** 같은 어휘(fold 기준)가 여러 번 나오면 뒤의 것이 이긴다. fold 후 빈 어휘는 무시. */
+    static KeywordAutomaton compile(List<String> terms) {
+        // 1) trie (컴파일 때만 쓰는 임시 구조)
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(-1);
+        int[] lengths = new int[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            String s = terms.get(t);
+            int state = 0;
+            int len = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = fold(s.charAt(i));
+                if (c == 0) continue;
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(c, next);
+                    children.add(new TreeMap<>());
+                    ends.add(-1);
+                }
+                state = next;
+                len++;
+            }
+            lengths[t] = len;
+            if (len > 0) ends.set(state, t);
+        }
+
+        // 2) CSR 로 펼침 (TreeMap 이라 상태별 문자는 정렬돼 있음)
+        int n = children.size();
+        int[] edgeStart = new int[n + 1];
+        for (int s = 0; s < n; s++) edgeStart[s + 1] = edgeStart[s] + children.get(s).size();
+        char[] edgeChar = new char[edgeStart[n]];
+        int[] edgeNext = new int[edgeStart[n]];
+        int[] term = new int[n];
+        for (int s = 0; s < n; s++) {
+            int e = edgeStart[s];
+            for (var entry : children.get(s).entrySet()) {
+                edgeChar[e] = entry.getKey();
+                edgeNext[e++] = entry.getValue();
+            }
+            term[s] = ends.get(s);
+        }
+
+        // 3) BFS 로 실패/출력 링크
+        int[] fail = new int[n];
+        int[] output = new int[n];
+        Arrays.fill(output, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) queue.add(edgeNext[e]);
+        KeywordAutomaton a = new KeywordAutomaton(edgeStart, edgeChar, edgeNext, fail, term, output, lengths);
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int child = edgeNext[e];
+                char c = edgeChar[e];
+                int f = fail[s];
+                int g;
+                while ((g = a.child(f, c)) < 0 && f != 0) f = fail[f];
+                fail[child] = g >= 0 && g != child ? g : 0;
+                output[child] = term[fail[child]] >= 0 ? fail[child] : output[fail[child]];
+                queue.add(child);
+            }
+        }
+        return a;
+    }
+
+    // === 검색 ===
+    /** text 를 한 번 훑으며 모든 출현을 끝 위치 순으로 hits 에 넘긴다 (겹침 포함). */
+    void scan(CharSequence text, Hits hits) {
+        int state = 0;
+        int pos = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = fold(text.charAt(i));
+            if (c == 0) continue;
+            pos++;
+            int next;
+            while ((next = child(state, c)) < 0 && state != 0) state = fail[state];
+            state = Math.max(next, 0);
+            for (int s = term[state] >= 0 ? state : output[state]; s >= 0; s = output[s]) {
+                int t = term[s];
+                hits.hit(t, pos - termLength[t], pos);
+            }
+        }
+    }
+
+    private int child(int state, char c) {
+        int lo = edgeStart[state], hi = edgeStart[state + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char m = edgeChar[mid];
+            if (m < c) lo = mid + 1;
+            else if (m > c) hi = mid - 1;
+            else return edgeNext[mid];
+        }
+        return -1;
+    }
+
+    /** 비교용 문자 (건너뛸 문자면 0) */
+    static char fold(char c) {
+        if (c >= '！' && c <= '～') c = (char) (c - 0xFEE0);   // 전각 → 반각
+        if (c < 0x80) {
+            if (c >= 'A' && c <= 'Z') return (char) (c + 32);
+            return c <= ' ' || SEPARATORS.indexOf(c) >= 0 ? 0 : c;
+        }
+        if (Character.isWhitespace(c) || SEPARATORS.indexOf(c) >= 0) return 0;
+        return Character.toLowerCase(c);
+    }
+
+    /** 자모가 풀린(NFD) 한글처럼 fold 만으로 맞출 수 없는 입력이면 NFKC 로 (드문 경우만 새 문자열) */
+    static String prepare(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c >= 'ᄀ' && c <= 'ᇿ') || (c >= '㄰' && c <= '㆏')) {
+                return Normalizer.normalize(text, Normalizer.Form.NFKC);
+            }
+        }
+        return text;
+    }
+}
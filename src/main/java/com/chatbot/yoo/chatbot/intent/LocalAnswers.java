@@ -0,0 +1,114 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import com.chatbot.yoo.chatbot.indicator.IndicatorStore;
+import com.chatbot.yoo.chatbot.market.QuoteStore;
+import com.chatbot.yoo.chatbot.news.NewsStore;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 게이트웨이 캐시 값 → 답변 마크다운.
+ * FastAPI 도구 함수(get_kospi_index, get_cpi_data, format_topn_md ...)와 같은 문구/형식을 쓴다.
+ */
+final class LocalAnswers {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private LocalAnswers() { }
+
+    // === 시세 ===
+    static String quote(QuoteStore.Quote q) {
+        String sign = q.change() == null || q.change() >= 0 ? "+" : "";
+        return switch (q.key()) {
+            case "KOSPI" -> index("코스피 지수", q, sign);
+            case "KOSDAQ" -> index("코스닥 지수", q, sign);
+            case "USD_KRW" -> fx("원/달러 환율", q, sign, "원", "원");
+            case "JPY_KRW" -> fx("원/엔 환율", q, sign, "원", "원");
+            case "EUR_USD" -> fx("유로/달러 환율", q, sign, "달러", "");
+            default -> ticker(q, sign);
+        };
+    }
+
+    // get_stock_quote 와 같은 한 줄 (기준시각은 ISO, KST)
+    private static String ticker(QuoteStore.Quote q, String sign) {
+        double ch = q.change() != null ? q.change() : 0;
+        double pct = q.changePct() != null ? q.changePct() : 0;
+        String ts = q.time() > 0 ? OffsetDateTime.ofInstant(Instant.ofEpochMilli(q.time()), KST).toString() : "";
+        return q.key() + " " + fmt("%,.2f", q.price()) + " · 변동 " + sign + fmt("%.2f", ch)
+                + " (" + sign + fmt("%.2f", pct) + "%) · 기준시각 " + ts;
+    }
+
+    private static String index(String name, QuoteStore.Quote q, String sign) {
+        return "**" + name + " (실시간)**\n• 현재가: " + fmt("%,.2f", q.price())
+                + "\n• 변동: " + sign + orNa(q.change()) + " (" + sign + orNa(q.changePct()) + "%)";
+    }
+
+    private static String fx(String name, QuoteStore.Quote q, String sign, String unit, String changeUnit) {
+        double ch = q.change() != null ? q.change() : 0;
+        double pct = q.changePct() != null ? q.changePct() : 0;
+        return "**" + name + " (실시간)**\n• 현재: " + fmt("%,.2f", q.price()) + unit
+                + "\n• 변동: " + sign + fmt("%.2f", ch) + changeUnit + " (" + sign + fmt("%.2f", pct) + "%)";
+    }
+
+    private static String orNa(Double v) {
+        return v == null ? "N/A" : fmt("%.2f", v);
+    }
+
+    // === 지표 ===
+    static String indicator(String alias, IndicatorStore.Reading r) {
+        String v = plain(r.value());
+        String t = r.month();
+        return switch (alias) {
+            case "CPI" -> "**소비자물가지수(CPI)**\n• 최신값: " + v + " (기준: " + t + ")"
+                    + (r.change() != null ? "\n• 전월 대비: " + fmt("%+.2f", r.change()) + "%p" : "");
+            case "PPI" -> "**생산자물가지수(PPI)**\n• 최신값: " + v + " (기준: " + t + ")";
+            case "GDP" -> "**GDP 성장률**\n• 최신값: " + v + "% (기준: " + t + ")";
+            case "CURRENT_ACCOUNT" -> "**경상수지**\n• 최신값: $" + v + "백만 (기준: " + t + ")";
+            case "BASE_RATE" -> "**한국은행 기준금리**\n• 현재 금리: " + v + "% (기준: " + t + ")";
+            case "US_FEDFUNDS" -> "**미국 실효 연방기금금리(FEDFUNDS)**\n• 최신값: " + fmt("%.2f", r.value()) + "% (기준: " + t + ")";
+            default -> null;
+        };
+    }
+
+    /** 수출/수입이 같은 달이어야 무역수지 */
+    static String tradeBalance(IndicatorStore.Reading exports, IndicatorStore.Reading imports) {
+        if (!exports.month().equals(imports.month())) return null;
+        double e = exports.value(), i = imports.value();
+        return "**무역수지**\n• 수출: $" + fmt("%,.0f", e) + "백만\n• 수입: $" + fmt("%,.0f", i)
+                + "백만\n• 무역수지: $" + fmt("%+,.0f", e - i) + "백만 (기준: " + exports.month() + ")";
+    }
+
+    static String fedTarget(IndicatorStore.Reading upper, IndicatorStore.Reading lower) {
+        if (!upper.month().equals(lower.month())) return null;
+        return "**미국 연방기금금리 목표범위**\n• 범위: " + fmt("%.2f", lower.value()) + "–" + fmt("%.2f", upper.value())
+                + "% (기준: " + upper.month() + ")";
+    }
+
+    // === 뉴스 (format_topn_md) ===
+    static String news(List<NewsStore.Article> rows) {
+        if (rows.isEmpty()) return "최신 경제 뉴스가 없습니다.";
+        StringBuilder sb = new StringBuilder("**최신 경제 뉴스**");
+        int i = 0;
+        for (NewsStore.Article a : rows) {
+            String title = a.title().isBlank() ? "(제목 없음)" : a.title();
+            sb.append('\n').append(++i).append(". ");
+            if (!a.url().isBlank()) sb.append('[').append(title).append("]\n출처: (").append(a.url()).append(") · 날짜: ").append(a.date());
+            else sb.append(title).append(" · ").append(a.date());
+        }
+        return sb.toString();
+    }
+
+    private static String fmt(String pattern, double v) {
+        return String.format(Locale.ROOT, pattern, v);
+    }
+
+    // ECOS DATA_VALUE 처럼 불필요한 0 없이 (116.52, 2.5)
+    private static String plain(double v) {
+        return BigDecimal.valueOf(v).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.chatbot.yoo.chatbot.market;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 오프라인/테스트용 시세 공급원 (fastapi.market.source=file).
+ * CSV 한 줄 = 한 틱: ticker,epoch_ms,price[,prev_close] (# 주석, 빈 줄 무시, ticker 별로 시각 오름차순).
+ * 파일이 바뀌면(크기/수정 시각) 다시 읽으므로 스크립트로 줄을 덧붙여 실시간 틱을 흉내 낼 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "fastapi.market.source", havingValue = "file")
+public class FileQuoteSource implements QuoteSource {
+
+    @Value("${fastapi.market.file:market-quotes.csv}")
+    private String file;
+
+    private long loadedSize = -1;
+    private long loadedModified = -1;
+    private Map<String, Snapshot> snapshots = Map.of();
+
+    FileQuoteSource() { }
+
+    FileQuoteSource(String file) {
+        this.file = file;
+    }
+
+    @Override
+    public String name() { return "file"; }
+
+    @Override
+    public synchronized Snapshot fetch(String ticker) throws IOException {
+        Path path = Path.of(file);
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        if (size != loadedSize || modified != loadedModified) {
+            snapshots = load(path);
+            loadedSize = size;
+            loadedModified = modified;
+        }
+        return snapshots.get(ticker);
+    }
+
+    private static Map<String, Snapshot> load(Path path) throws IOException {
+        Map<String, Rows> rows = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int no = 0;
+            while ((line = in.readLine()) != null) {
+                no++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] f = line.split(",");
+                if (f.length < 3) throw new IOException(path + ":" + no + ": ticker,epoch_ms,price[,prev_close] 형식이 아닙니다");
+                long t;
+                double price, prev;
+                try {
+                    t = Long.parseLong(f[1].strip());
+                    price = Double.parseDouble(f[2].strip());
+                    prev = f.length > 3 && !f[3].isBlank() ? Double.parseDouble(f[3].strip()) : Double.NaN;
+                } catch (NumberFormatException e) {
+                    if (no == 1) continue;   // 헤더 줄
+                    throw new IOException(path + ":" + no + ": " + e.getMessage());
+                }
+                rows.computeIfAbsent(f[0].strip(), k -> new Rows()).add(t, price, prev);
+            }
+        }
+        Map<String, Snapshot> out = new HashMap<>(rows.size() * 2);
+        rows.forEach((ticker, r) -> out.put(ticker, r.snapshot()));
+        return out;
+    }
+
+    // ticker 별 틱 누적 (primitive 배열)
+    private static final class Rows {
+        long[] times = new long[64];
+        double[] prices = new double[64];
+        int n;
+        double prevClose = Double.NaN;
+
+        void add(long t, double price, double prev) {
+            if (n == times.length) {
+                times = Arrays.copyOf(times, n * 2);
+                prices = Arrays.copyOf(prices, n * 2);
+            }
+            times[n] = t;
+            prices[n++] = price;
+            if (!Double.isNaN(prev)) prevClose = prev;
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(prices[n - 1], prevClose, times[n - 1],
+                    Arrays.copyOf(times, n), Arrays.copyOf(prices, n));
+        }
+    }
+}
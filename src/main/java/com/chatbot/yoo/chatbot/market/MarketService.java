@@ -0,0 +1,282 @@
+package com.chatbot.yoo.chatbot.market;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.upstream.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * 시장 시세 (opt-in: fastapi.market.enabled).
+ * fastapi.market.symbols(키:ticker 목록)를 poll-ms 마다 QuoteSource 로 병렬 조회해 QuoteStore 에 반영하고,
+ * /api/markets 는 저장소만 읽는다 (요청 경로에서 외부 호출 없음).
+ * 목록에 없는 ticker 는 첫 조회 때 한 번 가져오고 감시 목록에 더해 다음 poll 부터 같이 갱신한다 (max-symbols 까지).
+ * 이 첫 조회는 외부 호출이라 같은 ticker 동시 조회는 1번으로 합치고, 동시 조회 수는 max-concurrent-misses 로 묶고,
+ * 찾지 못한 ticker 는 miss-ttl-ms 동안 다시 조회하지 않는다.
+ */
+@Component
+public class MarketService implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(MarketService.class.getName());
+    private static final Pattern TICKER = Pattern.compile("[A-Za-z0-9.^=\\-]{1,20}");
+    // 실패 기억 상한 (임의 ticker 요청으로 메모리가 늘지 않도록)
+    private static final int MAX_FAILED = 1024;
+
+    @Value("${fastapi.market.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fastapi.market.symbols:KOSPI:^KS11,KOSDAQ:^KQ11,USD_KRW:USDKRW=X,JPY_KRW:JPYKRW=X,EUR_USD:EURUSD=X}")
+    private String[] symbols;
+
+    @Value("${fastapi.market.max-symbols:64}")
+    private int maxSymbols;
+
+    // 종목당 시계열 점 수 (1분봉이면 하루 장 시간 이상)
+    @Value("${fastapi.market.series-size:512}")
+    private int seriesSize;
+
+    // 찾지 못한(또는 조회 실패한) ticker 를 다시 조회하지 않는 시간
+    @Value("${fastapi.market.miss-ttl-ms:60000}")
+    private long missTtlMs;
+
+    @Value("${fastapi.market.max-concurrent-misses:4}")
+    private int maxConcurrentMisses;
+
+    private final QuoteSource source;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private QuoteStore store;
+
+    private record Symbol(String key, String ticker) { }
+
+    // 감시 목록 (등록 순서, 추가 때만 복사)
+    private volatile List<Symbol> watched = List.of();
+
+    // 처음 보는 ticker 조회: 같은 ticker 합치기, 동시 조회 상한, 실패 key → 재시도 가능 시각
+    private final SingleFlight<String, QuoteStore.Quote> lookups = new SingleFlight<>();
+    private Semaphore missSlots;
+    private final ConcurrentHashMap<String, Long> failed = new ConcurrentHashMap<>();
+    // prefetch 로 백그라운드 조회 중인 key (질문마다 같은 작업이 쌓이지 않도록)
+    private final Set<String> prefetching = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder fetchErrors = new LongAdder();
+    private final LongAdder points = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder missesSkipped = new LongAdder();
+    private final AtomicLong lastPollMs = new AtomicLong();
+    private volatile long lastPollAt;
+
+    public MarketService(QuoteSource source) {
+        this.source = source;
+    }
+
+    @PostConstruct
+    void init() {
+        store = new QuoteStore(Math.max(16, seriesSize));
+        missSlots = new Semaphore(Math.max(1, maxConcurrentMisses));
+        List<Symbol> list = new ArrayList<>();
+        for (String s : symbols) {
+            int i = s.indexOf(':');
+            if (i <= 0 || i == s.length() - 1) continue;
+            list.add(new Symbol(s.substring(0, i).strip().toUpperCase(Locale.ROOT), s.substring(i + 1).strip()));
+        }
+        watched = List.copyOf(list);
+    }
+
+    public boolean enabled() { return enabled; }
+
+    // === 읽기 (저장소만) ===
+    public List<QuoteStore.Quote> quotes() {
+        reads.increment();
+        return store.all();
+    }
+
+    /**
+     * 키(KOSPI 등) 또는 ticker(NVDA, 005930.KS 등)의 최신 시세.
+     * 처음 보는 ticker 면 한 번 조회해 감시 목록에 추가하고, 조회할 수 없으면 null.
+     */
+    public QuoteStore.Quote quote(String keyOrTicker) {
+        reads.increment();
+        String key = keyOrTicker.strip().toUpperCase(Locale.ROOT);
+        QuoteStore.Quote q = store.latest(key);
+        if (q != null || !enabled) return q;
+        misses.increment();
+        return watch(keyOrTicker.strip());
+    }
+
+    /** 저장소에 있는 시세만 (처음 보는 ticker 라도 조회하지 않음) */
+    public QuoteStore.Quote cached(String key) {
+        reads.increment();
+        return store.latest(key.strip().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * 처음 보는 ticker 를 백그라운드로 조회해 감시 목록에 추가 (호출자는 기다리지 않음).
+     * 이미 조회 중이거나 최근 실패했거나 감시 목록이 찼으면 작업을 만들지 않는다.
+     */
+    public void prefetch(String ticker) {
+        String t = ticker.strip();
+        String key = t.toUpperCase(Locale.ROOT);
+        if (!enabled || !TICKER.matcher(t).matches() || watched.size() >= maxSymbols
+                || store.latest(key) != null || failedRecently(key)) return;
+        if (!prefetching.add(key)) return;
+        try {
+            executor.submit(() -> {
+                try {
+                    watch(t);
+                } finally {
+                    prefetching.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 종료 중 (executor 거부)
+            prefetching.remove(key);
+        }
+    }
+
+    public QuoteStore.Series series(String keyOrTicker, long sinceMs) {
+        reads.increment();
+        return store.series(keyOrTicker.strip().toUpperCase(Locale.ROOT), sinceMs);
+    }
+
+    private QuoteStore.Quote watch(String ticker) {
+        if (!TICKER.matcher(ticker).matches()) return null;
+        String key = ticker.toUpperCase(Locale.ROOT);
+        if (watched.size() >= maxSymbols || failedRecently(key)) {
+            missesSkipped.increment();
+            return null;
+        }
+        return lookups.execute(key, () -> {
+            if (!missSlots.tryAcquire()) {
+                missesSkipped.increment();
+                return null;
+            }
+            try {
+                return add(key, ticker);
+            } finally {
+                missSlots.release();
+            }
+        }).value();
+    }
+
+    // 조회에 성공했을 때만, 상한 확인과 저장소/감시 목록 추가를 한 락 안에서
+    private QuoteStore.Quote add(String key, String ticker) {
+        QuoteSource.Snapshot s = fetch(ticker);
+        if (s == null) {
+            rememberFailure(key);
+            return null;
+        }
+        synchronized (this) {
+            List<Symbol> w = watched;
+            if (w.stream().noneMatch(x -> x.key().equals(key))) {
+                if (w.size() >= maxSymbols) return null;
+                List<Symbol> next = new ArrayList<>(w);
+                next.add(new Symbol(key, ticker));
+                watched = List.copyOf(next);
+            }
+            points.add(store.update(key, ticker, s, System.currentTimeMillis()));
+        }
+        return store.latest(key);
+    }
+
+    private boolean failedRecently(String key) {
+        Long until = failed.get(key);
+        if (until == null) return false;
+        if (until > System.currentTimeMillis()) return true;
+        failed.remove(key, until);
+        return false;
+    }
+
+    private void rememberFailure(String key) {
+        long now = System.currentTimeMillis();
+        if (failed.size() >= MAX_FAILED) failed.values().removeIf(until -> until <= now);
+        if (failed.size() < MAX_FAILED) failed.put(key, now + missTtlMs);
+    }
+
+    // === 주기 갱신 ===
+    @Scheduled(fixedDelayString = "${fastapi.market.poll-ms:15000}", initialDelay = 0)
+    void poll() {
+        if (!enabled) return;
+        long t0 = System.nanoTime();
+        List<Symbol> w = watched;
+        List<Future<?>> jobs = new ArrayList<>(w.size());
+        for (Symbol s : w) jobs.add(executor.submit(() -> refresh(s.key(), s.ticker())));
+        for (Future<?> f : jobs) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ignored) {
+                // refresh 가 예외를 삼킴
+            }
+        }
+        polls.increment();
+        lastPollMs.set((System.nanoTime() - t0) / 1_000_000);
+        lastPollAt = System.currentTimeMillis();
+    }
+
+    private void refresh(String key, String ticker) {
+        QuoteSource.Snapshot s = fetch(ticker);
+        if (s != null) points.add(store.update(key, ticker, s, System.currentTimeMillis()));
+    }
+
+    // 없는 ticker 면 null, 오류는 세고 null
+    private QuoteSource.Snapshot fetch(String ticker) {
+        try {
+            return source.fetch(ticker);
+        } catch (IOException | RuntimeException e) {
+            fetchErrors.increment();
+            log.fine("market fetch failed for " + ticker + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String name() { return "markets"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("source", source.name());
+        m.put("symbols", watched.size());
+        m.put("polls", polls.sum());
+        m.put("lastPollMs", lastPollMs.get());
+        m.put("lastPollAt", lastPollAt);
+        m.put("fetchErrors", fetchErrors.sum());
+        m.put("points", points.sum());
+        m.put("reads", reads.sum());
+        m.put("misses", misses.sum());
+        // 실패 기억/동시 조회 상한/max-symbols 로 외부 조회 없이 404 처리한 건
+        m.put("missesSkipped", missesSkipped.sum());
+        m.put("failedTickers", failed.size());
+        m.put("prefetching", prefetching.size());
+        return m;
+    }
+}
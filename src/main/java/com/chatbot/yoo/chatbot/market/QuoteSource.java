@@ -0,0 +1,21 @@
+package com.chatbot.yoo.chatbot.market;
+
+import java.io.IOException;
+
+/**
+ * 시세 공급원. MarketService 가 주기적으로 감시 중인 ticker 마다 fetch 를 부른다.
+ * 구현은 fastapi.market.source 값으로 하나만 빈으로 올린다 (yahoo | file).
+ */
+public interface QuoteSource {
+
+    /**
+     * ticker 의 최신 시세. times/closes 는 당일 분봉(오래된 순, 같은 길이)이며 없으면 빈 배열.
+     * prevClose 를 모르면 NaN.
+     */
+    record Snapshot(double price, double prevClose, long epochMs, long[] times, double[] closes) { }
+
+    String name();
+
+    /** 공급원에 없는 ticker 면 null. 통신/파싱 실패는 IOException. */
+    Snapshot fetch(String ticker) throws IOException;
+}
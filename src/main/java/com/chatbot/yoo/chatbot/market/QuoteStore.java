@@ -0,0 +1,163 @@
+package com.chatbot.yoo.chatbot.market;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 종목별 최신 시세 + 당일 시계열 저장소.
+ * 시계열은 종목마다 고정 크기 long[]/double[] 링 버퍼(박싱 없음)에 쌓고, 최신 시세는 갱신 때 한 번 계산한
+ * 불변 Quote 를 volatile 로 바꿔 끼워 읽기는 참조 1번으로 끝난다.
+ * 쓰기는 폴러(와 miss 시 1회 조회)만 하고, 시계열 읽기는 StampedLock 낙관적 읽기로 쓰기와 겹칠 때만 다시 읽는다.
+ */
+public final class QuoteStore {
+
+    /** 최신 시세 (prevClose 를 모르면 prevClose/change/changePct 는 null) */
+    public record Quote(String key, String ticker, double price, Double prevClose, Double change, Double changePct,
+                        long time, long fetchedAt) { }
+
+    /** 시계열 (오래된 순, times 는 epoch ms) */
+    public record Series(String key, long[] times, double[] prices) { }
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    // 등록 순서 (응답 순서 고정용, 추가 때만 복사)
+    private volatile List<Ring> ordered = List.of();
+
+    QuoteStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // === 읽기 ===
+    public Quote latest(String key) {
+        Ring r = rings.get(key);
+        return r != null ? r.latest : null;
+    }
+
+    public List<Quote> all() {
+        List<Ring> rs = ordered;
+        List<Quote> out = new ArrayList<>(rs.size());
+        for (Ring r : rs) if (r.latest != null) out.add(r.latest);
+        return out;
+    }
+
+    /** sinceMs 이후(포함) 점들. 종목이 없으면 null. */
+    public Series series(String key, long sinceMs) {
+        Ring r = rings.get(key);
+        return r != null ? r.since(key, sinceMs) : null;
+    }
+
+    int size() { return rings.size(); }
+
+    // === 쓰기 ===
+    /** 스냅샷의 시계열 중 마지막 저장 시각 이후만 덧붙이고 최신 시세를 교체. 덧붙인 점 수를 반환. */
+    int update(String key, String ticker, QuoteSource.Snapshot s, long now) {
+        Ring r = rings.get(key);
+        if (r == null) {
+            synchronized (this) {
+                r = rings.get(key);
+                if (r == null) {
+                    r = new Ring(capacity);
+                    rings.put(key, r);
+                    List<Ring> next = new ArrayList<>(ordered);
+                    next.add(r);
+                    ordered = List.copyOf(next);
+                }
+            }
+        }
+        int appended = r.append(s);
+        double prev = s.prevClose();
+        boolean hasPrev = !Double.isNaN(prev) && prev != 0;
+        double change = s.price() - prev;
+        r.latest = new Quote(key, ticker, s.price(),
+                hasPrev ? prev : null,
+                hasPrev ? change : null,
+                hasPrev ? change / prev * 100.0 : null,
+                s.epochMs(), now);
+        return appended;
+    }
+
+    // === 종목 1개의 링 버퍼 ===
+    private static final class Ring {
+        private final long[] times;
+        private final double[] prices;
+        private final StampedLock lock = new StampedLock();
+        private int head;        // 다음 쓰기 위치
+        private int size;
+        private long lastTime = Long.MIN_VALUE;
+        volatile Quote latest;
+
+        Ring(int capacity) {
+            this.times = new long[capacity];
+            this.prices = new double[capacity];
+        }
+
+        int append(QuoteSource.Snapshot s) {
+            long[] ts = s.times();
+            double[] ps = s.closes();
+            long stamp = lock.writeLock();
+            try {
+                int added = 0;
+                for (int i = 0; i < ts.length; i++) {
+                    if (ts[i] > lastTime) {
+                        put(ts[i], ps[i]);
+                        added++;
+                    }
+                }
+                // 분봉이 없는 공급원: 최신가를 한 점으로
+                if (ts.length == 0 && s.epochMs() > lastTime) {
+                    put(s.epochMs(), s.price());
+                    added++;
+                }
+                return added;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void put(long t, double p) {
+            times[head] = t;
+            prices[head] = p;
+            head = (head + 1) % times.length;
+            if (size < times.length) size++;
+            lastTime = t;
+        }
+
+        Series since(String key, long sinceMs) {
+            long stamp = lock.tryOptimisticRead();
+            Series s = copy(key, sinceMs);
+            if (lock.validate(stamp)) return s;
+            stamp = lock.readLock();
+            try {
+                return copy(key, sinceMs);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // 낙관적 읽기 중에는 값이 찢어질 수 있으므로 범위만 방어하고 validate 로 판정
+        private Series copy(String key, long sinceMs) {
+            int n = Math.min(size, times.length);
+            int cap = times.length;
+            int start = Math.floorMod(head - n, cap);
+            // 시각 오름차순 → 이진 탐색으로 시작점
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[(start + mid) % cap] < sinceMs) lo = mid + 1;
+                else hi = mid;
+            }
+            int count = n - lo;
+            long[] t = new long[count];
+            double[] p = new double[count];
+            int from = (start + lo) % cap;
+            int first = Math.min(count, cap - from);
+            System.arraycopy(times, from, t, 0, first);
+            System.arraycopy(times, 0, t, first, count - first);
+            System.arraycopy(prices, from, p, 0, first);
+            System.arraycopy(prices, 0, p, first, count - first);
+            return new Series(key, t, p);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.chatbot.yoo.chatbot.market;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Yahoo Finance chart API (FastAPI 의 yfinance history(period=1d, interval=1m) 와 같은 데이터).
+ * 한 번의 호출로 현재가/전일 종가/당일 1분봉을 함께 받는다.
+ */
+@Component
+@ConditionalOnProperty(name = "fastapi.market.source", havingValue = "yahoo", matchIfMissing = true)
+public class YahooQuoteSource implements QuoteSource {
+
+    @Value("${fastapi.market.yahoo.url:https://query1.finance.yahoo.com/v8/finance/chart/}")
+    private String baseUrl;
+
+    @Value("${fastapi.market.yahoo.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private final ObjectMapper json;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    public YahooQuoteSource(ObjectMapper json) {
+        this.json = json;
+    }
+
+    @Override
+    public String name() { return "yahoo"; }
+
+    @Override
+    public Snapshot fetch(String ticker) throws IOException {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl
+                        + URLEncoder.encode(ticker, StandardCharsets.UTF_8) + "?range=1d&interval=1m"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("User-Agent", "Mozilla/5.0")
+                .GET()
+                .build();
+        HttpResponse<InputStream> res;
+        try {
+            res = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+        try (InputStream body = res.body()) {
+            if (res.statusCode() == 404) return null;
+            if (res.statusCode() != 200) throw new IOException("yahoo chart " + res.statusCode() + " for " + ticker);
+            return parse(json.readTree(body));
+        }
+    }
+
+    // chart.result[0]: meta(현재가/전일 종가/시각) + timestamp[] + indicators.quote[0].close[]
+    static Snapshot parse(JsonNode root) {
+        JsonNode result = root.path("chart").path("result").path(0);
+        if (result.isMissingNode()) return null;
+        JsonNode meta = result.path("meta");
+        JsonNode ts = result.path("timestamp");
+        JsonNode close = result.path("indicators").path("quote").path(0).path("close");
+
+        int n = Math.min(ts.size(), close.size());
+        long[] times = new long[n];
+        double[] closes = new double[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (!close.get(i).isNumber()) continue;   // 거래 없는 분은 null
+            times[k] = ts.get(i).asLong() * 1000;
+            closes[k++] = close.get(i).asDouble();
+        }
+        if (k < n) {
+            times = Arrays.copyOf(times, k);
+            closes = Arrays.copyOf(closes, k);
+        }
+
+        double price = meta.path("regularMarketPrice").asDouble(k > 0 ? closes[k - 1] : Double.NaN);
+        if (Double.isNaN(price)) return null;
+        double prev = meta.has("chartPreviousClose") ? meta.path("chartPreviousClose").asDouble()
+                : meta.path("previousClose").asDouble(Double.NaN);
+        long at = meta.has("regularMarketTime") ? meta.path("regularMarketTime").asLong() * 1000
+                : k > 0 ? times[k - 1] : System.currentTimeMillis();
+        return new Snapshot(price, prev, at, times, closes);
+    }
+}
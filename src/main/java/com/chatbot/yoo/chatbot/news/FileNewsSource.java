@@ -0,0 +1,93 @@
+package com.chatbot.yoo.chatbot.news;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 오프라인/테스트용 뉴스 공급원 (fastapi.news.source=file).
+ * JSONL 한 줄 = 기사 한 건: {"id","title","url","published_at","collected_at"} (빈 줄 무시).
+ * cursor 비교는 FastAPI 피드와 같이 (collected_at, id) 문자열 순서로 하고, 파일이 바뀌면(크기/수정 시각) 다시 읽는다.
+ */
+@Component
+@ConditionalOnProperty(name = "fastapi.news.source", havingValue = "file")
+public class FileNewsSource implements NewsSource {
+
+    private static final Comparator<Item> COLLECTED = Comparator.comparing(Item::collectedAt).thenComparing(Item::id);
+
+    @Value("${fastapi.news.file:news.jsonl}")
+    private String file;
+
+    private final ObjectMapper json;
+    private long loadedSize = -1;
+    private long loadedModified = -1;
+    private List<Item> items = List.of();
+
+    public FileNewsSource(ObjectMapper json) {
+        this.json = json;
+    }
+
+    FileNewsSource(ObjectMapper json, String file) {
+        this.json = json;
+        this.file = file;
+    }
+
+    @Override
+    public String name() { return "file"; }
+
+    @Override
+    public synchronized Batch fetch(Cursor cursor, int limit) throws IOException {
+        Path path = Path.of(file);
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        if (size != loadedSize || modified != loadedModified) {
+            items = load(path);
+            loadedSize = size;
+            loadedModified = modified;
+        }
+        List<Item> out = new ArrayList<>();
+        if (cursor == null) {
+            // 최신 limit 건 = 수집 순 마지막 limit 건 (FastAPI 최초 적재처럼 다음 cursor 는 그 시각부터 포함)
+            out.addAll(items.subList(Math.max(0, items.size() - limit), items.size()));
+            return new Batch(out, out.isEmpty() ? Cursor.START : new Cursor(out.get(out.size() - 1).collectedAt(), ""));
+        }
+        for (Item it : items) {
+            if (cursor.before(it)) out.add(it);
+            if (out.size() == limit) break;
+        }
+        return new Batch(out, out.isEmpty() ? cursor : Cursor.after(out.get(out.size() - 1)));
+    }
+
+    private List<Item> load(Path path) throws IOException {
+        List<Item> list = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int no = 0;
+            while ((line = in.readLine()) != null) {
+                no++;
+                if (line.isBlank()) continue;
+                JsonNode n;
+                try {
+                    n = json.readTree(line);
+                } catch (IOException e) {
+                    throw new IOException(path + ":" + no + ": " + e.getMessage());
+                }
+                list.add(new Item(n.path("id").asText(""), n.path("title").asText(""), n.path("url").asText(""),
+                        n.path("published_at").asText(""), n.path("collected_at").asText("")));
+            }
+        }
+        list.sort(COLLECTED);
+        return List.copyOf(list);
+    }
+}
@@ -0,0 +1,135 @@
+package com.chatbot.yoo.chatbot.news;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * 최신 뉴스 (opt-in: fastapi.news.enabled).
+ * 처음 한 번 최신 capacity 건을 받고, 이후 poll-ms 마다 NewsSource 에서 cursor(마지막 (collected_at, id)) 이후 수집분만 받아
+ * NewsStore 에 반영한다. /api/news/latest 는 저장소만 읽는다 (요청마다 DB 집계 없음).
+ */
+@Component
+public class NewsService implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(NewsService.class.getName());
+    // 한 번의 poll 에서 따라잡는 최대 페이지 수 (나머지는 다음 poll 로)
+    private static final int MAX_PAGES = 10;
+
+    @Value("${fastapi.news.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fastapi.news.capacity:500}")
+    private int capacity;
+
+    @Value("${fastapi.news.page-size:200}")
+    private int pageSize;
+
+    private final NewsSource source;
+    private NewsStore store;
+    // 마지막으로 받은 (collected_at, id) (null 이면 아직 최초 적재 전)
+    private volatile NewsSource.Cursor cursor;
+
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchErrors = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final AtomicLong lastPollMs = new AtomicLong();
+    private volatile long lastPollAt;
+    private volatile long lastSuccessAt;
+
+    public NewsService(NewsSource source) {
+        this.source = source;
+    }
+
+    @PostConstruct
+    void init() {
+        store = new NewsStore(Math.max(10, capacity));
+    }
+
+    public boolean enabled() { return enabled; }
+
+    // === 읽기 (저장소만) ===
+    /** 최신 n 건 (최신순). 아직 받은 게 없으면 빈 목록. */
+    public List<NewsStore.Article> latest(int n) {
+        reads.increment();
+        return store.latest(n);
+    }
+
+    /** 첫 적재가 끝났는지 (빈 목록이 "뉴스 없음"인지 "아직 모름"인지 구분용) */
+    public boolean ready() { return cursor != null; }
+
+    /** 마지막으로 공급원 조회에 성공한 시각 (epoch ms, 아직 없으면 0) */
+    public long fetchedAt() { return lastSuccessAt; }
+
+    // === 주기 갱신 ===
+    @Scheduled(fixedDelayString = "${fastapi.news.poll-ms:30000}", initialDelay = 0)
+    synchronized void poll() {
+        if (!enabled) return;
+        long t0 = System.nanoTime();
+        try {
+            if (cursor == null) {
+                NewsSource.Batch b = fetch(null, Math.max(10, capacity));
+                cursor = Objects.requireNonNullElse(b.cursor(), NewsSource.Cursor.START);
+            } else {
+                for (int page = 0; page < MAX_PAGES; page++) {
+                    NewsSource.Cursor from = cursor;
+                    NewsSource.Batch b = fetch(from, pageSize);
+                    if (b.cursor() != null) cursor = b.cursor();
+                    // 덜 찬 페이지거나 cursor 가 그대로면 따라잡은 것 (같은 시각이 한 페이지를 넘어도 id 로 앞으로 감)
+                    if (b.items().size() < pageSize || Objects.equals(from, cursor)) break;
+                }
+            }
+            lastSuccessAt = System.currentTimeMillis();
+        } catch (IOException | RuntimeException e) {
+            fetchErrors.increment();
+            log.fine("news fetch failed: " + e.getMessage());
+        }
+        polls.increment();
+        lastPollMs.set((System.nanoTime() - t0) / 1_000_000);
+        lastPollAt = System.currentTimeMillis();
+    }
+
+    private NewsSource.Batch fetch(NewsSource.Cursor from, int limit) throws IOException {
+        fetches.increment();
+        NewsSource.Batch b = source.fetch(from, limit);
+        changes.add(store.apply(b.items(), System.currentTimeMillis()));
+        return b;
+    }
+
+    @Override
+    public String name() { return "news"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("source", source.name());
+        m.put("articles", store.size());
+        NewsSource.Cursor c = cursor;
+        m.put("cursor", c == null ? null : c.collectedAt());
+        m.put("cursorId", c == null ? null : c.id());
+        m.put("updatedAt", store.updatedAt());
+        m.put("polls", polls.sum());
+        m.put("fetches", fetches.sum());
+        m.put("lastPollMs", lastPollMs.get());
+        m.put("lastPollAt", lastPollAt);
+        m.put("lastSuccessAt", lastSuccessAt);
+        m.put("fetchErrors", fetchErrors.sum());
+        m.put("changes", changes.sum());
+        m.put("reads", reads.sum());
+        return m;
+    }
+}
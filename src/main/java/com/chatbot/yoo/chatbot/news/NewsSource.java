@@ -0,0 +1,67 @@
+package com.chatbot.yoo.chatbot.news;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * 뉴스 공급원. NewsService 가 주기적으로 cursor 이후 수집분을 가져간다.
+ * 구현은 fastapi.news.source 값으로 하나만 빈으로 올린다 (upstream | file).
+ */
+public interface NewsSource {
+
+    ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    /** 공급원이 준 기사 한 건 (시각은 원문 그대로의 ISO 문자열, 모르면 빈 문자열) */
+    record Item(String id, String title, String url, String publishedAt, String collectedAt) { }
+
+    /**
+     * 어디까지 받았는지: 수집 순 마지막 기사의 (collected_at, id).
+     * 같은 collected_at 이 한 페이지보다 많아도 id 로 이어 받는다. id 가 빈 문자열이면 그 시각의 기사부터 모두.
+     */
+    record Cursor(String collectedAt, String id) {
+        static final Cursor START = new Cursor("", "");
+
+        static Cursor after(Item it) { return new Cursor(it.collectedAt(), it.id()); }
+
+        /** 기사가 이 cursor 뒤에 있는지 ((collected_at, id) 사전순) */
+        boolean before(Item it) {
+            int c = it.collectedAt().compareTo(collectedAt);
+            return c > 0 || c == 0 && it.id().compareTo(id) > 0;
+        }
+    }
+
+    /** items 와 다음 호출에 넘길 cursor */
+    record Batch(List<Item> items, Cursor cursor) { }
+
+    String name();
+
+    /**
+     * cursor 가 null 이면 최신 limit 건, 아니면 cursor 뒤의 기사를 수집 순((collected_at, id) 오름차순)으로 최대 limit 건.
+     * 통신/파싱 실패는 IOException.
+     */
+    Batch fetch(Cursor cursor, int limit) throws IOException;
+
+    /** ISO 시각 → epoch ms (오프셋이 없으면 KST, 날짜만 있으면 그날 0시). 읽을 수 없으면 0. */
+    static long epochMs(String iso) {
+        if (iso == null || iso.isBlank()) return 0;
+        try {
+            return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(iso).atZone(KST).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e2) {
+                try {
+                    return LocalDate.parse(iso.length() >= 10 ? iso.substring(0, 10) : iso)
+                            .atStartOfDay(KST).toInstant().toEpochMilli();
+                } catch (DateTimeParseException e3) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.chatbot.yoo.chatbot.news;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 최신 뉴스 읽기 모델.
+ * 기사 요약을 정렬 시각(published_at, 없으면 collected_at) 내림차순 ConcurrentSkipListSet 에 capacity 건까지만 두고,
+ * 넘치면 가장 오래된 것부터 버린다. 읽기는 잠금 없이 앞에서 n 건만 훑는다.
+ * 쓰기는 폴러 하나만 하므로 id → 기사 색인(중복/수정 판정)은 쓰기 쪽 잠금 안에서만 다룬다.
+ */
+public final class NewsStore {
+
+    /** 기사 요약 (time 은 정렬 시각 epoch ms, date 는 KST yyyy-MM-dd 또는 원문 문자열) */
+    public record Article(String id, String title, String url, String date, long time) { }
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(NewsSource.KST);
+    private static final Comparator<Article> NEWEST_FIRST =
+            Comparator.comparingLong(Article::time).reversed().thenComparing(Article::id);
+
+    private final int capacity;
+    private final ConcurrentSkipListSet<Article> articles = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final Map<String, Article> byId = new HashMap<>();
+    private volatile long updatedAt;
+
+    NewsStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    // === 읽기 ===
+    /** 최신 n 건 (최신순) */
+    public List<Article> latest(int n) {
+        List<Article> out = new ArrayList<>(Math.min(n, capacity));
+        Iterator<Article> it = articles.iterator();
+        while (out.size() < n && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    public long updatedAt() { return updatedAt; }
+
+    synchronized int size() { return byId.size(); }
+
+    // === 쓰기 ===
+    /** 새 기사는 넣고, 같은 id 가 바뀌었으면 교체. 실제로 바뀐 건수를 반환. */
+    synchronized int apply(List<NewsSource.Item> items, long now) {
+        int changed = 0;
+        for (NewsSource.Item item : items) {
+            Article a = article(item);
+            if (a == null) continue;
+            Article old = byId.put(a.id(), a);
+            if (a.equals(old)) continue;
+            if (old != null && NEWEST_FIRST.compare(old, a) == 0) {
+                // 정렬 위치가 같으면(제목/URL 만 수정) 집합이 같은 원소로 보므로 빼고 넣는다
+                articles.remove(old);
+                articles.add(a);
+            } else {
+                // 새 것을 먼저 넣어 읽는 쪽이 그 사이 기사를 놓치지 않게
+                articles.add(a);
+                if (old != null) articles.remove(old);
+            }
+            changed++;
+        }
+        while (byId.size() > capacity) {
+            Article oldest = articles.pollLast();
+            if (oldest == null) break;
+            byId.remove(oldest.id());
+        }
+        if (changed > 0) updatedAt = now;
+        return changed;
+    }
+
+    static Article article(NewsSource.Item item) {
+        String id = item.id() == null || item.id().isBlank() ? item.url() : item.id();
+        if (id == null || id.isBlank()) return null;
+        long published = NewsSource.epochMs(item.publishedAt());
+        long time = published > 0 ? published : NewsSource.epochMs(item.collectedAt());
+        String date = published > 0 ? DATE.format(Instant.ofEpochMilli(published))
+                : item.publishedAt() == null ? "" : item.publishedAt();
+        return new Article(id, nullToEmpty(item.title()).strip(), nullToEmpty(item.url()).strip(), date, time);
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
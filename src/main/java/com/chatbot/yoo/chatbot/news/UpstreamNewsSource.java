@@ -0,0 +1,88 @@
+package com.chatbot.yoo.chatbot.news;
+
+import com.chatbot.yoo.chatbot.trace.TraceFilter;
+import com.chatbot.yoo.chatbot.upstream.UpstreamGuard;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FastAPI GET /api/news/feed (MongoDB collected_at 인덱스로 cursor (collected_at, _id) 이후 수집분만 조회).
+ * 다른 upstream 호출과 같은 guard(동시성 제한/브레이커)를 거친다.
+ */
+@Component
+@ConditionalOnProperty(name = "fastapi.news.source", havingValue = "upstream", matchIfMissing = true)
+public class UpstreamNewsSource implements NewsSource {
+
+    private static final String ROUTE = "/api/news/feed";
+
+    private final RestTemplate rest;
+    private final UpstreamGuard guard;
+    private final ObjectMapper json;
+
+    public UpstreamNewsSource(RestTemplate rest, UpstreamGuard guard, ObjectMapper json) {
+        this.rest = rest;
+        this.guard = guard;
+        this.json = json;
+    }
+
+    @Override
+    public String name() { return "upstream"; }
+
+    @Override
+    public Batch fetch(Cursor cursor, int limit) throws IOException {
+        UpstreamGuard.Permit permit = guard.acquire(ROUTE);
+        if (permit == null) throw new IOException("FastAPI " + ROUTE + " 접속 실패");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (permit.traceparent() != null) headers.set(TraceFilter.TRACEPARENT, permit.traceparent());
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(permit.url(ROUTE)).queryParam("limit", limit);
+        // since 는 URI 변수로 넘겨 엄격히 인코딩 (ISO 오프셋의 '+' 가 공백으로 풀리지 않게)
+        if (cursor != null) uri.queryParam("since", "{since}").queryParam("after_id", "{afterId}");
+        try {
+            URI target = uri.encode().buildAndExpand(Map.of(
+                    "since", cursor == null ? "" : cursor.collectedAt(),
+                    "afterId", cursor == null ? "" : cursor.id())).toUri();
+            ResponseEntity<String> res = rest.exchange(target, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+            permit.success();
+            return parse(json.readTree(res.getBody() == null ? "" : res.getBody()), cursor);
+        } catch (HttpStatusCodeException ex) {
+            permit.complete(ex.getStatusCode());
+            throw new IOException("news feed " + ex.getStatusCode().value());
+        } catch (RestClientException e) {
+            permit.failure(e);
+            throw new IOException("news feed: " + e.getMessage(), e);
+        } finally {
+            permit.ignore();
+        }
+    }
+
+    // {"items":[{"id","title","url","published_at","collected_at"}...], "cursor": "...", "cursor_id": "..."}
+    static Batch parse(JsonNode root, Cursor cursor) {
+        JsonNode items = root.path("items");
+        List<Item> out = new ArrayList<>(items.size());
+        for (JsonNode n : items) {
+            out.add(new Item(n.path("id").asText(""), n.path("title").asText(""), n.path("url").asText(""),
+                    n.path("published_at").asText(""), n.path("collected_at").asText("")));
+        }
+        String next = root.path("cursor").asText("");
+        if (next.isEmpty()) return new Batch(out, cursor == null ? Cursor.START : cursor);
+        return new Batch(out, new Cursor(next, root.path("cursor_id").asText("")));
+    }
+}
@@ -0,0 +1,252 @@
+package com.chatbot.yoo.chatbot.session;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 게이트웨이 소유 대화 세션 (servlet/reactive 컨트롤러 공용). 쿠키(YOO_SID)로 세션을 구분하고, 턴 히스토리는 세션마다
+ * byte[] 하나에 [role][len][utf8] 로 이어 붙여 보관한다 (턴 수/바이트 상한 초과 시 오래된 턴부터 버림).
+ * 최대 메모리 ≈ max-sessions × max-bytes-per-session. 세션 목록은 접근 순서 LRU 라 가득 차면 가장 오래 안 쓴 세션을
+ * O(1) 로 밀어내고, 유휴 세션은 주기적으로 오래된 쪽부터 정리한다.
+ * upstream 에는 쿠키 값 대신 세션마다 따로 뽑은 upstreamId 를 보낸다 (FastAPI 가 응답에 session_id 를 되돌려 주므로).
+ */
+@Component
+public class SessionStore implements StatsSource {
+
+    public static final String COOKIE = "YOO_SID";
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{22}");
+    private static final byte USER = 0;
+    private static final byte ASSISTANT = 1;
+
+    @Value("${fastapi.session.max-sessions:100000}")
+    private int maxSessions;
+
+    @Value("${fastapi.session.max-turns:40}")
+    private int maxTurns;
+
+    @Value("${fastapi.session.max-bytes-per-session:8192}")
+    private int maxBytesPerSession;
+
+    @Value("${fastapi.session.idle-seconds:1800}")
+    private long idleSeconds;
+
+    // access-order LinkedHashMap = LRU, 모든 접근은 sessions 락으로
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+            if (size() <= maxSessions) return false;
+            evictedCapacity.increment();
+            return true;
+        }
+    };
+    private final SecureRandom random = new SecureRandom();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder evictedCapacity = new LongAdder();
+
+    /** 세션 하나의 턴 버퍼. 모든 접근은 인스턴스 락으로 직렬화. */
+    public final class Session {
+        private final String id;
+        private final String upstreamId = newId();
+        private long lastAccess;   // sessions 락 안에서만
+        private byte[] data = new byte[0];
+        private int len;
+        private int turns;
+
+        private Session(String id) { this.id = id; }
+
+        String id() { return id; }
+
+        /** FastAPI 로 보내는 session_id (쿠키와 무관한 난수라 응답에 실려 나가도 세션을 가로챌 수 없음) */
+        public String upstreamId() { return upstreamId; }
+
+        public synchronized boolean isEmpty() { return turns == 0; }
+
+        public synchronized void append(String userMessage, String answer) {
+            add(USER, userMessage);
+            add(ASSISTANT, answer);
+        }
+
+        public synchronized void clear() {
+            data = new byte[0];
+            len = 0;
+            turns = 0;
+        }
+
+        /** upstream 으로 보낼 [{role, content}, ...] */
+        public synchronized List<Map<String, String>> history() {
+            List<Map<String, String>> out = new ArrayList<>(turns);
+            ByteBuffer buf = ByteBuffer.wrap(data, 0, len);
+            while (buf.hasRemaining()) {
+                byte role = buf.get();
+                int n = buf.getInt();
+                String content = new String(data, buf.position(), n, StandardCharsets.UTF_8);
+                buf.position(buf.position() + n);
+                out.add(Map.of("role", role == USER ? "user" : "assistant", "content", content));
+            }
+            return out;
+        }
+
+        synchronized int bytes() { return data.length; }
+
+        private void add(byte role, String content) {
+            byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+            int need = 5 + utf8.length;
+            if (need > maxBytesPerSession) return; // 한 턴이 상한보다 크면 보관하지 않음
+            while (turns > 0 && (len + need > maxBytesPerSession || turns >= maxTurns)) dropOldest();
+            if (data.length < len + need) {
+                byte[] grown = new byte[Math.min(maxBytesPerSession, Math.max(len + need, data.length * 2))];
+                System.arraycopy(data, 0, grown, 0, len);
+                data = grown;
+            }
+            ByteBuffer.wrap(data, len, need).put(role).putInt(utf8.length).put(utf8);
+            len += need;
+            turns++;
+        }
+
+        private void dropOldest() {
+            int first = 5 + ByteBuffer.wrap(data, 1, 4).getInt();
+            System.arraycopy(data, first, data, 0, len - first);
+            len -= first;
+            turns--;
+        }
+    }
+
+    // === 쿠키로 세션 조회/발급 (servlet / reactive 게이트웨이 공통) ===
+    public Session resolve(HttpServletRequest request, HttpServletResponse response) {
+        String id = cookieId(request);
+        if (id == null) {
+            id = newId();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie(id).toString());
+        }
+        return resolve(id);
+    }
+
+    public Session resolve(ServerWebExchange exchange) {
+        String id = cookieId(exchange);
+        if (id == null) {
+            id = newId();
+            exchange.getResponse().addCookie(cookie(id));
+        }
+        return resolve(id);
+    }
+
+    private Session resolve(String id) {
+        synchronized (sessions) {
+            Session s = sessions.get(id);
+            if (s == null) {
+                s = new Session(id);
+                sessions.put(id, s);
+                created.increment();
+            }
+            s.lastAccess = System.currentTimeMillis();
+            return s;
+        }
+    }
+
+    /** 쿠키가 있으면 그 세션만 비움. upstream 에서도 비울 upstreamId 를 돌려줌 (세션이 없었으면 null). */
+    public String clear(HttpServletRequest request) {
+        return clear(cookieId(request));
+    }
+
+    public String clear(ServerWebExchange exchange) {
+        return clear(cookieId(exchange));
+    }
+
+    private String clear(String id) {
+        if (id == null) return null;
+        Session s;
+        synchronized (sessions) {
+            s = sessions.remove(id);
+        }
+        if (s == null) return null;
+        s.clear();
+        return s.upstreamId;
+    }
+
+    // === 유휴 세션 정리 ===
+    @Scheduled(fixedDelayString = "${fastapi.session.sweep-ms:30000}")
+    void sweepIdle() {
+        long cutoff = System.currentTimeMillis() - idleSeconds * 1000;
+        synchronized (sessions) {
+            // 접근 순서라 처음 만나는 최근 세션에서 멈춤
+            Iterator<Session> it = sessions.values().iterator();
+            while (it.hasNext() && it.next().lastAccess < cutoff) {
+                it.remove();
+                evictedIdle.increment();
+            }
+        }
+    }
+
+    private static String cookieId(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie c : cookies) {
+            if (COOKIE.equals(c.getName()) && ID_PATTERN.matcher(c.getValue()).matches()) return c.getValue();
+        }
+        return null;
+    }
+
+    private static String cookieId(ServerWebExchange exchange) {
+        List<HttpCookie> cookies = exchange.getRequest().getCookies().get(COOKIE);
+        if (cookies == null) return null;
+        for (HttpCookie c : cookies) {
+            if (ID_PATTERN.matcher(c.getValue()).matches()) return c.getValue();
+        }
+        return null;
+    }
+
+    private static ResponseCookie cookie(String id) {
+        return ResponseCookie.from(COOKIE, id).path("/").httpOnly(true).sameSite("Lax").build();
+    }
+
+    private String newId() {
+        byte[] b = new byte[16];
+        random.nextBytes(b);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(b);
+    }
+
+    @Override
+    public String name() { return "sessions"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        List<Session> all;
+        synchronized (sessions) {
+            all = new ArrayList<>(sessions.values());
+        }
+        long bytes = 0;
+        for (Session s : all) bytes += s.bytes();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("active", all.size());
+        m.put("max", maxSessions);
+        m.put("historyBytes", bytes);
+        m.put("created", created.sum());
+        m.put("evictedIdle", evictedIdle.sum());
+        m.put("evictedCapacity", evictedCapacity.sum());
+        return m;
+    }
+}
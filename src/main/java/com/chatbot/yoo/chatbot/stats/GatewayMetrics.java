@@ -0,0 +1,54 @@
+package com.chatbot.yoo.chatbot.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * upstream 호출 메트릭 (/actuator/prometheus).
+ * 게이트웨이 전체 시간은 http.server.requests, upstream 구간은 gateway.upstream.duration 으로 나눠 본다.
+ * status 태그는 2xx/3xx/4xx/5xx 또는 timeout(응답 대기 초과), pool_timeout(커넥션 대기 초과), error(접속 실패 등).
+ */
+@Component
+public class GatewayMetrics {
+
+    private final MeterRegistry registry;
+
+    public GatewayMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** upstream 호출 1건 (route 예: /chat, /api/tts). outcome: success | failure | ignored */
+    public void upstream(String route, long nanos, String outcome, String status) {
+        Timer.builder("gateway.upstream.duration")
+                .description("FastAPI upstream call time (gateway → upstream → first byte/complete)")
+                .tag("route", route)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (status != null) {
+            Counter.builder("gateway.upstream.responses")
+                    .tag("route", route)
+                    .tag("status", status)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    /** 라우트별 gauge (진행 중 요청 수, 동시성 상한 등). obj 는 registry 가 약한 참조로 들고 있으므로 호출부가 보관한다. */
+    public <T> void gauge(String name, String route, T obj, ToDoubleFunction<T> value) {
+        Gauge.builder(name, obj, value)
+                .tag("route", route)
+                .register(registry);
+    }
+
+    public static String statusClass(int status) {
+        return (status / 100) + "xx";
+    }
+}
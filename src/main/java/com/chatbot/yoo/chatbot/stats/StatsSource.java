@@ -0,0 +1,14 @@
+package com.chatbot.yoo.chatbot.stats;
+
+import java.util.Map;
+
+/**
+ * 게이트웨이 런타임 통계 제공자.
+ * 빈으로 등록하면 /api/gateway/stats 응답에 name() 키로 합쳐진다.
+ */
+public interface StatsSource {
+
+    String name();
+
+    Map<String, Object> snapshot();
+}
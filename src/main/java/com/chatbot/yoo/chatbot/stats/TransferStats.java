@@ -0,0 +1,61 @@
+package com.chatbot.yoo.chatbot.stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 프록시 바디 전송량 카운터 (STT 업로드 / TTS 오디오). 같은 값을 Micrometer 카운터로도 노출한다.
+ */
+@Component
+public class TransferStats implements StatsSource, MeterBinder {
+
+    private final LongAdder sttUploads = new LongAdder();
+    private final LongAdder sttBytes = new LongAdder();
+    private final LongAdder sttRejected = new LongAdder();
+    private final LongAdder ttsStreams = new LongAdder();
+    private final LongAdder ttsBytes = new LongAdder();
+
+    public void sttUpload() { sttUploads.increment(); }
+
+    public void sttBytes(long n) { sttBytes.add(n); }
+
+    public void sttRejected() { sttRejected.increment(); }
+
+    public void ttsStream() { ttsStreams.increment(); }
+
+    public void ttsBytes(long n) { ttsBytes.add(n); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("gateway.transfer.bytes", sttBytes, LongAdder::sum)
+                .tag("route", "/api/stt").tag("direction", "upstream").baseUnit("bytes").register(registry);
+        FunctionCounter.builder("gateway.transfer.bytes", ttsBytes, LongAdder::sum)
+                .tag("route", "/api/tts").tag("direction", "downstream").baseUnit("bytes").register(registry);
+        FunctionCounter.builder("gateway.transfer.requests", sttUploads, LongAdder::sum)
+                .tag("route", "/api/stt").register(registry);
+        FunctionCounter.builder("gateway.transfer.requests", ttsStreams, LongAdder::sum)
+                .tag("route", "/api/tts").register(registry);
+        FunctionCounter.builder("gateway.transfer.rejected", sttRejected, LongAdder::sum)
+                .tag("route", "/api/stt").register(registry);
+    }
+
+    @Override
+    public String name() { return "transfer"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("sttUploads", sttUploads.sum());
+        m.put("sttBytesStreamed", sttBytes.sum());
+        m.put("sttRejected", sttRejected.sum());
+        m.put("ttsStreams", ttsStreams.sum());
+        m.put("ttsBytesStreamed", ttsBytes.sum());
+        return m;
+    }
+}
@@ -0,0 +1,78 @@
+package com.chatbot.yoo.chatbot.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 구간 1개 (W3C trace-context 의 trace-id/parent-id 규칙을 따름).
+ * 비동기 요청은 컨테이너 스레드(onTimeout/onError)와 처리 스레드가 함께 tag/end 를 부르므로
+ * attrs 와 종료 상태는 이 객체로 잠근다 (구간당 몇 번뿐이라 경합 없음). end() 는 첫 호출만 반영.
+ */
+public final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String name;
+    private final boolean sampled;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Map<String, Object> attrs = new LinkedHashMap<>();
+    private volatile long durationNanos = -1;
+
+    Span(String traceId, String spanId, String parentId, String name, boolean sampled,
+         long startEpochMicros, long startNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.sampled = sampled;
+        this.startEpochMicros = startEpochMicros;
+        this.startNanos = startNanos;
+    }
+
+    public String traceId() { return traceId; }
+
+    public String spanId() { return spanId; }
+
+    public String parentId() { return parentId; }
+
+    public String name() { return name; }
+
+    public boolean sampled() { return sampled; }
+
+    long startEpochMicros() { return startEpochMicros; }
+
+    long startNanos() { return startNanos; }
+
+    /** 하위 호출로 보낼 traceparent 헤더 값 (version 00) */
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public synchronized Span tag(String key, Object value) {
+        if (value != null) attrs.put(key, value);
+        return this;
+    }
+
+    synchronized boolean end(long endNanos) {
+        if (durationNanos >= 0) return false;
+        durationNanos = Math.max(0, endNanos - startNanos);
+        return true;
+    }
+
+    boolean ended() { return durationNanos >= 0; }
+
+    /** exporter/조회 API 용 표현 (시각은 epoch µs, 길이는 ms) */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("traceId", traceId);
+        m.put("spanId", spanId);
+        if (parentId != null) m.put("parentId", parentId);
+        m.put("name", name);
+        m.put("startUs", startEpochMicros);
+        m.put("durationMs", durationNanos / 1_000_000.0);
+        if (!attrs.isEmpty()) m.put("attrs", new LinkedHashMap<>(attrs));
+        return m;
+    }
+}
@@ -0,0 +1,68 @@
+package com.chatbot.yoo.chatbot.trace;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * /api/** 요청마다 서버 span 을 열고 응답 헤더 X-Trace-Id 로 trace id 를 돌려준다.
+ * 브라우저가 traceparent 를 보내면 그 trace 를 이어 가고, SSE 처럼 비동기로 끝나는 요청은 완료 시점에 span 을 닫는다.
+ * (blocking 모드 전용, reactive 모드에서는 서블릿 필터가 동작하지 않음)
+ */
+@Component
+public class TraceFilter extends OncePerRequestFilter {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private final Tracer tracer;
+
+    public TraceFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // 게이트웨이 자체 조회(stats/traces)는 추적하지 않음
+        return !tracer.enabled() || !path.startsWith("/api/") || path.startsWith("/api/gateway/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Span span = tracer.startServer(request.getMethod() + " " + request.getRequestURI(), request.getHeader(TRACEPARENT));
+        if (span == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(TRACE_ID_HEADER, span.traceId());
+        boolean async = false;
+        try (Tracer.Scope ignored = tracer.attach(span)) {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete(AsyncEvent e) { finish(span, response); }
+                    @Override public void onTimeout(AsyncEvent e) { span.tag("error", "timeout"); }
+                    @Override public void onError(AsyncEvent e) { span.tag("error", String.valueOf(e.getThrowable())); }
+                    @Override public void onStartAsync(AsyncEvent e) { }
+                });
+            } else {
+                finish(span, response);
+            }
+        }
+    }
+
+    private void finish(Span span, HttpServletResponse response) {
+        tracer.end(span.tag("http.status", response.getStatus()));
+    }
+}
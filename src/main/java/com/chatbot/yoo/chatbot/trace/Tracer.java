@@ -0,0 +1,245 @@
+package com.chatbot.yoo.chatbot.trace;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * 브라우저 → 게이트웨이 → FastAPI 구간 추적 (W3C traceparent 전파).
+ * 외부 수집기 없이 최근 span 을 메모리 링(max-spans)에 보관하고, file 을 지정하면 JSONL 로도 남긴다.
+ * 조회: GET /api/gateway/traces. 비활성(fastapi.trace.enabled=false)이면 span 을 만들지 않고 null 을 돌려준다.
+ */
+@Component
+public class Tracer implements StatsSource {
+
+    private static final Logger log = Logger.getLogger(Tracer.class.getName());
+
+    // version-traceid-parentid-flags (version 00 만 해석)
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String ZERO_TRACE = "0".repeat(32);
+    private static final String ZERO_SPAN = "0".repeat(16);
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Value("${fastapi.trace.enabled:true}")
+    private boolean enabled;
+
+    // 새로 시작하는 trace 의 기록 비율 (브라우저가 sampled 플래그를 보내면 그 결정을 따름)
+    @Value("${fastapi.trace.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${fastapi.trace.max-spans:10000}")
+    private int maxSpans;
+
+    // 비어 있으면 파일로 내보내지 않음
+    @Value("${fastapi.trace.file:}")
+    private String file;
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final ArrayDeque<Span> ring = new ArrayDeque<>();
+    private BufferedWriter writer;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder fileErrors = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        if (!enabled || file == null || file.isBlank()) return;
+        try {
+            Path p = Path.of(file);
+            if (p.getParent() != null) Files.createDirectories(p.getParent());
+            writer = Files.newBufferedWriter(p, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warning("trace file exporter disabled: " + e.getMessage());
+        }
+    }
+
+    public boolean enabled() { return enabled; }
+
+    // === span 시작 ===
+    /** 요청 진입 span. 들어온 traceparent 가 유효하면 그 trace 를 이어 간다. 비활성이면 null. */
+    public Span startServer(String name, String traceparent) {
+        if (!enabled) return null;
+        var m = traceparent != null ? TRACEPARENT.matcher(traceparent.strip()) : null;
+        if (m != null && m.matches() && !ZERO_TRACE.equals(m.group(1)) && !ZERO_SPAN.equals(m.group(2))) {
+            boolean sampled = (HEX.fromHexDigits(m.group(3)) & 1) == 1;
+            return start(m.group(1), m.group(2), name, sampled);
+        }
+        return start(randomHex(16), null, name, ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /** parent 아래 하위 span. parent 가 null 이면 null (추적 중이 아닌 호출). */
+    public Span startChild(Span parent, String name) {
+        if (parent == null) return null;
+        return start(parent.traceId(), parent.spanId(), name, parent.sampled());
+    }
+
+    /** 이미 끝난 구간을 기록 (upstream 이 Server-Timing 으로 알려준 내부 구간 등). offset 은 parent 시작 기준. */
+    public void record(Span parent, String name, double offsetMs, double durationMs) {
+        if (parent == null || !parent.sampled()) return;
+        long offNanos = (long) (offsetMs * 1_000_000);
+        Span s = new Span(parent.traceId(), randomHex(8), parent.spanId(), name, true,
+                parent.startEpochMicros() + offNanos / 1000, parent.startNanos() + offNanos);
+        started.increment();
+        s.end(s.startNanos() + (long) (durationMs * 1_000_000));
+        export(s);
+    }
+
+    private Span start(String traceId, String parentId, String name, boolean sampled) {
+        Instant now = Instant.now();
+        long epochMicros = now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+        started.increment();
+        return new Span(traceId, randomHex(8), parentId, name, sampled, epochMicros, System.nanoTime());
+    }
+
+    public void end(Span span) {
+        if (span == null || !span.end(System.nanoTime())) return;
+        if (span.sampled()) export(span);
+    }
+
+    // === 현재 스레드의 요청 span ===
+    public Span current() { return current.get(); }
+
+    /** 다른 스레드(SSE 스트리밍 등)로 넘어간 작업에서 요청 span 을 잇는다. close 시 이전 값 복원. */
+    public Scope attach(Span span) {
+        Span previous = current.get();
+        if (span == null) current.remove();
+        else current.set(span);
+        return () -> {
+            if (previous == null) current.remove();
+            else current.set(previous);
+        };
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    // === exporter: 메모리 링 + JSONL 파일 ===
+    private void export(Span s) {
+        synchronized (ring) {
+            if (ring.size() >= Math.max(1, maxSpans)) {
+                ring.pollFirst();
+                evicted.increment();
+            }
+            ring.addLast(s);
+        }
+        exported.increment();
+        if (writer != null) writeLine(s);
+    }
+
+    private synchronized void writeLine(Span s) {
+        if (writer == null) return;
+        try {
+            writer.write(JSON.writeValueAsString(s.toMap()));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            fileErrors.increment();
+        }
+    }
+
+    /** 최근 trace 요약 (최신 순): traceId, 루트 이름, 전체 길이, span 수 */
+    public List<Map<String, Object>> recentTraces(int limit) {
+        Map<String, List<Span>> byTrace = new LinkedHashMap<>();
+        synchronized (ring) {
+            var it = ring.descendingIterator();
+            while (it.hasNext()) {
+                Span s = it.next();
+                List<Span> list = byTrace.get(s.traceId());
+                if (list == null) {
+                    if (byTrace.size() >= limit) continue;
+                    byTrace.put(s.traceId(), list = new ArrayList<>());
+                }
+                list.add(s);
+            }
+        }
+        List<Map<String, Object>> out = new ArrayList<>(byTrace.size());
+        byTrace.forEach((id, spans) -> {
+            spans.sort(Comparator.comparingLong(Span::startNanos));
+            Span root = spans.get(0);
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("traceId", id);
+            m.put("root", root.name());
+            m.put("startUs", root.startEpochMicros());
+            m.put("durationMs", root.toMap().get("durationMs"));
+            m.put("spans", spans.size());
+            out.add(m);
+        });
+        return out;
+    }
+
+    /** trace 1건의 span 목록 (시작 순). 링에서 밀려났으면 빈 목록. */
+    public List<Map<String, Object>> trace(String traceId) {
+        List<Span> spans = new ArrayList<>();
+        synchronized (ring) {
+            for (Span s : ring) if (s.traceId().equals(traceId)) spans.add(s);
+        }
+        spans.sort(Comparator.comparingLong(Span::startNanos));
+        List<Map<String, Object>> out = new ArrayList<>(spans.size());
+        for (Span s : spans) out.add(s.toMap());
+        return out;
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] b = new byte[bytes];
+        do {
+            ThreadLocalRandom.current().nextBytes(b);
+        } while (allZero(b));
+        return HEX.formatHex(b);
+    }
+
+    private static boolean allZero(byte[] b) {
+        for (byte x : b) if (x != 0) return false;
+        return true;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (writer == null) return;
+        try { writer.close(); } catch (IOException ignored) { }
+        writer = null;
+    }
+
+    @Override
+    public String name() { return "tracing"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("sampleRate", sampleRate);
+        m.put("started", started.sum());
+        m.put("exported", exported.sum());
+        m.put("evicted", evicted.sum());
+        synchronized (ring) { m.put("buffered", ring.size()); }
+        m.put("file", writer != null ? file : null);
+        m.put("fileErrors", fileErrors.sum());
+        return m;
+    }
+}
@@ -0,0 +1,59 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * reactive 게이트웨이 모드(fastapi.gateway.mode=reactive)용 논블로킹 upstream 클라이언트.
+ * 풀 한도/타임아웃은 블로킹 모드와 같은 fastapi.pool.* 값을 쓴다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "fastapi.gateway.mode", havingValue = "reactive")
+public class ReactiveUpstreamConfig {
+
+    @Value("${fastapi.pool.max-per-route:100}")
+    private int maxConnections;
+
+    @Value("${fastapi.pool.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${fastapi.pool.keep-alive-seconds:4}")
+    private long keepAliveSeconds;
+
+    @Value("${fastapi.pool.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${fastapi.pool.read-timeout-ms:180000}")
+    private long readTimeoutMs;
+
+    @Value("${fastapi.pool.acquire-timeout-ms:3000}")
+    private long acquireTimeoutMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder("fastapi")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+                .evictInBackground(Duration.ofSeconds(idleEvictSeconds))
+                .lifo()
+                .build();
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(WebClient.Builder builder, ConnectionProvider upstreamConnectionProvider) {
+        HttpClient http = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder.clientConnector(new ReactorClientHttpConnector(http)).build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.cache.TtsCache;
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 /api/chat, /api/tts 요청이 동시에 들어오면 upstream 호출 1번을 공유시킨다.
+ * chat 은 message + lang + 히스토리 지문(session_id 제외 → 히스토리가 같으면 다른 사용자끼리도 합쳐짐),
+ * tts 는 TtsCache 정규화 키를 쓴다.
+ */
+@Component
+public class RequestCoalescer implements StatsSource {
+
+    @Value("${fastapi.coalesce.enabled:true}")
+    private boolean enabled;
+
+    private final SingleFlight<String, ResponseEntity<String>> chat = new SingleFlight<>();
+    private final SingleFlight<String, ResponseEntity<byte[]>> chatRaw = new SingleFlight<>();
+    private final SingleFlight<String, TtsCache.Entry> tts = new SingleFlight<>();
+
+    public boolean enabled() { return enabled; }
+
+    /** key 는 chatKey(...) */
+    public SingleFlight.Outcome<ResponseEntity<String>> chat(String key, Supplier<ResponseEntity<String>> call) {
+        return chat.execute(key, call);
+    }
+
+    /** passthrough 모드 (응답을 바이트 그대로 공유) */
+    public SingleFlight.Outcome<ResponseEntity<byte[]>> chatRaw(String key, Supplier<ResponseEntity<byte[]>> call) {
+        return chatRaw.execute(key, call);
+    }
+
+    /** leader 는 스트리밍하며 캡처한 오디오를 돌려주고, follower 는 그 사본을 받는다 (캡처 실패 시 null). */
+    public SingleFlight.Outcome<TtsCache.Entry> tts(String ttsKey, Supplier<TtsCache.Entry> call) {
+        return tts.execute(ttsKey, call);
+    }
+
+    /** upstream 답변을 정하는 값만: 메시지, 언어, 히스토리 턴 (세션 식별자는 넣지 않음) */
+    public static String chatKey(Object message, Object lang, List<Map<String, String>> history) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(md, message);
+        update(md, lang);
+        for (Map<String, String> turn : history) {
+            update(md, turn.get("role"));
+            update(md, turn.get("content"));
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static void update(MessageDigest md, Object value) {
+        md.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+    }
+
+    @Override
+    public String name() { return "coalescing"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("chatUpstreamCalls", chat.executed() + chatRaw.executed());
+        m.put("chatCoalesced", chat.coalesced() + chatRaw.coalesced());
+        m.put("chatInFlight", chat.inFlight() + chatRaw.inFlight());
+        m.put("ttsUpstreamCalls", tts.executed());
+        m.put("ttsCoalesced", tts.coalesced());
+        m.put("ttsInFlight", tts.inFlight());
+        return m;
+    }
+}
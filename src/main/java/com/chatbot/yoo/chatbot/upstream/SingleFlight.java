@@ -0,0 +1,54 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나로 합친다. 첫 호출(leader)만 실제로 실행하고
+ * 나머지(follower)는 그 결과(예외 포함)를 그대로 받는다. 완료되면 키는 바로 비워진다.
+ */
+public final class SingleFlight<K, V> {
+
+    /** shared=true 면 다른 요청이 실행한 결과를 받은 것. */
+    public record Outcome<V>(V value, boolean shared) { }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Outcome<V> execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return new Outcome<>(running.join(), true);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error err) throw err;
+                throw e;
+            }
+        }
+        executed.increment();
+        try {
+            V v = call.get();
+            mine.complete(v);
+            return new Outcome<>(v, false);
+        } catch (RuntimeException | Error e) {
+            // Error(OOM 등)도 전달해야 join() 에서 기다리는 follower 가 깨어남
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, mine);
+        }
+    }
+
+    public long executed() { return executed.sum(); }
+
+    public long coalesced() { return coalesced.sum(); }
+
+    public int inFlight() { return calls.size(); }
+}
@@ -0,0 +1,230 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * FastAPI 인스턴스 목록(fastapi.chat=콤마 구분) 사이의 부하 분산.
+ * 세션 키가 있으면 rendezvous 해시로 같은 인스턴스에 고정, 없으면 power-of-two-choices(진행 중 요청 수 비교).
+ * /health 주기 점검에 실패하거나 연속 실패가 eject-after 건을 넘은 인스턴스는 후보에서 뺀다
+ * (전부 빠지면 목록 전체를 후보로 되살려 502 판단은 호출부에 맡김).
+ */
+@Component
+public class UpstreamBalancer implements StatsSource, MeterBinder {
+
+    private static final Logger log = Logger.getLogger(UpstreamBalancer.class.getName());
+
+    @Value("${fastapi.chat:http://localhost:8000}")
+    private String[] urls;
+
+    @Value("${fastapi.balancer.health-timeout-ms:2000}")
+    private long healthTimeoutMs;
+
+    @Value("${fastapi.balancer.eject-after-failures:5}")
+    private int ejectAfterFailures;
+
+    @Value("${fastapi.balancer.eject-ms:30000}")
+    private long ejectMs;
+
+    private List<Instance> instances = List.of();
+    private HttpClient health;
+
+    /** upstream 인스턴스 1개. 선택/반납은 UpstreamBalancer 를 통해서만. */
+    public static final class Instance {
+        private final String baseUrl;
+        private final int hash;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private volatile long ejectedUntil;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder ejections = new LongAdder();
+
+        Instance(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.hash = baseUrl.hashCode();
+        }
+
+        public String url(String path) { return baseUrl + path; }
+
+        String baseUrl() { return baseUrl; }
+
+        boolean available(long now) { return healthy && ejectedUntil <= now; }
+    }
+
+    @PostConstruct
+    void init() {
+        List<Instance> list = new ArrayList<>();
+        for (String u : urls) {
+            String s = u.strip();
+            if (s.endsWith("/")) s = s.substring(0, s.length() - 1);
+            if (!s.isEmpty()) list.add(new Instance(s));
+        }
+        if (list.isEmpty()) throw new IllegalStateException("fastapi.chat 에 upstream 주소가 없습니다");
+        instances = List.copyOf(list);
+        // uvicorn 은 평문 h2c 업그레이드를 받지 않으므로 HTTP/1.1 고정 (업그레이드 헤더 왕복 없음)
+        health = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(healthTimeoutMs))
+                .build();
+    }
+
+    // === 선택 ===
+    /** affinity(세션 id 등)가 있으면 고정 라우팅, null 이면 P2C. 선택된 인스턴스는 반드시 반납한다. */
+    public Instance pick(String affinity) {
+        return pick(affinity, null);
+    }
+
+    /** exclude 를 뺀 후보에서 선택 (hedge 용, 다른 후보가 없으면 exclude 도 허용). */
+    public Instance pick(String affinity, Instance exclude) {
+        List<Instance> candidates = candidates();
+        if (exclude != null && candidates.size() > 1) {
+            candidates = new ArrayList<>(candidates);
+            candidates.remove(exclude);
+        }
+        Instance chosen;
+        if (candidates.size() == 1) {
+            chosen = candidates.get(0);
+        } else if (affinity != null) {
+            chosen = rendezvous(candidates, affinity);
+        } else {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            int a = rnd.nextInt(candidates.size());
+            int b = rnd.nextInt(candidates.size() - 1);
+            if (b >= a) b++;
+            Instance x = candidates.get(a), y = candidates.get(b);
+            chosen = x.outstanding.get() <= y.outstanding.get() ? x : y;
+        }
+        chosen.outstanding.incrementAndGet();
+        chosen.requests.increment();
+        return chosen;
+    }
+
+    public void success(Instance i) {
+        i.consecutiveFailures.set(0);
+        release(i);
+    }
+
+    public void failure(Instance i) {
+        i.failures.increment();
+        if (i.consecutiveFailures.incrementAndGet() >= ejectAfterFailures) {
+            i.consecutiveFailures.set(0);
+            i.ejectedUntil = System.currentTimeMillis() + ejectMs;
+            i.ejections.increment();
+            log.warning("upstream ejected for " + ejectMs + "ms: " + i.baseUrl);
+        }
+        release(i);
+    }
+
+    /** 결과를 반영하지 않고 진행 중 카운트만 반납 (클라이언트 중단 등). */
+    public void release(Instance i) {
+        i.outstanding.decrementAndGet();
+    }
+
+    private List<Instance> candidates() {
+        long now = System.currentTimeMillis();
+        List<Instance> all = instances;
+        List<Instance> out = new ArrayList<>(all.size());
+        for (Instance i : all) if (i.available(now)) out.add(i);
+        return out.isEmpty() ? all : out;
+    }
+
+    // 최고 점수 인스턴스 고정: 인스턴스가 빠져도 그 인스턴스의 세션만 재배치된다
+    private static Instance rendezvous(List<Instance> candidates, String affinity) {
+        int key = affinity.hashCode();
+        Instance best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (Instance i : candidates) {
+            long score = mix(((long) key << 32) ^ (i.hash & 0xFFFFFFFFL));
+            if (best == null || score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // === 능동 헬스체크: GET /health ===
+    @Scheduled(fixedDelayString = "${fastapi.balancer.health-interval-ms:5000}")
+    void checkHealth() {
+        if (instances.size() == 1) return; // 단일 인스턴스는 뺄 곳이 없음
+        for (Instance i : instances) {
+            boolean ok;
+            try {
+                HttpRequest req = HttpRequest.newBuilder(URI.create(i.url("/health")))
+                        .timeout(Duration.ofMillis(healthTimeoutMs))
+                        .GET()
+                        .build();
+                ok = health.send(req, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (i.healthy != ok) log.warning("upstream " + (ok ? "healthy" : "unhealthy") + ": " + i.baseUrl);
+            i.healthy = ok;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Instance i : instances) {
+            Gauge.builder("gateway.upstream.outstanding", i.outstanding, AtomicInteger::get)
+                    .tag("instance", i.baseUrl)
+                    .register(registry);
+            Gauge.builder("gateway.upstream.available", i, x -> x.available(System.currentTimeMillis()) ? 1 : 0)
+                    .tag("instance", i.baseUrl)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public String name() { return "balancer"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> m = new LinkedHashMap<>();
+        for (Instance i : instances) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("healthy", i.healthy);
+            s.put("ejected", i.ejectedUntil > now);
+            s.put("outstanding", i.outstanding.get());
+            s.put("requests", i.requests.sum());
+            s.put("failures", i.failures.sum());
+            s.put("ejections", i.ejections.sum());
+            m.put(i.baseUrl, s);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,132 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.HttpRoute;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FastAPI upstream 호출용 HTTP 클라이언트 구성.
+ * HttpURLConnection 대신 keep-alive 커넥션 풀(HttpClient 5)을 사용한다.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    @Value("${fastapi.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${fastapi.pool.max-per-route:100}")
+    private int maxPerRoute;
+
+    // uvicorn 기본 keep-alive(5s)보다 짧게 잡아 서버가 먼저 끊은 커넥션을 재사용하지 않도록 함
+    @Value("${fastapi.pool.keep-alive-seconds:4}")
+    private long keepAliveSeconds;
+
+    @Value("${fastapi.pool.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    @Value("${fastapi.pool.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${fastapi.pool.read-timeout-ms:180000}")
+    private long readTimeoutMs;
+
+    // 풀 고갈 시 커넥션 대기 상한 (무한 대기 방지)
+    @Value("${fastapi.pool.acquire-timeout-ms:3000}")
+    private long acquireTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public RestTemplate upstreamRestTemplate(CloseableHttpClient upstreamHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(upstreamHttpClient));
+    }
+
+    // === 풀 상태: leased/pending/available (전체 + route별) ===
+    @Bean
+    public StatsSource upstreamPoolStats(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new StatsSource() {
+            @Override public String name() { return "upstreamPool"; }
+
+            @Override public Map<String, Object> snapshot() {
+                Map<String, Object> out = toMap(upstreamConnectionManager.getTotalStats());
+                Map<String, Object> routes = new LinkedHashMap<>();
+                for (HttpRoute route : upstreamConnectionManager.getRoutes()) {
+                    routes.put(route.getTargetHost().toURI(), toMap(upstreamConnectionManager.getStats(route)));
+                }
+                out.put("routes", routes);
+                return out;
+            }
+        };
+    }
+
+    // === 풀 포화도 메트릭: leased/max 가 1 에 붙으면 acquire-timeout 대기가 시작됨 ===
+    @Bean
+    public MeterBinder upstreamPoolMetrics(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return registry -> {
+            Gauge.builder("gateway.upstream.pool.leased", upstreamConnectionManager, m -> m.getTotalStats().getLeased())
+                    .register(registry);
+            Gauge.builder("gateway.upstream.pool.pending", upstreamConnectionManager, m -> m.getTotalStats().getPending())
+                    .register(registry);
+            Gauge.builder("gateway.upstream.pool.available", upstreamConnectionManager, m -> m.getTotalStats().getAvailable())
+                    .register(registry);
+            Gauge.builder("gateway.upstream.pool.max", upstreamConnectionManager, m -> m.getTotalStats().getMax())
+                    .register(registry);
+        };
+    }
+
+    private static Map<String, Object> toMap(PoolStats s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("leased", s.getLeased());
+        m.put("pending", s.getPending());
+        m.put("available", s.getAvailable());
+        m.put("max", s.getMax());
+        return m;
+    }
+}
@@ -0,0 +1,313 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.GatewayMetrics;
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.trace.Span;
+import com.chatbot.yoo.chatbot.trace.Tracer;
+import org.apache.hc.client5.http.ConnectionRequestTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FastAPI 라우트별 서킷 브레이커 + 적응형 동시성 제한.
+ * 동시성 상한은 AIMD: 응답이 평소 지연(EWMA)의 tolerance 배 이내면 +1, 실패하면 ×backoff.
+ * 느린 응답은 상한의 절반 이상이 차 있을 때 시작한 호출만 감소 신호로 본다 (한가할 때 느린 건 대기열이 아니라 요청 종류 탓).
+ * 지연 분포가 크게 다른 호출은 라우트 이름을 나눠 따로 잰다 (예: /chat 의 뉴스 빠른 경로 = /chat#news).
+ * 상한 초과/서킷 OPEN 이면 대기하지 않고 즉시 거절(null) → 호출부가 기존 502 JSON 으로 응답한다.
+ * 브레이커는 최근 window 건 중 실패율이 failure-rate 이상이면 open-ms 동안 OPEN, 이후 probe 1건으로 복구 판단.
+ * 허용된 호출은 UpstreamBalancer 가 고른 인스턴스로 보내고, 결과는 양쪽과 GatewayMetrics 에 같이 반영한다.
+ * 요청 span 이 있으면 호출마다 "upstream <route>" 하위 span 을 열어 traceparent 로 전파한다.
+ */
+@Component
+public class UpstreamGuard implements StatsSource {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${fastapi.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fastapi.guard.limit.initial:${fastapi.pool.max-per-route:100}}")
+    private int initialLimit;
+
+    @Value("${fastapi.guard.limit.min:8}")
+    private int minLimit;
+
+    @Value("${fastapi.guard.limit.max:${fastapi.pool.max-per-route:100}}")
+    private int maxLimit;
+
+    @Value("${fastapi.guard.limit.tolerance:2.0}")
+    private double tolerance;
+
+    @Value("${fastapi.guard.limit.backoff:0.9}")
+    private double backoff;
+
+    @Value("${fastapi.guard.breaker.window:20}")
+    private int window;
+
+    @Value("${fastapi.guard.breaker.failure-rate:0.5}")
+    private double failureRate;
+
+    @Value("${fastapi.guard.breaker.open-ms:10000}")
+    private long openMs;
+
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+    private final UpstreamBalancer balancer;
+    private final GatewayMetrics metrics;
+    private final Tracer tracer;
+
+    public UpstreamGuard(UpstreamBalancer balancer, GatewayMetrics metrics, Tracer tracer) {
+        this.balancer = balancer;
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    public Permit acquire(String route) {
+        return acquire(route, null);
+    }
+
+    /** 허용되면 permit, 거절되면 null. affinity(세션 id)가 있으면 같은 인스턴스로 고정. permit 은 반드시 한 번 반납한다. */
+    public Permit acquire(String route, String affinity) {
+        return acquire(route, affinity, null);
+    }
+
+    // hedge 요청은 exclude(1차 요청 인스턴스)를 피해서 보냄
+    Permit acquire(String route, String affinity, UpstreamBalancer.Instance exclude) {
+        Route r = routes.computeIfAbsent(route, Route::new);
+        Permit p = enabled ? r.tryAcquire(affinity, exclude) : r.untracked(affinity, exclude);
+        Span span = tracer.startChild(tracer.current(), "upstream " + route);
+        if (p != null) p.span = span;
+        else if (span != null) tracer.end(span.tag("rejected", true));
+        return p;
+    }
+
+    /** upstream 호출 1건. 첫 반납만 반영되고 이후 호출은 무시 (finally 에서 ignore() 로 안전하게 정리). */
+    public final class Permit {
+        private final Route route;
+        private final boolean tracked;
+        private final long startNanos;
+        private final boolean probe;
+        private final int load;   // 시작 시점 진행 중 호출 수 (자신 포함)
+        private final UpstreamBalancer.Instance instance;
+        private Span span;
+        private boolean released;
+
+        private Permit(Route route, boolean tracked, long startNanos, boolean probe, int load, UpstreamBalancer.Instance instance) {
+            this.route = route;
+            this.tracked = tracked;
+            this.startNanos = startNanos;
+            this.probe = probe;
+            this.load = load;
+            this.instance = instance;
+        }
+
+        /** 선택된 인스턴스 기준 URL */
+        public String url(String path) { return instance.url(path); }
+
+        UpstreamBalancer.Instance instance() { return instance; }
+
+        /** upstream 요청에 실을 traceparent (추적 중이 아니면 null) */
+        public String traceparent() { return span != null ? span.traceparent() : null; }
+
+        /** upstream 응답의 Server-Timing(name;start=ms;dur=ms, ...)을 이 호출의 하위 span 으로 기록. */
+        public void serverTiming(String header) {
+            if (span == null || header == null || header.isBlank()) return;
+            for (String entry : header.split(",")) {
+                String[] parts = entry.split(";");
+                String name = parts[0].strip();
+                double start = 0, dur = -1;
+                for (int i = 1; i < parts.length; i++) {
+                    String kv = parts[i].strip();
+                    try {
+                        if (kv.startsWith("start=")) start = Double.parseDouble(kv.substring(6));
+                        else if (kv.startsWith("dur=")) dur = Double.parseDouble(kv.substring(4));
+                    } catch (NumberFormatException ignored) { }
+                }
+                if (!name.isEmpty() && dur >= 0) tracer.record(span, "fastapi " + name, start, dur);
+            }
+        }
+
+        public void success() { release(Outcome.SUCCESS, "2xx"); }
+
+        /** 접속 실패/타임아웃. 원인으로 timeout / pool_timeout / error 를 구분해 집계한다. */
+        public void failure(Throwable cause) { release(Outcome.FAILURE, failureStatus(cause)); }
+
+        /** 5xx 는 실패, 나머지(4xx 포함)는 upstream 이 정상 응답한 것으로 본다. */
+        public void complete(HttpStatusCode status) {
+            release(status.is5xxServerError() ? Outcome.FAILURE : Outcome.SUCCESS, GatewayMetrics.statusClass(status.value()));
+        }
+
+        /** 클라이언트 중단 등 upstream 상태와 무관한 종료: 자리만 반납. */
+        public void ignore() { release(Outcome.IGNORED, null); }
+
+        private void release(Outcome outcome, String status) {
+            if (released) return;
+            released = true;
+            long rtt = System.nanoTime() - startNanos;
+            switch (outcome) {
+                case SUCCESS -> balancer.success(instance);
+                case FAILURE -> balancer.failure(instance);
+                case IGNORED -> balancer.release(instance);
+            }
+            if (tracked) route.release(rtt, outcome, probe, load);
+            else route.untrackedDone();
+            metrics.upstream(route.name, rtt, outcome.tag, status);
+            if (span != null) {
+                tracer.end(span.tag("instance", instance.baseUrl()).tag("outcome", outcome.tag).tag("status", status));
+            }
+        }
+    }
+
+    private static String failureStatus(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof ConnectionRequestTimeoutException) return "pool_timeout";
+            if (t instanceof SocketTimeoutException || t instanceof HttpTimeoutException) return "timeout";
+        }
+        return "error";
+    }
+
+    private enum Outcome {
+        SUCCESS("success"), FAILURE("failure"), IGNORED("ignored");
+
+        final String tag;
+
+        Outcome(String tag) { this.tag = tag; }
+    }
+
+    // === 라우트별 상태 (인스턴스 락으로 직렬화) ===
+    private final class Route {
+        private final String name;
+        private double limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        private int inFlight;
+        private double longRttNanos;
+
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean probing;
+        private final boolean[] outcomes = new boolean[Math.max(1, window)];
+        private int next;
+        private int recorded;
+        private int failed;
+
+        private long rejectedLimit;
+        private long rejectedOpen;
+        private long failures;
+        private long opened;
+
+        Route(String name) {
+            this.name = name;
+            metrics.gauge("gateway.upstream.inflight", name, this, r -> r.inFlightNow());
+            metrics.gauge("gateway.upstream.limit", name, this, r -> r.limitNow());
+        }
+
+        // guard 비활성: 제한/브레이커 없이 인스턴스만 고르고 메트릭은 남김
+        Permit untracked(String affinity, UpstreamBalancer.Instance exclude) {
+            synchronized (this) { inFlight++; }
+            return new Permit(this, false, System.nanoTime(), false, 0, balancer.pick(affinity, exclude));
+        }
+
+        synchronized void untrackedDone() { inFlight--; }
+
+        synchronized int inFlightNow() { return inFlight; }
+
+        synchronized double limitNow() { return enabled ? limit : Double.NaN; }
+
+        synchronized Permit tryAcquire(String affinity, UpstreamBalancer.Instance exclude) {
+            long now = System.nanoTime();
+            boolean probe = false;
+            if (state == State.OPEN) {
+                if (now - openedAt < openMs * 1_000_000) {
+                    rejectedOpen++;
+                    return null;
+                }
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    rejectedOpen++;
+                    return null;
+                }
+                probing = probe = true;
+            } else if (inFlight >= (int) limit) {
+                rejectedLimit++;
+                return null;
+            }
+            inFlight++;
+            return new Permit(this, true, now, probe, inFlight, balancer.pick(affinity, exclude));
+        }
+
+        synchronized void release(long rttNanos, Outcome outcome, boolean probe, int load) {
+            inFlight--;
+            if (probe) probing = false;
+            if (outcome == Outcome.IGNORED) return;
+            boolean fail = outcome == Outcome.FAILURE;
+            if (fail) failures++;
+
+            // 동시성 상한: 실패 또는 붐빌 때 느려짐 → 곱셈 감소, 정상 → 덧셈 증가
+            boolean slow = longRttNanos > 0 && rttNanos > longRttNanos * tolerance;
+            boolean queued = slow && load * 2 >= limit;
+            if (fail || queued) limit = Math.max(minLimit, limit * backoff);
+            else if (!slow) limit = Math.min(maxLimit, limit + 1);
+            if (!fail) longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * 0.95 + rttNanos * 0.05;
+
+            // 브레이커
+            if (state == State.HALF_OPEN) {
+                if (!probe) return;
+                if (fail) open();
+                else reset(State.CLOSED);
+                return;
+            }
+            if (state == State.OPEN) return;
+            if (recorded == outcomes.length && outcomes[next]) failed--;
+            outcomes[next] = fail;
+            if (fail) failed++;
+            next = (next + 1) % outcomes.length;
+            if (recorded < outcomes.length) recorded++;
+            if (recorded == outcomes.length && failed >= failureRate * recorded) open();
+        }
+
+        private void open() {
+            reset(State.OPEN);
+            openedAt = System.nanoTime();
+            opened++;
+        }
+
+        private void reset(State to) {
+            state = to;
+            next = recorded = failed = 0;
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("state", state.name());
+            m.put("limit", (int) limit);
+            m.put("inFlight", inFlight);
+            m.put("avgRttMs", Math.round(longRttNanos / 1_000_000));
+            m.put("rejectedLimit", rejectedLimit);
+            m.put("rejectedOpen", rejectedOpen);
+            m.put("failures", failures);
+            m.put("opened", opened);
+            return m;
+        }
+    }
+
+    @Override
+    public String name() { return "guard"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        Map<String, Object> perRoute = new TreeMap<>();
+        routes.forEach((k, r) -> perRoute.put(k, r.snapshot()));
+        m.put("routes", perRoute);
+        return m;
+    }
+}
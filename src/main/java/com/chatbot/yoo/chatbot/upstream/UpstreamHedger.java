@@ -0,0 +1,285 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.StatsSource;
+import com.chatbot.yoo.chatbot.trace.TraceFilter;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 멱등 upstream 호출의 hedged request (opt-in: fastapi.hedge.enabled).
+ * 1차 요청이 라우트별 최근 지연의 percentile 안에 응답 헤더를 못 받으면 다른 인스턴스로 같은 요청을 한 번 더 보내고,
+ * 먼저 응답한 쪽을 쓰고 나머지는 연결째 취소한다.
+ * hedge 는 토큰 버킷(1차 요청마다 budget-percent/100 적립, hedge 1건에 1 소모)으로 전체 부하의 X% 이내로 묶는다.
+ */
+@Component
+public class UpstreamHedger implements StatsSource {
+
+    // 지연 분포가 이 정도 쌓이기 전에는 hedge 하지 않음
+    private static final int MIN_SAMPLES = 32;
+    private static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    @Value("${fastapi.hedge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fastapi.hedge.percentile:0.95}")
+    private double percentile;
+
+    @Value("${fastapi.hedge.min-delay-ms:20}")
+    private long minDelayMs;
+
+    @Value("${fastapi.hedge.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${fastapi.hedge.burst:5}")
+    private double burst;
+
+    private final CloseableHttpClient http;
+    private final UpstreamGuard guard;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    private double tokens;
+    private final LongAdder primaries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+
+    public UpstreamHedger(CloseableHttpClient upstreamHttpClient, UpstreamGuard guard) {
+        this.http = upstreamHttpClient;
+        this.guard = guard;
+    }
+
+    public boolean enabled() { return enabled; }
+
+    /** 먼저 응답 헤더가 도착한 쪽. 본문을 다 읽은 뒤 permit 결과를 반영하고 close 한다. */
+    public static final class Winner implements Closeable {
+        private final ClassicHttpResponse response;
+        private final UpstreamGuard.Permit permit;
+
+        private Winner(ClassicHttpResponse response, UpstreamGuard.Permit permit) {
+            this.response = response;
+            this.permit = permit;
+        }
+
+        public int status() { return response.getCode(); }
+
+        public String header(String name) {
+            Header h = response.getFirstHeader(name);
+            return h != null ? h.getValue() : null;
+        }
+
+        public long contentLength() {
+            return response.getEntity() != null ? response.getEntity().getContentLength() : -1;
+        }
+
+        public InputStream body() throws IOException {
+            return response.getEntity() != null ? response.getEntity().getContent() : InputStream.nullInputStream();
+        }
+
+        public UpstreamGuard.Permit permit() { return permit; }
+
+        @Override
+        public void close() throws IOException {
+            permit.ignore(); // 결과를 반영하지 않았으면 자리만 반납
+            response.close();
+        }
+    }
+
+    // === hedged POST (JSON 바디) ===
+    /** guard 가 1차 요청을 거절하면 null. 두 요청이 모두 실패하면 마지막 IOException. */
+    public Winner post(String route, String path, byte[] json, String accept) throws IOException {
+        Attempt primary = start(route, path, json, accept, null);
+        if (primary == null) return null;
+        primaries.increment();
+        addTokens();
+        Route r = routes.computeIfAbsent(route, k -> new Route());
+
+        long delay = r.delayMs();
+        if (delay >= 0) {
+            try {
+                return winner(primary, primary.future.get(delay, TimeUnit.MILLISECONDS));
+            } catch (TimeoutException e) {
+                // 느린 1차 요청 → hedge 후보
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted", e);
+            }
+        }
+
+        Attempt backup = delay >= 0 && takeToken() ? start(route, path, json, accept, primary.permit.instance()) : null;
+        if (backup == null) return winner(primary, await(primary.future));
+        hedges.increment();
+
+        // 먼저 성공한 쪽이 승자, 둘 다 실패하면 나중 예외
+        CompletableFuture<Attempt> first = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (Attempt a : new Attempt[]{primary, backup}) {
+            a.future.whenComplete((res, err) -> {
+                if (err == null) first.complete(a);
+                else if (failed.incrementAndGet() == 2) first.completeExceptionally(err);
+            });
+        }
+        Attempt win = await(first);
+        Attempt lose = win == primary ? backup : primary;
+        discard(lose);
+        if (win == backup) hedgeWins.increment();
+        return winner(win, win.future.join());
+    }
+
+    // === 시도 1건 ===
+    private final class Attempt {
+        final HttpPost request;
+        final UpstreamGuard.Permit permit;
+        final CompletableFuture<ClassicHttpResponse> future = new CompletableFuture<>();
+        volatile boolean lost;
+
+        Attempt(HttpPost request, UpstreamGuard.Permit permit) {
+            this.request = request;
+            this.permit = permit;
+        }
+    }
+
+    private Attempt start(String route, String path, byte[] json, String accept, UpstreamBalancer.Instance exclude) {
+        UpstreamGuard.Permit permit = guard.acquire(route, null, exclude);
+        if (permit == null) return null;
+        HttpPost post = new HttpPost(permit.url(path));
+        post.setEntity(new ByteArrayEntity(json, ContentType.APPLICATION_JSON));
+        post.setHeader(HttpHeaders.ACCEPT, accept);
+        if (permit.traceparent() != null) post.setHeader(TraceFilter.TRACEPARENT, permit.traceparent());
+        Attempt a = new Attempt(post, permit);
+        long t0 = System.nanoTime();
+        boolean isPrimary = exclude == null;
+        executor.execute(() -> {
+            try {
+                ClassicHttpResponse res = http.executeOpen(null, post, null);
+                if (isPrimary) routes.computeIfAbsent(route, k -> new Route()).record((System.nanoTime() - t0) / 1_000_000);
+                a.future.complete(res);
+            } catch (IOException | RuntimeException e) {
+                // 취소당한 쪽은 실패로 세지 않음
+                if (a.lost) permit.ignore();
+                else permit.failure(e);
+                a.future.completeExceptionally(e);
+            }
+        });
+        return a;
+    }
+
+    private void discard(Attempt lose) {
+        lose.lost = true;
+        lose.request.cancel();
+        lose.future.whenComplete((res, err) -> {
+            if (res == null) return;
+            lose.permit.ignore();
+            try { res.close(); } catch (IOException ignored) { }
+        });
+    }
+
+    private static Winner winner(Attempt a, ClassicHttpResponse res) {
+        return new Winner(res, a.permit);
+    }
+
+    private static <T> T await(CompletableFuture<T> f) throws IOException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable c = e.getCause();
+        if (c instanceof IOException io) return io;
+        if (c instanceof RuntimeException re) throw re;
+        return new IOException(c);
+    }
+
+    // === hedge 예산 (토큰 버킷) ===
+    private synchronized void addTokens() {
+        tokens = Math.min(burst, tokens + budgetPercent / 100.0);
+    }
+
+    private synchronized boolean takeToken() {
+        if (tokens < 1) {
+            budgetDenied.increment();
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    // === 라우트별 최근 지연(1차 요청 헤더 도착까지) 분포 ===
+    private final class Route {
+        private final long[] samples = new long[WINDOW];
+        private int next;
+        private int count;
+        private volatile long delayMs = -1;
+
+        synchronized void record(long ms) {
+            samples[next] = ms;
+            next = (next + 1) % WINDOW;
+            if (count < WINDOW) count++;
+            if (count >= MIN_SAMPLES && next % RECOMPUTE_EVERY == 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int idx = Math.min(count - 1, Math.max(0, (int) Math.ceil(percentile * count) - 1));
+                delayMs = Math.max(minDelayMs, sorted[idx]);
+            }
+        }
+
+        /** -1 이면 아직 hedge 하지 않음 */
+        long delayMs() { return delayMs; }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String name() { return "hedging"; }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("primaries", primaries.sum());
+        m.put("hedges", hedges.sum());
+        m.put("hedgeWins", hedgeWins.sum());
+        m.put("budgetDenied", budgetDenied.sum());
+        Map<String, Object> delays = new TreeMap<>();
+        routes.forEach((k, r) -> delays.put(k, r.delayMs()));
+        m.put("delayMs", delays);
+        return m;
+    }
+}
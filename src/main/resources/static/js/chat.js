@@ -2,8 +2,11 @@
 const APP_NAME  = "AI 경제질문 챗봇";
 const APP_NAME_US = "AI Economy Q&A Chatbot";
 const CHAT_URL  = "/api/chat";
+const CHAT_STREAM_URL = "/api/chat/stream";
+const CHAT_STREAM = true;  // SSE 스트리밍 사용 (실패 시 CHAT_URL로 폴백)
 const RESET_URL = "/api/reset";
 const STT_URL   = "/api/stt";
+const STT_STREAM_URL = "/api/stt/stream";  // Web Speech API 가 없을 때: 게이트웨이 스트리밍 STT (WebSocket)
 const TTS_URL   = "/api/tts";
 const TIMEOUT_MS = 180000;
 
@@ -100,6 +103,10 @@ function bubbleTyping() {
 
   return id; // 나중에 제거할 때 ID로 접근 가능
 }
+// W3C traceparent: 요청마다 새 trace 시작 → 게이트웨이(X-Trace-Id)/FastAPI 구간을 /api/gateway/traces 에서 확인
+const randomHex = (bytes)=> Array.from(crypto.getRandomValues(new Uint8Array(bytes)), b=>b.toString(16).padStart(2,"0")).join("");
+const traceparent = ()=> `00-${randomHex(16)}-${randomHex(8)}-01`;
+
 function removeEl(id){ const el=document.getElementById(id); if(el) el.remove(); }
 
 // i18n 적용
@@ -134,13 +141,18 @@ function sendQuestion(q){
   const typingId = bubbleTyping();
 
   (async ()=>{
+    if (CHAT_STREAM) {
+      try{
+        if (await streamQuestion(text, typingId)) { sendBtn.disabled = false; return; }
+      }catch{ /* 스트리밍 실패 → 일반 요청으로 폴백 */ }
+    }
     try{
       const ctrl = new AbortController();
       const to = setTimeout(()=>ctrl.abort("timeout"), TIMEOUT_MS);
 
       const res = await fetch(CHAT_URL, {
         method:"POST",
-        headers: {"Content-Type":"application/json"},
+        headers: {"Content-Type":"application/json", "traceparent": traceparent()},
         body: JSON.stringify({ message: text, lang: LANG }),
         signal: ctrl.signal
       });
@@ -159,6 +171,60 @@ function sendQuestion(q){
   })();
 }
 
+// SSE 스트리밍: 첫 delta부터 말풍선에 바로 표시. 아무 것도 못 받았으면 false
+async function streamQuestion(text, typingId){
+  const ctrl = new AbortController();
+  const to = setTimeout(()=>ctrl.abort("timeout"), TIMEOUT_MS);
+  try{
+    const res = await fetch(CHAT_STREAM_URL, {
+      method:"POST",
+      headers: {"Content-Type":"application/json", "Accept":"text/event-stream", "traceparent": traceparent()},
+      body: JSON.stringify({ message: text, lang: LANG }),
+      signal: ctrl.signal
+    });
+    if(!res.ok || !res.body) return false;
+
+    const reader = res.body.getReader();
+    const decoder = new TextDecoder();
+    let buf = "", answer = "", el = null;
+    for(;;){
+      const { value, done } = await reader.read();
+      if (done) break;
+      buf += decoder.decode(value, { stream: true });
+      let idx;
+      while ((idx = buf.indexOf("\n\n")) >= 0) {
+        const frame = buf.slice(0, idx); buf = buf.slice(idx + 2);
+        let event = "message", data = "";
+        frame.split("\n").forEach(line=>{
+          if (line.startsWith("event:")) event = line.slice(6).trim();
+          else if (line.startsWith("data:")) data += line.slice(5).trim();
+        });
+        if (!data) continue;
+        const payload = JSON.parse(data);
+        if (event === "error") {
+          if (!el) return false;
+          answer += "\n" + (payload.error || "");
+        } else if (payload.delta) {
+          answer += payload.delta;
+        } else {
+          continue;
+        }
+        if (!el) {
+          removeEl(typingId);
+          bubbleAI("");
+          el = [...chatEl.querySelectorAll(".bot-message .message-content")].pop();
+        }
+        el.innerHTML = mdSafe(answer);
+        el.setAttribute("data-tts", answer);
+        scrollToBottom();
+      }
+    }
+    return !!el;
+  } finally {
+    clearTimeout(to);
+  }
+}
+
 function bindFAQ(){
   document.querySelectorAll(".faq-item").forEach(btn=>{
     btn.addEventListener("click", ()=>{
@@ -197,7 +263,7 @@ formEl?.addEventListener("submit", (e)=>{
 resetBtn?.addEventListener("click", async ()=>{
   resetBtn.disabled = true;
   try{
-    await fetch(RESET_URL, { method:"POST" });
+    await fetch(RESET_URL, { method:"POST", headers: {"traceparent": traceparent()} });
     localStorage.removeItem("chat_messages");
     renderWelcome();
     bubbleStatus(I18N[LANG].cleared);
@@ -230,18 +296,16 @@ function makeRecognition(){
 async function startSTT(){
   if (recogRunning) return;
 
-  if (!isSpeechAPIAvailable()) {
-    bubbleAI(LANG.startsWith('ko')
-      ? '이 브라우저는 실시간 음성인식(Web Speech API)을 지원하지 않습니다. 크롬(HTTPS/localhost)에서 시도해 주세요.'
-      : 'This browser does not support the Web Speech API. Try Chrome (HTTPS/localhost).');
-    return;
-  }
   if (!window.isSecureContext) {
     bubbleAI(LANG.startsWith('ko')
       ? '마이크는 HTTPS(또는 localhost)에서만 동작합니다.'
       : 'Microphone requires HTTPS (or localhost).');
     return;
   }
+  if (!isSpeechAPIAvailable()) {
+    // Web Speech API 미지원 브라우저 → 게이트웨이 스트리밍 STT
+    return startStreamSTT();
+  }
 
   // 준비
   recognition = makeRecognition();
@@ -297,7 +361,82 @@ async function startSTT(){
   }
 }
 
+// ---- 스트리밍 STT: 마이크 PCM 을 WebSocket 으로 계속 보내고 partial/final 을 받아 입력창에 반영 ----
+let sttSocket = null;
+let sttAudio = null;            // { ctx, stream, proc }
+
+function composeInput(interim){
+  inputEl.value = (baseBeforeRec ? baseBeforeRec + " " : "") + (finalSoFar + interim).trim();
+  try { inputEl.setSelectionRange(inputEl.value.length, inputEl.value.length); } catch {}
+}
+
+function stopStreamAudio(){
+  if (!sttAudio) return;
+  try { sttAudio.proc.disconnect(); } catch {}
+  sttAudio.stream.getTracks().forEach(t => t.stop());
+  sttAudio.ctx.close().catch(()=>{});
+  sttAudio = null;
+}
+
+async function startStreamSTT(){
+  let stream;
+  try {
+    stream = await navigator.mediaDevices.getUserMedia({ audio: { channelCount: 1, echoCancellation: true, noiseSuppression: true } });
+  } catch (err) {
+    bubbleAI('마이크 사용 불가: ' + (err?.message || err));
+    return;
+  }
+  const ctx = new AudioContext();
+  const proto = location.protocol === "https:" ? "wss:" : "ws:";
+  const ws = new WebSocket(`${proto}//${location.host}${STT_STREAM_URL}?lang=${encodeURIComponent(LANG)}&rate=${ctx.sampleRate}`);
+  ws.binaryType = "arraybuffer";
+  sttSocket = ws;
+  baseBeforeRec = inputEl.value;
+  finalSoFar = "";
+
+  // 2048 샘플(48kHz 기준 ~43ms)마다 16bit PCM 으로 변환해 전송
+  const proc = ctx.createScriptProcessor(2048, 1, 1);
+  proc.onaudioprocess = (e)=>{
+    if (ws.readyState !== WebSocket.OPEN) return;
+    const f = e.inputBuffer.getChannelData(0);
+    const pcm = new Int16Array(f.length);
+    for (let i = 0; i < f.length; i++) pcm[i] = Math.max(-1, Math.min(1, f[i])) * 0x7fff;
+    ws.send(pcm.buffer);
+  };
+  ctx.createMediaStreamSource(stream).connect(proc);
+  proc.connect(ctx.destination);
+  sttAudio = { ctx, stream, proc };
+
+  ws.onopen = ()=>{
+    recogRunning = true;
+    sttStartBtn.disabled = true;
+    sttStopBtn.disabled  = false;
+    bubbleStatus(I18N[LANG].sttStart);
+  };
+  ws.onmessage = (e)=>{
+    const m = JSON.parse(e.data);
+    if (m.type === "partial") composeInput(" " + m.text);
+    else if (m.type === "final") { if (m.text) finalSoFar += (finalSoFar ? " " : "") + m.text; composeInput(""); }
+    else if (m.type === "error") bubbleAI('음성 인식 오류: ' + m.error);
+  };
+  ws.onclose = ()=>{
+    stopStreamAudio();
+    sttSocket = null;
+    recogRunning = false;
+    sttStartBtn.disabled = false;
+    sttStopBtn.disabled  = true;
+    bubbleStatus(I18N[LANG].sttDone);
+  };
+}
+
 function stopSTT(){
+  if (sttSocket) {
+    // 마이크는 바로 끄고, 서버가 마지막 발화 결과를 보낸 뒤 소켓을 닫음
+    stopStreamAudio();
+    if (sttSocket.readyState === WebSocket.OPEN) sttSocket.send("end");
+    else sttSocket.close();
+    return;
+  }
   try {
     if (recognition && recogRunning) {
       recognition.stop(); // onend에서 버튼/상태 정리
@@ -311,32 +450,50 @@ sttStartBtn?.addEventListener('click', startSTT);
 sttStopBtn?.addEventListener('click', stopSTT);
 
 // ========== 7) TTS: 버튼/말풍선 ==========
-ttsBtn?.addEventListener("click", async ()=>{
-  const last = [...document.querySelectorAll(".bot-message .message-content")].pop();
-  if (!last) return;
-  const text = last.getAttribute("data-tts") || last.innerText || "";
-  if (!text.trim()) return;
-  try{
-    const res = await fetch(TTS_URL, {
-      method:"POST",
-      headers:{"Content-Type":"application/json"},
-      body: JSON.stringify({
-        text: text.slice(0,2000), lang: LANG,
-        voice: LANG.startsWith("ko") ? "ko-KR-Neural2-B" : "en-US-Neural2-C",
-        fmt: "MP3", rate: 1.0, pitch: 0.0
-      })
-    });
-    const ct = (res.headers.get("content-type")||"").toLowerCase();
+// 같은 요청은 ETag 로 재검증 → 304면 이전 오디오 재사용 (게이트웨이 TtsCache)
+const ttsPlayed = new Map();  // payload JSON → { etag, url }
+
+async function playTts(text){
+  const payload = JSON.stringify({
+    text: text.slice(0, 2000),
+    lang: LANG,
+    voice: LANG.startsWith("ko") ? "ko-KR-Neural2-B" : "en-US-Neural2-C",
+    fmt: "MP3",
+    rate: 1.0,
+    pitch: 0.0
+  });
+  const prev = ttsPlayed.get(payload);
+  const headers = { "Content-Type": "application/json", "traceparent": traceparent() };
+  if (prev?.etag) headers["If-None-Match"] = prev.etag;
+
+  const res = await fetch(TTS_URL, { method: "POST", headers, body: payload });
+  let url = null;
+  if (res.status === 304 && prev) {
+    url = prev.url;
+  } else {
+    const ct = (res.headers.get("content-type") || "").toLowerCase();
     if(res.ok && ct.includes("audio")){
       const blob = await res.blob();
-      const url = URL.createObjectURL(blob);
-      if (ttsAudio){ ttsAudio.src = url; await ttsAudio.play(); }
-      else { new Audio(url).play(); }
+      url = URL.createObjectURL(blob);
+      if (prev) URL.revokeObjectURL(prev.url);
+      ttsPlayed.set(payload, { etag: res.headers.get("etag"), url });
     } else {
       const txt = await res.text().catch(()=> "");
       bubbleAI("TTS 오류: " + (txt || `HTTP ${res.status}`));
+      return;
     }
-  }catch(err){ bubbleAI("TTS 호출 실패: " + (err?.message || err)); }
+  }
+  if (ttsAudio) { ttsAudio.src = url; await ttsAudio.play(); }
+  else { new Audio(url).play(); }
+}
+
+ttsBtn?.addEventListener("click", async ()=>{
+  const last = [...document.querySelectorAll(".bot-message .message-content")].pop();
+  if (!last) return;
+  const text = last.getAttribute("data-tts") || last.innerText || "";
+  if (!text.trim()) return;
+  try{ await playTts(text); }
+  catch(err){ bubbleAI("TTS 호출 실패: " + (err?.message || err)); }
 });
 
 chatEl.addEventListener("click", async (e)=>{
@@ -344,31 +501,6 @@ chatEl.addEventListener("click", async (e)=>{
   if (!msg) return;
   const text = msg.getAttribute("data-tts") || msg.innerText || msg.textContent || "";
   if (!text.trim()) return;
-
-  try {
-    const res = await fetch(TTS_URL, {
-      method: "POST",
-      headers: { "Content-Type": "application/json" },
-      body: JSON.stringify({
-        text: text.slice(0, 2000),
-        lang: LANG,
-        voice: LANG.startsWith("ko") ? "ko-KR-Neural2-B" : "en-US-Neural2-C",
-        fmt: "MP3",
-        rate: 1.0,
-        pitch: 0.0
-      })
-    });
-    const ct = (res.headers.get("content-type") || "").toLowerCase();
-    if(res.ok && ct.includes("audio")){
-      const blob = await res.blob();
-      const url  = URL.createObjectURL(blob);
-      if (ttsAudio) { ttsAudio.src = url; await ttsAudio.play(); }
-      else { new Audio(url).play(); }
-    } else {
-      const txt = await res.text().catch(()=> "");
-      bubbleAI("TTS 오류: " + (txt || `HTTP ${res.status}`));
-    }
-  } catch (err) {
-    bubbleAI("TTS 호출 실패: " + (err?.message || err));
-  }
+  try { await playTts(text); }
+  catch (err) { bubbleAI("TTS 호출 실패: " + (err?.message || err)); }
 });
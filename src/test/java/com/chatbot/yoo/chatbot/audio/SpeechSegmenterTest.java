@@ -0,0 +1,88 @@
+package com.chatbot.yoo.chatbot.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechSegmenterTest {
+
+	private static final int RATE = WavPreprocessor.TARGET_RATE;
+
+	private final List<String> events = new ArrayList<>();
+	private final List<short[]> utterances = new ArrayList<>();
+
+	private final SpeechSegmenter segmenter = new SpeechSegmenter(
+			new SpeechSegmenter.Config(-50, 300, 200, 400, 15_000),
+			new SpeechSegmenter.Listener() {
+				@Override
+				public void speechStart(int seq) { events.add("start" + seq); }
+
+				@Override
+				public void partial(int seq, short[] pcm) { events.add("partial" + seq); }
+
+				@Override
+				public void utterance(int seq, short[] pcm) {
+					events.add("final" + seq);
+					utterances.add(pcm);
+				}
+			});
+
+	@Test
+	void cutsUtterancesOnSilenceWithPreRoll() {
+		feed(0, 1.0);
+		feed(0.3, 1.0);     // 발화 1: 1s → 400ms 마다 partial
+		feed(0, 0.5);
+		feed(0.3, 0.5);     // 발화 2: 0.5s → partial 1번
+		feed(0, 0.5);
+
+		assertEquals(List.of("start1", "partial1", "partial1", "final1", "start2", "partial2", "final2"), events);
+		// 음성 + 앞(pre-roll) 200ms + 뒤 200ms (10ms 프레임 오차 허용)
+		assertTrue(Math.abs(utterances.get(0).length - RATE * 1.4) <= RATE / 50, "len " + utterances.get(0).length);
+		assertTrue(Math.abs(utterances.get(1).length - RATE * 0.9) <= RATE / 50, "len " + utterances.get(1).length);
+	}
+
+	@Test
+	void flushEndsSpeechInProgress() {
+		feed(0, 0.2);
+		feed(0.3, 0.3);
+		assertTrue(segmenter.speaking());
+		segmenter.flush();
+
+		assertEquals(List.of("start1", "final1"), events);
+		assertTrue(!segmenter.speaking());
+		segmenter.flush();
+		assertEquals(1, utterances.size());
+	}
+
+	@Test
+	void longSpeechIsCutAtMaxSegment() {
+		SpeechSegmenter short3s = new SpeechSegmenter(new SpeechSegmenter.Config(-50, 300, 0, 60_000, 3_000),
+				new SpeechSegmenter.Listener() {
+					@Override
+					public void speechStart(int seq) { }
+
+					@Override
+					public void partial(int seq, short[] pcm) { }
+
+					@Override
+					public void utterance(int seq, short[] pcm) { utterances.add(pcm); }
+				});
+		for (int i = 0; i < RATE * 7; i++) short3s.accept((float) (0.3 * Math.sin(2 * Math.PI * 300 * i / RATE)));
+
+		assertEquals(2, utterances.size());
+		assertTrue(utterances.get(0).length <= RATE * 3);
+	}
+
+	// amp 진폭 300Hz 사인파 (0 이면 약한 잡음)
+	private void feed(double amp, double seconds) {
+		int n = (int) (RATE * seconds);
+		for (int i = 0; i < n; i++) {
+			double s = amp > 0 ? amp * Math.sin(2 * Math.PI * 300 * i / RATE) : 0.0005 * ((i * 7919) % 17 - 8) / 8.0;
+			segmenter.accept((float) s);
+		}
+	}
+}
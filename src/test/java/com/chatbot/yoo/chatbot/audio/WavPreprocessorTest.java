@@ -0,0 +1,85 @@
+package com.chatbot.yoo.chatbot.audio;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavPreprocessorTest {
+
+	@Test
+	void downmixesResamplesAndTrimsSilence() throws IOException {
+		// 44.1kHz stereo: 무음 1s + 440Hz 1s + 무음 1s
+		byte[] wav = stereoWav(44_100, 1.0, 1.0, 1.0);
+		WavPreprocessor.Result r = newPreprocessor().process(new ByteArrayInputStream(wav), wav.length);
+
+		ByteBuffer out = ByteBuffer.wrap(r.wav()).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(1, out.getShort(22));                     // mono
+		assertEquals(WavPreprocessor.TARGET_RATE, out.getInt(24));
+		assertEquals(16, out.getShort(34));
+		assertEquals(r.wav().length - 44, out.getInt(40));
+		// 음성 1s + 앞뒤 여유 150ms 씩 (프레임 경계 오차 허용)
+		assertTrue(r.durationMs() >= 1_250 && r.durationMs() <= 1_350, "duration " + r.durationMs());
+		assertTrue(r.wav().length < wav.length / 10, "compact output");
+
+		// 톤 구간 진폭 유지 (리샘플 필터 통과 대역)
+		int peak = 0;
+		for (int i = 44; i < r.wav().length; i += 2) peak = Math.max(peak, Math.abs(out.getShort(i)));
+		assertTrue(peak > 0.45 * 32767 && peak < 0.55 * 32767, "peak " + peak);
+	}
+
+	@Test
+	void returnsNullForNonPcmInput() throws IOException {
+		byte[] webm = {0x1A, 0x45, (byte) 0xDF, (byte) 0xA3, 0, 0, 0, 0, 0, 0, 0, 0};
+		assertNull(newPreprocessor().process(new ByteArrayInputStream(webm), webm.length));
+	}
+
+	@Test
+	void rejectsOutOfRangeHeaders() throws IOException {
+		// 65535 채널 x 32bit (블록 버퍼 ~1GiB), 1Hz (16000배 업샘플), 200kHz
+		for (byte[] wav : new byte[][]{header(65535, 16_000, 32), header(1, 1, 16), header(2, 200_000, 16)}) {
+			assertNull(newPreprocessor().process(new ByteArrayInputStream(wav), wav.length));
+		}
+	}
+
+	private static WavPreprocessor newPreprocessor() {
+		WavPreprocessor p = new WavPreprocessor();
+		ReflectionTestUtils.setField(p, "enabled", true);
+		ReflectionTestUtils.setField(p, "silenceDbfs", -45.0);
+		ReflectionTestUtils.setField(p, "padMs", 150);
+		return p;
+	}
+
+	// 헤더 + 빈 data 청크 (크기 필드만 크게)
+	private static byte[] header(int channels, int rate, int bits) {
+		ByteBuffer b = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+		b.put("RIFF".getBytes()).putInt(36).put("WAVE".getBytes());
+		b.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) channels)
+				.putInt(rate).putInt(rate * channels * bits / 8).putShort((short) (channels * bits / 8)).putShort((short) bits);
+		b.put("data".getBytes()).putInt(Integer.MAX_VALUE);
+		return b.array();
+	}
+
+	// 16bit PCM, 양 채널 같은 0.5 진폭 사인파
+	private static byte[] stereoWav(int rate, double leadSec, double toneSec, double tailSec) {
+		int frames = (int) (rate * (leadSec + toneSec + tailSec));
+		int toneFrom = (int) (rate * leadSec), toneTo = (int) (rate * (leadSec + toneSec));
+		ByteBuffer b = ByteBuffer.allocate(44 + frames * 4).order(ByteOrder.LITTLE_ENDIAN);
+		b.put("RIFF".getBytes()).putInt(36 + frames * 4).put("WAVE".getBytes());
+		b.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 2)
+				.putInt(rate).putInt(rate * 4).putShort((short) 4).putShort((short) 16);
+		b.put("data".getBytes()).putInt(frames * 4);
+		for (int i = 0; i < frames; i++) {
+			short s = i >= toneFrom && i < toneTo ? (short) (0.5 * 32767 * Math.sin(2 * Math.PI * 440 * i / rate)) : 0;
+			b.putShort(s).putShort(s);
+		}
+		return b.array();
+	}
+}
@@ -0,0 +1,118 @@
+package com.chatbot.yoo.chatbot.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void picksTtlByQuestionType() {
+		AnswerCache cache = newCache("global", 100);
+		assertEquals(60L, cache.ttlOf(AnswerCache.normalize("오늘 경제 뉴스 알려줘")));
+		assertEquals(30L, cache.ttlOf(AnswerCache.normalize("KOSPI 지금 얼마야?")));
+		assertEquals(3600L, cache.ttlOf(AnswerCache.normalize("소비자물가 CPI")));
+		assertEquals(600L, cache.ttlOf(AnswerCache.normalize("안녕")));
+		assertEquals("kospi 지금 얼마야", AnswerCache.normalize("  ＫＯＳＰＩ   지금 얼마야?! "));
+	}
+
+	@Test
+	void cacheableHasNoSideEffectsAndBypassCountsOnce() {
+		AnswerCache cache = newCache("global", 100);
+		assertTrue(cache.cacheable(Map.of("message", "안녕")));
+		assertFalse(cache.cacheable(Map.of("message", "안녕", "history", List.of(Map.of("role", "user")))));
+		assertFalse(cache.cacheable(Map.of("message", "안녕", "session_id", "s1")));
+		assertFalse(cache.cacheable(Map.of("message", "  ")));
+		assertEquals(0L, cache.snapshot().get("bypassed"));
+
+		cache.bypass();
+		assertEquals(1L, cache.snapshot().get("bypassed"));
+
+		AnswerCache disabled = newCache("global", 100);
+		ReflectionTestUtils.setField(disabled, "enabled", false);
+		assertFalse(disabled.cacheable(Map.of("message", "안녕")));
+		disabled.bypass();
+		assertEquals(0L, disabled.snapshot().get("bypassed"));
+	}
+
+	@Test
+	void clientScopeKeepsAnswersPerClient() {
+		AnswerCache global = newCache("global", 100);
+		assertEquals("MISS", header(global.getOrLoad(body("안녕"), "10.0.0.1", loader("a"))));
+		assertEquals("HIT", header(global.getOrLoad(body("안녕?"), "10.0.0.2", loader("b"))));
+		assertEquals(1, loads.get());
+
+		loads.set(0);
+		AnswerCache perClient = newCache("client", 100);
+		perClient.getOrLoad(body("안녕"), "10.0.0.1", loader("a"));
+		ResponseEntity<String> other = perClient.getOrLoad(body("안녕"), "10.0.0.2", loader("b"));
+		assertEquals("MISS", header(other));
+		assertEquals("b", other.getBody());
+		assertEquals("a", perClient.getOrLoad(body("안녕"), "10.0.0.1", loader("c")).getBody());
+		assertEquals(2, loads.get());
+		assertEquals(2, perClient.snapshot().get("entries"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedAndExpiresByTtl() {
+		AnswerCache cache = newCache("global", 2);
+		cache.getOrLoad(body("첫째"), "c", loader("1"));
+		cache.getOrLoad(body("둘째"), "c", loader("2"));
+		cache.getOrLoad(body("첫째"), "c", loader("x"));   // 첫째가 최근 사용
+		cache.getOrLoad(body("셋째"), "c", loader("3"));   // 둘째 축출
+		assertEquals(1L, cache.snapshot().get("evictions"));
+		assertEquals("HIT", header(cache.getOrLoad(body("첫째"), "c", loader("x"))));
+		assertEquals("MISS", header(cache.getOrLoad(body("둘째"), "c", loader("2"))));
+		assertEquals(4, loads.get());
+
+		// 만료된 항목은 다시 불러옴
+		ReflectionTestUtils.setField(cache, "ttlGeneral", -1L);
+		cache.getOrLoad(body("넷째"), "c", loader("4"));
+		assertEquals("MISS", header(cache.getOrLoad(body("넷째"), "c", loader("4"))));
+		assertEquals(6, loads.get());
+
+		// 실패 응답은 저장하지 않음
+		cache.getOrLoad(body("다섯째"), "c", () -> ResponseEntity.status(502).body("{}"));
+		assertEquals("MISS", header(cache.getOrLoad(body("다섯째"), "c", loader("5"))));
+	}
+
+	private Supplier<ResponseEntity<String>> loader(String answer) {
+		return () -> {
+			loads.incrementAndGet();
+			return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(answer);
+		};
+	}
+
+	private static Map<String, Object> body(String message) {
+		return Map.of("message", message, "lang", "ko");
+	}
+
+	private static String header(ResponseEntity<String> res) {
+		return res.getHeaders().getFirst(AnswerCache.HEADER);
+	}
+
+	private static AnswerCache newCache(String scope, int maxEntries) {
+		AnswerCache cache = new AnswerCache();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "scope", scope);
+		ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+		ReflectionTestUtils.setField(cache, "maxBytes", 1L << 20);
+		ReflectionTestUtils.setField(cache, "ttlNews", 60L);
+		ReflectionTestUtils.setField(cache, "ttlMarket", 30L);
+		ReflectionTestUtils.setField(cache, "ttlIndicator", 3600L);
+		ReflectionTestUtils.setField(cache, "ttlGeneral", 600L);
+		return cache;
+	}
+}
@@ -0,0 +1,70 @@
+package com.chatbot.yoo.chatbot.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TtsCacheTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void keyIgnoresWhitespaceAndNumberFormatting() {
+		String a = TtsCache.keyOf(Map.of("text", " 안녕하세요  반갑습니다 ", "rate", 1, "pitch", "0"));
+		String b = TtsCache.keyOf(Map.of("text", "안녕하세요 반갑습니다", "fmt", "MP3", "rate", 1.0, "pitch", 0.0));
+		String c = TtsCache.keyOf(Map.of("text", "안녕하세요 반갑습니다", "fmt", "MP3", "rate", 1.25));
+		assertEquals(a, b);
+		assertNotEquals(a, c);
+		// FastAPI 는 "mp3" 를 MP3 로 보지 않음 (LINEAR16/WAV) → 다른 키
+		assertNotEquals(b, TtsCache.keyOf(Map.of("text", "안녕하세요 반갑습니다", "fmt", "mp3")));
+	}
+
+	@Test
+	void evictsFromMemoryAndServesFromDisk() {
+		TtsCache cache = newCache(100, 10_000);
+		cache.put("a", entry(60));
+		cache.put("b", entry(60));    // 메모리 상한 100 → a 축출, 디스크에는 남음
+
+		assertNotNull(cache.get("b"));
+		TtsCache.Entry a = cache.get("a");
+		assertNotNull(a);
+		assertArrayEquals(entry(60).audio(), a.audio());
+		assertEquals(1L, cache.snapshot().get("diskHits"));
+	}
+
+	@Test
+	void restoresDiskTierAfterRestart() {
+		newCache(1_000, 10_000).put("k", entry(10));
+
+		TtsCache restarted = newCache(1_000, 10_000);
+		assertEquals("audio/mpeg", restarted.get("k").contentType());
+		assertNull(restarted.get("missing"));
+	}
+
+	private TtsCache newCache(long memoryMax, long diskMax) {
+		TtsCache cache = new TtsCache();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "memoryMaxBytes", memoryMax);
+		ReflectionTestUtils.setField(cache, "diskMaxBytes", diskMax);
+		ReflectionTestUtils.setField(cache, "maxEntryBytes", 1_000);
+		ReflectionTestUtils.setField(cache, "diskDirPath", dir.toString());
+		cache.loadDisk();
+		return cache;
+	}
+
+	private static TtsCache.Entry entry(int size) {
+		byte[] audio = new byte[size];
+		for (int i = 0; i < size; i++) audio[i] = (byte) i;
+		return new TtsCache.Entry("audio/mpeg", "inline; filename=\"speech.mp3\"", audio);
+	}
+}
@@ -0,0 +1,65 @@
+package com.chatbot.yoo.chatbot.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChatBodyTest {
+
+	private final ObjectMapper json = new ObjectMapper();
+	private final JsonFactory factory = json.getFactory();
+
+	@Test
+	void injectsSessionFieldsWithoutRewritingOriginalBytes() throws IOException {
+		byte[] raw = "{\"message\":\"환율\",\"lang\":\"ko\",\"extra\":{\"a\":[1,2]},\"history\":[]}  \n".getBytes(StandardCharsets.UTF_8);
+		ChatBody head = ChatBody.scan(factory, raw);
+		assertEquals("환율", head.message());
+		assertEquals(Map.of("message", "환율", "lang", "ko"), head.fields());   // 빈 history 는 없는 것으로
+
+		byte[] out = head.inject(raw, json.writeValueAsBytes("sid"),
+				json.writeValueAsBytes(List.of(Map.of("role", "user", "content", "q"))));
+		Map<?, ?> forwarded = json.readValue(out, Map.class);
+		assertEquals("sid", forwarded.get("session_id"));
+		assertEquals(List.of(Map.of("role", "user", "content", "q")), forwarded.get("history"));
+		assertEquals(Map.of("a", List.of(1, 2)), forwarded.get("extra"));
+	}
+
+	@Test
+	void handlesEmptyObjectAndRejectsNonObjects() throws IOException {
+		byte[] out = ChatBody.scan(factory, "{ }".getBytes(StandardCharsets.UTF_8))
+				.inject("{ }".getBytes(StandardCharsets.UTF_8), json.writeValueAsBytes("sid"), "[]".getBytes(StandardCharsets.UTF_8));
+		assertEquals(Map.of("session_id", "sid", "history", List.of()), json.readValue(out, Map.class));
+
+		assertThrows(IOException.class, () -> ChatBody.scan(factory, "[1]".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IOException.class, () -> ChatBody.scan(factory, "{\"a\":1} {}".getBytes(StandardCharsets.UTF_8)));
+		assertFalse(ChatBody.scan(factory, "{\"history\":[{\"x\":1}]}".getBytes(StandardCharsets.UTF_8)).fields().isEmpty());
+	}
+
+	@Test
+	void readsTopLevelAnswerOnly() {
+		byte[] res = "{\"meta\":{\"answer\":\"nested\"},\"answer\":\"top\"}".getBytes(StandardCharsets.UTF_8);
+		assertEquals("top", ChatBody.answerOf(factory, res));
+		assertNull(ChatBody.answerOf(factory, "not json".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void stripsEchoedSessionIdFromSharedResponses() throws IOException {
+		byte[] res = "{\"answer\":\"환율은 ...\",\"session_id\":\"abc\",\"server_timing\":{\"llm\":1.5}}".getBytes(StandardCharsets.UTF_8);
+		assertEquals(Map.of("answer", "환율은 ...", "server_timing", Map.of("llm", 1.5)),
+				json.readValue(ChatBody.withoutSessionId(factory, res), Map.class));
+
+		byte[] plain = "{\"answer\":\"a\"}".getBytes(StandardCharsets.UTF_8);
+		assertSame(plain, ChatBody.withoutSessionId(factory, plain));
+	}
+}
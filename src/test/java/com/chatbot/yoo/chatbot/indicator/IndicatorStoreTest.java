@@ -0,0 +1,140 @@
+package com.chatbot.yoo.chatbot.indicator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IndicatorStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void refreshesIncrementallyAndReloadsFromFile() {
+		int now = IndicatorStore.currentMonth();
+		FakeSource ecos = new FakeSource();
+		for (int m = now - 40; m <= now - 1; m++) ecos.data.put(m, 100.0 + (now - m));
+
+		IndicatorStore store = store(ecos);
+		store.refresh();
+		// 처음에는 backfill 기간만
+		assertEquals(List.of((now - 12) + ".." + now), ecos.calls);
+		IndicatorStore.Reading r = store.latest("cpi");
+		assertEquals(IndicatorStore.monthLabel(now - 1), r.month());
+		assertEquals(101.0, r.value());
+		assertEquals(-1.0, r.change());
+
+		// 다음 갱신은 마지막 저장 달부터: 잠정치 수정 + 새 달 추가
+		ecos.data.put(now - 1, 101.5);
+		ecos.data.put(now, 99.0);
+		store.refresh();
+		assertEquals((now - 1) + ".." + now, ecos.calls.get(1));
+		assertEquals(99.0, store.latest("901Y009").value());
+		assertEquals(101.5, store.latest("901Y009").prevValue());
+		assertEquals(13, store.columns("CPI").size());
+
+		IndicatorStore.Columns range = store.range("CPI", now - 2, now - 1);
+		assertArrayEquals(new int[]{now - 2, now - 1}, range.months());
+		assertArrayEquals(new double[]{102.0, 101.5}, range.values());
+
+		// 재시작: 파일에서 바로 읽고 외부 호출 없음
+		FakeSource fresh = new FakeSource();
+		IndicatorStore reloaded = store(fresh);
+		assertEquals(13, reloaded.columns("CPI").size());
+		assertEquals(99.0, reloaded.latest("CPI").value());
+		assertEquals(List.of(), fresh.calls);
+		assertNull(reloaded.latest("UNKNOWN"));
+	}
+
+	@Test
+	void mergeReplacesOverlappingMonths() {
+		IndicatorStore.Columns old = new IndicatorStore.Columns(new int[]{1, 2, 3}, new double[]{1, 2, 3}, 0);
+		IndicatorStore.Columns merged = IndicatorStore.merge(old,
+				new ObservationSource.Observations(new int[]{3, 4}, new double[]{30, 40}), 1);
+		assertArrayEquals(new int[]{1, 2, 3, 4}, merged.months());
+		assertArrayEquals(new double[]{1, 2, 30, 40}, merged.values());
+	}
+
+	@Test
+	void ignoresCorruptFileAsAWhole() throws IOException {
+		int now = IndicatorStore.currentMonth();
+		// 음수/과대 길이, 내림차순 달, 잘린 파일: 앞의 정상 시리즈까지 통째로 무시
+		for (int[] bad : new int[][]{{-1}, {Integer.MAX_VALUE}, {2, now, now - 1}, {3, now - 2, now - 1}}) {
+			corrupt(now, bad[0], Arrays.copyOfRange(bad, 1, bad.length));
+			FakeSource ecos = new FakeSource();
+			IndicatorStore store = store(ecos);
+			assertEquals(0, store.columns("CPI").size(), Arrays.toString(bad));
+			assertEquals(0, store.snapshot().get("loadedFromFile"));
+
+			// 다음 갱신은 backfill 부터 다시
+			ecos.data.put(now - 1, 101.0);
+			store.refresh();
+			assertEquals(List.of((now - 12) + ".." + now), ecos.calls);
+			assertEquals(101.0, store.latest("CPI").value());
+		}
+	}
+
+	/** 정상 CPI 한 점 뒤에 길이 n, 달 months 인 두 번째 시리즈 (값은 months 수만큼만 씀) */
+	private void corrupt(int now, int n, int... months) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(dir.resolve("indicators.bin")))) {
+			out.writeInt(0x59494E44);
+			out.writeInt(1);
+			out.writeInt(2);
+			out.writeUTF("901Y009");
+			out.writeLong(1L);
+			out.writeInt(1);
+			out.writeInt(now - 3);
+			out.writeDouble(100.0);
+			out.writeUTF("901Y009");
+			out.writeLong(1L);
+			out.writeInt(n);
+			for (int m : months) out.writeInt(m);
+			for (int m : months) out.writeDouble(100.0);
+		}
+	}
+
+	private IndicatorStore store(ObservationSource source) {
+		IndicatorStore s = new IndicatorStore(List.of(source));
+		ReflectionTestUtils.setField(s, "enabled", true);
+		ReflectionTestUtils.setField(s, "seriesConfig", new String[]{"CPI=ecos:901Y009"});
+		ReflectionTestUtils.setField(s, "backfillMonths", 12);
+		ReflectionTestUtils.setField(s, "file", dir.resolve("indicators.bin").toString());
+		s.init();
+		return s;
+	}
+
+	private static final class FakeSource implements ObservationSource {
+		final TreeMap<Integer, Double> data = new TreeMap<>();
+		final List<String> calls = new ArrayList<>();
+
+		@Override
+		public String name() { return "ecos"; }
+
+		@Override
+		public Observations fetch(String code, int fromMonth, int toMonth) {
+			calls.add(fromMonth + ".." + toMonth);
+			var sub = data.subMap(fromMonth, true, toMonth, true);
+			int[] m = new int[sub.size()];
+			double[] v = new double[sub.size()];
+			int i = 0;
+			for (var e : sub.entrySet()) {
+				m[i] = e.getKey();
+				v[i++] = e.getValue();
+			}
+			return new Observations(m, v);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import com.chatbot.yoo.chatbot.indicator.IndicatorStore;
+import com.chatbot.yoo.chatbot.market.QuoteStore;
+import com.chatbot.yoo.chatbot.news.NewsStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntentClassifierTest {
+
+	private final IntentClassifier classifier;
+
+	IntentClassifierTest() throws IOException {
+		classifier = IntentRouter.classpathDefault();
+	}
+
+	@Test
+	void classifiesDeterministicQuestions() {
+		assertResult("KOSPI 지금", IntentClassifier.Intent.MARKET, "KOSPI");
+		assertResult("원달러 환율", IntentClassifier.Intent.MARKET, "USD_KRW");
+		assertResult("유로/달러 얼마야", IntentClassifier.Intent.MARKET, "EUR_USD");
+		assertResult("오늘 환율", IntentClassifier.Intent.MARKET, "FX");
+		assertResult("기준금리", IntentClassifier.Intent.INDICATOR, "BASE_RATE");
+		// 더 긴 어휘가 이김: 생산자물가 ⊃ 물가, 미국 기준금리 ⊃ 기준금리
+		assertResult("생산자물가 알려줘", IntentClassifier.Intent.INDICATOR, "PPI");
+		assertResult("미국 기준금리는?", IntentClassifier.Intent.INDICATOR, "US_FEDFUNDS");
+		assertResult("미국 금리 목표 범위", IntentClassifier.Intent.INDICATOR, "US_FED_TARGET");
+		assertResult("Latest news top 3", IntentClassifier.Intent.NEWS, "NEWS");
+		assertEquals(3, classifier.classify("Latest news top 3").count());
+		assertEquals(7, classifier.classify("최신 뉴스 7건").count());
+		assertTrue(classifier.classify("최신 뉴스").latest());
+	}
+
+	@Test
+	void mapsCompanyNamesToTickers() {
+		assertResult("삼성전자 주가", IntentClassifier.Intent.MARKET, "005930.KS");
+		assertResult("ＳＫ하이닉스 얼마", IntentClassifier.Intent.MARKET, "000660.KS");
+		assertResult("Nvidia 지금", IntentClassifier.Intent.MARKET, "NVDA");
+		// 카카오뱅크 ⊃ 카카오
+		assertResult("카카오뱅크 시세", IntentClassifier.Intent.MARKET, "323410.KS");
+		assertResult("카카오 시세", IntentClassifier.Intent.MARKET, "035720.KS");
+		assertEquals(List.of("AAPL", "TSLA"), classifier.classify("애플 테슬라").targets());
+		assertNull(classifier.classify("삼성전자 실적 전망"));
+	}
+
+	@Test
+	void scansThousandsOfTermsInOnePass() {
+		List<String> terms = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) terms.add("종목" + i);
+		terms.add("he");
+		terms.add("she");
+		terms.add("hers");
+		KeywordAutomaton a = KeywordAutomaton.compile(terms);
+		assertEquals(5003, a.terms());
+
+		List<String> hits = new ArrayList<>();
+		a.scan("종목 4999 와 USHERS", (t, start, end) -> hits.add(terms.get(t) + "@" + start + "-" + end));
+		// 공백은 건너뛰고 위치는 fold 후 기준, 겹치는 출현도 모두
+		assertEquals(List.of("종목4@0-3", "종목49@0-4", "종목499@0-5", "종목4999@0-6", "she@8-11", "he@9-11", "hers@9-13"), hits);
+	}
+
+	@Test
+	void rejectsMalformedDictionary() {
+		assertThrows(IOException.class, () -> IntentClassifier.parse(new StringReader("MARKET\tKOSPI\n"), "bad.tsv"));
+		assertThrows(IOException.class, () -> IntentClassifier.parse(new StringReader("STOCK\tX\tx\n"), "bad.tsv"));
+	}
+
+	@Test
+	void leavesAmbiguousQuestionsToUpstream() {
+		assertNull(classifier.classify("금리"));
+		assertNull(classifier.classify("코스피 전망 알려줘"));
+		assertNull(classifier.classify("왜 환율이 올랐어?"));
+		assertNull(classifier.classify("CPI 랑 PPI"));
+		assertNull(classifier.classify("환율 뉴스 최신"));
+		assertNull(classifier.classify("회사 소개해줘"));
+	}
+
+	@Test
+	void leavesDatedQuestionsToUpstream() {
+		assertNull(classifier.classify("2023년 CPI"));
+		assertNull(classifier.classify("3월 수출"));
+		assertNull(classifier.classify("3월 물가"));
+		assertNull(classifier.classify("2024-06 기준금리"));
+		assertNull(classifier.classify("10월 15일 코스피 종가"));
+		assertNull(classifier.classify("2분기 GDP"));
+		assertNull(classifier.classify("GDP Q3"));
+		assertNull(classifier.classify("CPI in 2023"));
+		// 숫자가 있어도 날짜가 아니면 그대로
+		assertResult("러셀2000 지금", IntentClassifier.Intent.MARKET, "^RUT");
+		assertResult("삼성전자 005930", IntentClassifier.Intent.MARKET, "005930.KS");
+		assertEquals(7, classifier.classify("최신 뉴스 7건").count());
+	}
+
+	@Test
+	void leavesCountryQualifiedQuestionsToUpstream() {
+		// 국내 지표 어휘 + 나라 이름 → 국내 수치로 답하지 않음
+		assertNull(classifier.classify("미국 CPI"));
+		assertNull(classifier.classify("미국 물가 알려줘"));
+		assertNull(classifier.classify("일본 기준금리"));
+		assertNull(classifier.classify("중국 GDP"));
+		assertNull(classifier.classify("Japan CPI"));
+		assertNull(classifier.classify("유로존 성장률"));
+		// 그 나라 전용 어휘가 이름을 품으면 그대로
+		assertResult("미국 기준금리", IntentClassifier.Intent.INDICATOR, "US_FEDFUNDS");
+		assertResult("미국금리 얼마", IntentClassifier.Intent.INDICATOR, "US_FEDFUNDS");
+		assertResult("미국 달러 환율", IntentClassifier.Intent.MARKET, "USD_KRW");
+		assertResult("일본 엔화", IntentClassifier.Intent.MARKET, "JPY_KRW");
+		assertResult("독일 DAX", IntentClassifier.Intent.MARKET, "^GDAXI");
+		// 짧은 영문(us)은 넣지 않아 usd, business 등은 영향 없음
+		assertResult("USD/KRW now", IntentClassifier.Intent.MARKET, "USD_KRW");
+		assertResult("다우 지수", IntentClassifier.Intent.MARKET, "^DJI");
+	}
+
+	@Test
+	void formatsLikeFastApiTools() {
+		QuoteStore.Quote kospi = new QuoteStore.Quote("KOSPI", "^KS11", 2512.345, 2500.0, 12.345, 0.4938, 0, 0);
+		assertEquals("**코스피 지수 (실시간)**\n• 현재가: 2,512.35\n• 변동: +12.35 (+0.49%)", LocalAnswers.quote(kospi));
+		QuoteStore.Quote usd = new QuoteStore.Quote("USD_KRW", "USDKRW=X", 1385.2, 1390.0, -4.8, -0.3453, 0, 0);
+		assertEquals("**원/달러 환율 (실시간)**\n• 현재: 1,385.20원\n• 변동: -4.80원 (-0.35%)", LocalAnswers.quote(usd));
+		QuoteStore.Quote nvda = new QuoteStore.Quote("NVDA", "NVDA", 181.5, 180.0, 1.5, 0.8333, 1760000000000L, 0);
+		assertEquals("NVDA 181.50 · 변동 +1.50 (+0.83%) · 기준시각 2025-10-09T17:53:20+09:00", LocalAnswers.quote(nvda));
+
+		IndicatorStore.Reading cpi = new IndicatorStore.Reading("901Y009", "CPI", "2025-09", 116.5, "2025-08", 116.3, 0.2);
+		assertEquals("**소비자물가지수(CPI)**\n• 최신값: 116.5 (기준: 2025-09)\n• 전월 대비: +0.20%p",
+				LocalAnswers.indicator("CPI", cpi));
+
+		assertEquals("**최신 경제 뉴스**\n1. [금리 동결]\n출처: (https://n/a) · 날짜: 2025-10-01\n2. 환율 급등 · 2025-10-02",
+				LocalAnswers.news(List.of(new NewsStore.Article("a", "금리 동결", "https://n/a", "2025-10-01", 2),
+						new NewsStore.Article("b", "환율 급등", "", "2025-10-02", 1))));
+	}
+
+	private void assertResult(String message, IntentClassifier.Intent intent, String target) {
+		IntentClassifier.Result r = classifier.classify(message);
+		assertEquals(intent, r == null ? null : r.intent(), message);
+		assertEquals(List.of(target), r.targets(), message);
+	}
+}
@@ -0,0 +1,169 @@
+package com.chatbot.yoo.chatbot.intent;
+
+import com.chatbot.yoo.chatbot.indicator.IndicatorStore;
+import com.chatbot.yoo.chatbot.indicator.ObservationSource;
+import com.chatbot.yoo.chatbot.market.MarketService;
+import com.chatbot.yoo.chatbot.market.QuoteSource;
+import com.chatbot.yoo.chatbot.news.NewsService;
+import com.chatbot.yoo.chatbot.news.NewsSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntentRouterTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void answersFromCachesAndCountsStats() throws IOException {
+		IntentRouter router = router();
+
+		IntentRouter.Routed nvda = router.route("엔비디아 주가");
+		assertNotNull(nvda);
+		assertEquals("MARKET", nvda.intent());
+		assertTrue(nvda.answer().startsWith("NVDA 181.50"), nvda.answer());
+		assertEquals("INDICATOR", router.route("CPI 알려줘").intent());
+		IntentRouter.Routed headlines = router.route("최신 뉴스 top 2");
+		assertEquals("NEWS", headlines.intent());
+		assertTrue(headlines.answer().contains("환율 급등"), headlines.answer());
+		assertNull(router.route("왜 환율이 올랐어?"));
+
+		Map<String, Object> s = router.snapshot();
+		assertEquals(4L, s.get("requests"));
+		assertEquals(1L, s.get("unmatched"));
+		assertEquals(3L, s.get("answered"));
+		assertEquals(1L, stat(s, "market", "answered"));
+	}
+
+	@Test
+	void fallsBackToUpstreamWhenCacheIsMissingOrStale() throws IOException {
+		IntentRouter router = router();
+		// 분류는 되지만 캐시에 없음 (테슬라는 감시 목록에 없어 백그라운드 조회만 걸어 둠)
+		assertNull(router.route("테슬라 주가"));
+		assertNull(router.route("기준금리"));
+
+		// 갱신이 멈춘 캐시 (max-age 보다 오래됨)
+		ReflectionTestUtils.setField(router, "marketMaxAgeMs", -1L);
+		ReflectionTestUtils.setField(router, "indicatorMaxAgeMs", -1L);
+		ReflectionTestUtils.setField(router, "newsMaxAgeMs", -1L);
+		assertNull(router.route("엔비디아 주가"));
+		assertNull(router.route("CPI 알려줘"));
+		assertNull(router.route("최신 뉴스"));
+
+		Map<String, Object> s = router.snapshot();
+		assertEquals(0L, s.get("answered"));
+		assertEquals(2L, stat(s, "market", "fallbacks"));
+		assertEquals(2L, stat(s, "indicator", "fallbacks"));
+		assertEquals(1L, stat(s, "news", "fallbacks"));
+	}
+
+	@Test
+	void reloadsChangedDictionaryAndKeepsPreviousOnError() throws IOException {
+		IntentRouter router = router();
+		assertNull(router.route("젠슨황 회사"));
+
+		Path tsv = dir.resolve("lexicon.tsv");
+		Files.writeString(tsv, "MARKET\tNVDA\t엔비디아|젠슨황 회사\n");
+		ReflectionTestUtils.setField(router, "dictionary", tsv.toString());
+		router.reload();
+		assertEquals("MARKET", router.route("젠슨황 회사").intent());
+		assertEquals(1L, router.snapshot().get("reloads"));
+		assertEquals(2, router.snapshot().get("terms"));
+
+		// 잘못된 사전: 이전 사전 유지
+		Files.writeString(tsv, "STOCK\tNVDA\t엔비디아\n");
+		router.reload();
+		assertEquals(1L, router.snapshot().get("reloadErrors"));
+		assertEquals("MARKET", router.route("젠슨황 회사").intent());
+
+		// 실패한 파일은 다음 주기에 다시 시도, 고친 뒤 바뀌지 않은 파일은 다시 읽지 않음
+		router.reload();
+		assertEquals(2L, router.snapshot().get("reloadErrors"));
+		Files.writeString(tsv, "MARKET\tNVDA\t엔비디아|젠슨황 회사|그래픽카드 회사\n");
+		router.reload();
+		router.reload();
+		assertEquals(2L, router.snapshot().get("reloads"));
+		assertEquals("MARKET", router.route("그래픽카드 회사").intent());
+	}
+
+	private IntentRouter router() throws IOException {
+		MarketService markets = new MarketService(new QuoteSource() {
+			@Override
+			public String name() { return "test"; }
+
+			@Override
+			public Snapshot fetch(String ticker) {
+				return ticker.equals("NVDA") ? new Snapshot(181.5, 180.0, 1_760_000_000_000L, new long[0], new double[0]) : null;
+			}
+		});
+		ReflectionTestUtils.setField(markets, "enabled", true);
+		ReflectionTestUtils.setField(markets, "symbols", new String[0]);
+		ReflectionTestUtils.setField(markets, "maxSymbols", 8);
+		ReflectionTestUtils.setField(markets, "seriesSize", 64);
+		ReflectionTestUtils.setField(markets, "missTtlMs", 60_000L);
+		ReflectionTestUtils.setField(markets, "maxConcurrentMisses", 4);
+		ReflectionTestUtils.invokeMethod(markets, "init");
+		assertNotNull(markets.quote("NVDA"));
+
+		int now = IndicatorStore.currentMonth();
+		IndicatorStore indicators = new IndicatorStore(List.of(new ObservationSource() {
+			@Override
+			public String name() { return "ecos"; }
+
+			@Override
+			public Observations fetch(String code, int fromMonth, int toMonth) {
+				return new Observations(new int[]{now - 2, now - 1}, new double[]{116.3, 116.5});
+			}
+		}));
+		ReflectionTestUtils.setField(indicators, "enabled", true);
+		ReflectionTestUtils.setField(indicators, "seriesConfig", new String[]{"CPI=ecos:901Y009"});
+		ReflectionTestUtils.setField(indicators, "backfillMonths", 12);
+		ReflectionTestUtils.setField(indicators, "file", dir.resolve("indicators.bin").toString());
+		ReflectionTestUtils.invokeMethod(indicators, "init");
+		ReflectionTestUtils.invokeMethod(indicators, "refresh");
+
+		NewsService news = new NewsService(new NewsSource() {
+			@Override
+			public String name() { return "test"; }
+
+			@Override
+			public Batch fetch(Cursor cursor, int limit) {
+				String ts = "2025-10-02T10:00:00+09:00";
+				return new Batch(List.of(new Item("a", "금리 동결", "", ts, ts), new Item("b", "환율 급등", "", ts, ts)),
+						new Cursor(ts, "b"));
+			}
+		});
+		ReflectionTestUtils.setField(news, "enabled", true);
+		ReflectionTestUtils.setField(news, "capacity", 10);
+		ReflectionTestUtils.setField(news, "pageSize", 10);
+		ReflectionTestUtils.invokeMethod(news, "init");
+		ReflectionTestUtils.invokeMethod(news, "poll");
+
+		IntentRouter router = new IntentRouter(markets, indicators, news);
+		ReflectionTestUtils.setField(router, "enabled", true);
+		ReflectionTestUtils.setField(router, "maxChars", 40);
+		ReflectionTestUtils.setField(router, "marketMaxAgeMs", 120_000L);
+		ReflectionTestUtils.setField(router, "indicatorMaxAgeMs", 86_400_000L);
+		ReflectionTestUtils.setField(router, "newsMaxAgeMs", 300_000L);
+		ReflectionTestUtils.setField(router, "dictionary", "");
+		router.init();
+		return router;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object stat(Map<String, Object> snapshot, String intent, String key) {
+		return ((Map<String, Object>) snapshot.get(intent)).get(key);
+	}
+}
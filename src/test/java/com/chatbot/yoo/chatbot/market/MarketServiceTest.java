@@ -0,0 +1,144 @@
+package com.chatbot.yoo.chatbot.market;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MarketServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void pollsFileSourceAndWatchesNewTickers() throws IOException {
+		Path csv = dir.resolve("quotes.csv");
+		Files.writeString(csv, """
+				ticker,epoch_ms,price,prev_close
+				^KS11,1000,2500.0,2490.0
+				^KS11,2000,2510.0
+				NVDA,1000,120.5,118.0
+				""");
+		MarketService markets = service(new FileQuoteSource(csv.toString()), "KOSPI:^KS11");
+		markets.poll();
+
+		QuoteStore.Quote kospi = markets.quote("kospi");
+		assertEquals(2510.0, kospi.price());
+		assertEquals(2490.0, kospi.prevClose());
+		assertEquals(1, markets.quotes().size());
+
+		// 목록에 없는 ticker: 첫 조회 때 가져오고 다음 poll 부터 같이 갱신
+		assertEquals(120.5, markets.quote("NVDA").price());
+		assertNull(markets.quote("AAPL"));
+		Files.writeString(csv, "^KS11,3000,2520.0\nNVDA,2000,121.0\n", StandardOpenOption.APPEND);
+		markets.poll();
+
+		assertEquals(121.0, markets.quote("NVDA").price());
+		assertEquals(2, markets.quotes().size());
+		QuoteStore.Series s = markets.series("KOSPI", 0);
+		assertNotNull(s);
+		assertArrayEquals(new double[]{2500.0, 2510.0, 2520.0}, s.prices());
+	}
+
+	@Test
+	void remembersMissesAndNeverWatchesPastCapacity() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		QuoteSource slow = new QuoteSource() {
+			@Override
+			public String name() { return "test"; }
+
+			@Override
+			public Snapshot fetch(String ticker) throws IOException {
+				fetches.incrementAndGet();
+				if (ticker.startsWith("NOPE")) return null;
+				try { release.await(); } catch (InterruptedException e) { throw new IOException(e); }
+				return new Snapshot(100.0, Double.NaN, 1000, new long[0], new double[0]);
+			}
+		};
+		MarketService markets = service(slow, "KOSPI:^KS11");
+		ReflectionTestUtils.setField(markets, "maxSymbols", 3);
+
+		// 없는 ticker 는 miss-ttl 동안 다시 조회하지 않음
+		assertNull(markets.quote("NOPE"));
+		assertNull(markets.quote("nope"));
+		assertEquals(1, fetches.get());
+
+		// 동시 miss 8건 (동시 조회 상한 4) → 감시 목록은 max-symbols(3) 를 넘지 않음
+		fetches.set(0);
+		List<Future<QuoteStore.Quote>> results = new ArrayList<>();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 8; i++) {
+				String ticker = "T" + i;
+				results.add(pool.submit(() -> markets.quote(ticker)));
+			}
+			while (fetches.get() < 4) Thread.sleep(5);
+			release.countDown();
+		}
+		int found = 0;
+		for (Future<QuoteStore.Quote> f : results) if (f.get() != null) found++;
+		assertEquals(4, fetches.get());
+		assertEquals(2, found);
+		assertEquals(3, markets.snapshot().get("symbols"));
+		assertEquals(2, markets.quotes().size());   // KOSPI 는 아직 poll 전
+	}
+
+	@Test
+	void prefetchSubmitsOneLookupPerTickerAndSkipsRecentFailures() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		QuoteSource missing = new QuoteSource() {
+			@Override
+			public String name() { return "test"; }
+
+			@Override
+			public Snapshot fetch(String ticker) throws IOException {
+				fetches.incrementAndGet();
+				try { release.await(); } catch (InterruptedException e) { throw new IOException(e); }
+				return null;
+			}
+		};
+		MarketService markets = service(missing, "KOSPI:^KS11");
+
+		// 조회 중인 ticker 는 질문이 반복돼도 작업 1개
+		for (int i = 0; i < 20; i++) markets.prefetch("NOPE");
+		while (fetches.get() < 1) Thread.sleep(5);
+		assertEquals(1, markets.snapshot().get("prefetching"));
+		release.countDown();
+		while ((int) markets.snapshot().get("prefetching") > 0) Thread.sleep(5);
+
+		// 실패한 ticker 는 miss-ttl 동안 다시 조회하지 않음
+		for (int i = 0; i < 20; i++) markets.prefetch("nope");
+		Thread.sleep(50);
+		assertEquals(1, fetches.get());
+		assertEquals(1, markets.snapshot().get("failedTickers"));
+	}
+
+	private static MarketService service(QuoteSource source, String... symbols) {
+		MarketService m = new MarketService(source);
+		ReflectionTestUtils.setField(m, "enabled", true);
+		ReflectionTestUtils.setField(m, "symbols", symbols);
+		ReflectionTestUtils.setField(m, "maxSymbols", 8);
+		ReflectionTestUtils.setField(m, "seriesSize", 64);
+		ReflectionTestUtils.setField(m, "missTtlMs", 60_000L);
+		ReflectionTestUtils.setField(m, "maxConcurrentMisses", 4);
+		m.init();
+		return m;
+	}
+}
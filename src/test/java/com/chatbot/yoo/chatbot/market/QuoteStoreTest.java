@@ -0,0 +1,46 @@
+package com.chatbot.yoo.chatbot.market;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QuoteStoreTest {
+
+	@Test
+	void appendsOnlyNewPointsAndComputesChange() {
+		QuoteStore store = new QuoteStore(16);
+		assertEquals(3, store.update("KOSPI", "^KS11", snapshot(2500, 1, 2, 3), 0));
+		// 같은 분봉을 다시 받아도 새 점만 추가
+		assertEquals(1, store.update("KOSPI", "^KS11", snapshot(2500, 1, 2, 3, 4), 0));
+
+		QuoteStore.Quote q = store.latest("KOSPI");
+		assertEquals(4.0, q.price());
+		assertEquals(2500.0, q.prevClose());
+		assertEquals(-2496.0, q.change());
+		assertArrayEquals(new long[]{2, 3, 4}, store.series("KOSPI", 2).times());
+		assertNull(store.latest("KOSDAQ"));
+	}
+
+	@Test
+	void ringKeepsNewestPointsInOrder() {
+		QuoteStore store = new QuoteStore(4);
+		store.update("X", "X", snapshot(Double.NaN, 1, 2, 3), 0);
+		store.update("X", "X", snapshot(Double.NaN, 4, 5, 6), 0);
+
+		QuoteStore.Series s = store.series("X", 0);
+		assertArrayEquals(new long[]{3, 4, 5, 6}, s.times());
+		assertArrayEquals(new double[]{3, 4, 5, 6}, s.prices());
+		assertArrayEquals(new long[]{5, 6}, store.series("X", 5).times());
+		assertEquals(0, store.series("X", 7).times().length);
+		assertNull(store.latest("X").changePct());
+	}
+
+	// 시각 t 의 가격 = t
+	private static QuoteSource.Snapshot snapshot(double prevClose, long... times) {
+		double[] prices = new double[times.length];
+		for (int i = 0; i < times.length; i++) prices[i] = times[i];
+		return new QuoteSource.Snapshot(prices[prices.length - 1], prevClose, times[times.length - 1], times, prices);
+	}
+}
@@ -0,0 +1,105 @@
+package com.chatbot.yoo.chatbot.news;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NewsServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void loadsLatestThenFollowsCursor() throws IOException {
+		Path jsonl = dir.resolve("news.jsonl");
+		Files.writeString(jsonl, """
+				{"id":"a","title":"금리 동결","url":"https://n/a","published_at":"2025-10-01T09:00:00+09:00","collected_at":"2025-10-01T10:00:00+09:00"}
+				{"id":"b","title":"환율 급등","url":"https://n/b","published_at":"2025-10-02T09:00:00+09:00","collected_at":"2025-10-02T10:00:00+09:00"}
+				{"id":"c","title":"수출 증가","url":"https://n/c","published_at":"","collected_at":"2025-10-03T10:00:00+09:00"}
+				""");
+		NewsService news = service(new FileNewsSource(new ObjectMapper(), jsonl.toString()), 10, 2);
+		assertFalse(news.ready());
+		news.poll();
+
+		assertTrue(news.ready());
+		List<NewsStore.Article> top = news.latest(5);
+		assertEquals(List.of("c", "b", "a"), top.stream().map(NewsStore.Article::id).toList());
+		assertEquals("2025-10-02", top.get(1).date());
+
+		// 늦게 수집됐지만 발행은 더 이른 기사 + 제목 수정: 정렬 위치에 들어가고 같은 id 는 교체
+		Files.writeString(jsonl, """
+				{"id":"d","title":"물가 둔화","url":"https://n/d","published_at":"2025-09-30T09:00:00+09:00","collected_at":"2025-10-04T10:00:00+09:00"}
+				{"id":"b","title":"환율 급등 (수정)","url":"https://n/b","published_at":"2025-10-02T09:00:00+09:00","collected_at":"2025-10-04T11:00:00+09:00"}
+				{"id":"e","title":"코스피 반등","url":"https://n/e","published_at":"2025-10-05T09:00:00+09:00","collected_at":"2025-10-05T10:00:00+09:00"}
+				""", StandardOpenOption.APPEND);
+		news.poll();
+
+		top = news.latest(10);
+		assertEquals(List.of("e", "c", "b", "a", "d"), top.stream().map(NewsStore.Article::id).toList());
+		assertEquals("환율 급등 (수정)", top.get(2).title());
+		assertEquals(List.of("e", "c"), news.latest(2).stream().map(NewsStore.Article::id).toList());
+	}
+
+	@Test
+	void pagesThroughMoreRowsThanPageSizeWithOneCollectedAt() throws IOException {
+		Path jsonl = dir.resolve("news.jsonl");
+		Files.writeString(jsonl, """
+				{"id":"a","title":"금리 동결","url":"","published_at":"","collected_at":"2025-10-01T10:00:00+09:00"}
+				""");
+		NewsService news = service(new FileNewsSource(new ObjectMapper(), jsonl.toString()), 20, 2);
+		news.poll();
+
+		// 한 번의 수집 배치로 같은 collected_at 이 page-size(2) 보다 많이 들어옴
+		StringBuilder batch = new StringBuilder();
+		for (int i = 1; i <= 7; i++) {
+			batch.append("{\"id\":\"b").append(i).append("\",\"title\":\"t").append(i)
+					.append("\",\"url\":\"\",\"published_at\":\"\",\"collected_at\":\"2025-10-02T10:00:00+09:00\"}\n");
+		}
+		Files.writeString(jsonl, batch, StandardOpenOption.APPEND);
+		news.poll();
+		assertEquals(8, news.latest(20).size());
+		assertEquals("b7", news.snapshot().get("cursorId"));
+
+		// 그 뒤 수집분도 계속 따라감
+		Files.writeString(jsonl, """
+				{"id":"c","title":"수출 증가","url":"","published_at":"","collected_at":"2025-10-03T10:00:00+09:00"}
+				""", StandardOpenOption.APPEND);
+		news.poll();
+		assertEquals("c", news.latest(1).get(0).id());
+		assertEquals(9, news.latest(20).size());
+	}
+
+	@Test
+	void keepsOnlyNewestUpToCapacity() {
+		NewsStore store = new NewsStore(3);
+		for (int i = 1; i <= 5; i++) {
+			String ts = "2025-10-0" + i + "T09:00:00+09:00";
+			store.apply(List.of(new NewsSource.Item("n" + i, "t" + i, "", ts, ts)), i);
+		}
+		assertEquals(3, store.size());
+		assertEquals(List.of("n5", "n4", "n3"), store.latest(10).stream().map(NewsStore.Article::id).toList());
+		// 이미 있는 기사를 그대로 다시 받으면 변화 없음
+		assertEquals(0, store.apply(List.of(new NewsSource.Item("n5", "t5", "", "2025-10-05T09:00:00+09:00",
+				"2025-10-05T09:00:00+09:00")), 9));
+	}
+
+	private static NewsService service(NewsSource source, int capacity, int pageSize) {
+		NewsService n = new NewsService(source);
+		ReflectionTestUtils.setField(n, "enabled", true);
+		ReflectionTestUtils.setField(n, "capacity", capacity);
+		ReflectionTestUtils.setField(n, "pageSize", pageSize);
+		n.init();
+		return n;
+	}
+}
@@ -0,0 +1,120 @@
+package com.chatbot.yoo.chatbot.session;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.http.Cookie;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStoreTest {
+
+	@Test
+	void issuesCookieAndResolvesSameSession() {
+		SessionStore store = newStore(40, 8192);
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		SessionStore.Session s = store.resolve(new MockHttpServletRequest(), first);
+		assertNotNull(first.getHeader("Set-Cookie"));
+
+		MockHttpServletRequest again = new MockHttpServletRequest();
+		again.setCookies(new Cookie(SessionStore.COOKIE, s.id()));
+		assertSame(s, store.resolve(again, new MockHttpServletResponse()));
+		// upstream 으로 보내는 id 는 쿠키 값과 무관
+		assertNotEquals(s.id(), s.upstreamId());
+	}
+
+	@Test
+	void reactiveExchangeSharesSessionsAndClearsOnlyCaller() {
+		SessionStore store = newStore(40, 8192);
+		MockServerWebExchange first = MockServerWebExchange.from(MockServerHttpRequest.post("/api/chat"));
+		SessionStore.Session s = store.resolve(first);
+		assertNotNull(first.getResponse().getCookies().getFirst(SessionStore.COOKIE));
+		SessionStore.Session other = store.resolve(MockServerWebExchange.from(MockServerHttpRequest.post("/api/chat")));
+		other.append("q", "a");
+
+		MockServerWebExchange again = MockServerWebExchange.from(MockServerHttpRequest.post("/api/reset")
+				.cookie(new HttpCookie(SessionStore.COOKIE, s.id())));
+		assertSame(s, store.resolve(again));
+		assertEquals(s.upstreamId(), store.clear(again));
+		assertEquals(2, other.history().size());
+	}
+
+	@Test
+	void dropsOldestTurnsPastLimits() {
+		SessionStore store = newStore(4, 8192);
+		SessionStore.Session s = store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse());
+		s.append("q1", "a1");
+		s.append("q2", "a2");
+		s.append("q3", "a3");   // 턴 상한 4 → q1/a1 버림
+
+		List<Map<String, String>> h = s.history();
+		assertEquals(4, h.size());
+		assertEquals(Map.of("role", "user", "content", "q2"), h.get(0));
+		assertEquals(Map.of("role", "assistant", "content", "a3"), h.get(3));
+
+		SessionStore small = newStore(40, 30);
+		SessionStore.Session t = small.resolve(new MockHttpServletRequest(), new MockHttpServletResponse());
+		t.append("안녕", "반가워요");     // 5+6 + 5+12 = 28 bytes
+		t.append("다음", "질문");         // 바이트 상한 30 → 이전 턴부터 버림
+		assertTrue(t.bytes() <= 30);
+		assertEquals("질문", t.history().get(t.history().size() - 1).get("content"));
+	}
+
+	@Test
+	void clearRemovesOnlyCallersSession() {
+		SessionStore store = newStore(40, 8192);
+		SessionStore.Session mine = store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse());
+		SessionStore.Session other = store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse());
+		other.append("q", "a");
+
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		req.setCookies(new Cookie(SessionStore.COOKIE, mine.id()));
+		assertEquals(mine.upstreamId(), store.clear(req));
+		assertNotSame(mine, store.resolve(req, new MockHttpServletResponse()));
+		assertEquals(2, other.history().size());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedAtCapacity() {
+		SessionStore store = newStore(40, 8192);
+		ReflectionTestUtils.setField(store, "maxSessions", 2);
+		MockHttpServletRequest a = requestFor(store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse()));
+		MockHttpServletRequest b = requestFor(store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse()));
+		SessionStore.Session sa = store.resolve(a, new MockHttpServletResponse());   // a 가 최근
+		store.resolve(new MockHttpServletRequest(), new MockHttpServletResponse());  // 세 번째 → b 축출
+
+		assertSame(sa, store.resolve(a, new MockHttpServletResponse()));
+		assertNull(store.clear(b));
+		assertEquals(1L, store.snapshot().get("evictedCapacity"));
+		assertEquals(2, store.snapshot().get("active"));
+	}
+
+	private static MockHttpServletRequest requestFor(SessionStore.Session s) {
+		MockHttpServletRequest req = new MockHttpServletRequest();
+		req.setCookies(new Cookie(SessionStore.COOKIE, s.id()));
+		return req;
+	}
+
+	private static SessionStore newStore(int maxTurns, int maxBytes) {
+		SessionStore store = new SessionStore();
+		ReflectionTestUtils.setField(store, "maxSessions", 100);
+		ReflectionTestUtils.setField(store, "maxTurns", maxTurns);
+		ReflectionTestUtils.setField(store, "maxBytesPerSession", maxBytes);
+		ReflectionTestUtils.setField(store, "idleSeconds", 1800L);
+		return store;
+	}
+}
@@ -0,0 +1,80 @@
+package com.chatbot.yoo.chatbot.trace;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracerTest {
+
+	private static final String INCOMING = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+	@Test
+	void continuesIncomingTraceAndPropagatesChildSpan() {
+		Tracer tracer = newTracer(0.0);   // 새 trace 는 기록하지 않아도 브라우저의 sampled 결정은 따름
+		Span server = tracer.startServer("POST /api/chat", INCOMING);
+		assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", server.traceId());
+		assertEquals("00f067aa0ba902b7", server.parentId());
+
+		Span upstream = tracer.startChild(server, "upstream /chat");
+		assertTrue(upstream.traceparent().matches("00-4bf92f3577b34da6a3ce929d0e0e4736-[0-9a-f]{16}-01"));
+		assertNotEquals(server.spanId(), upstream.spanId());
+
+		tracer.record(upstream, "fastapi gpt_1", 1.0, 120.5);
+		tracer.end(upstream);
+		tracer.end(server);
+		tracer.end(server);               // 두 번째 end 는 무시
+
+		List<Map<String, Object>> spans = tracer.trace(server.traceId());
+		assertEquals(List.of("POST /api/chat", "upstream /chat", "fastapi gpt_1"),
+				spans.stream().map(m -> m.get("name")).toList());
+		assertEquals(upstream.spanId(), spans.get(2).get("parentId"));
+		assertEquals(1, tracer.recentTraces(10).size());
+	}
+
+	@Test
+	void malformedTraceparentStartsNewTraceAndDisabledTracerIsNoop() {
+		Tracer tracer = newTracer(1.0);
+		Span s = tracer.startServer("GET /api/x", "00-" + "0".repeat(32) + "-00f067aa0ba902b7-01");
+		assertEquals(32, s.traceId().length());
+		assertNull(s.parentId());
+
+		Tracer off = new Tracer();
+		assertNull(off.startServer("GET /api/x", INCOMING));
+		assertNull(off.startChild(null, "upstream /chat"));
+	}
+
+	@Test
+	void tagsFromSeveralThreadsWhileExporting() throws InterruptedException {
+		Span span = newTracer(1.0).startServer("POST /api/chat", INCOMING);
+		// 비동기 요청: 컨테이너 콜백과 처리 스레드가 같은 구간에 태그를 붙이는 동안 exporter 가 읽음
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int id = t;
+			threads.add(Thread.ofVirtual().start(() -> {
+				for (int i = 0; i < 2_000; i++) span.tag("t" + id + "." + i, i);
+			}));
+		}
+		threads.add(Thread.ofVirtual().start(() -> {
+			for (int i = 0; i < 500; i++) span.toMap();
+		}));
+		for (Thread t : threads) t.join();
+
+		assertEquals(8_000, ((Map<?, ?>) span.toMap().get("attrs")).size());
+	}
+
+	private static Tracer newTracer(double sampleRate) {
+		Tracer tracer = new Tracer();
+		ReflectionTestUtils.setField(tracer, "enabled", true);
+		ReflectionTestUtils.setField(tracer, "sampleRate", sampleRate);
+		ReflectionTestUtils.setField(tracer, "maxSpans", 100);
+		return tracer;
+	}
+}
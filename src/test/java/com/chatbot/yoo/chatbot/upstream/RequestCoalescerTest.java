@@ -0,0 +1,60 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+	@Test
+	void sessionsWithSameHistoryShareOneUpstreamCall() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		// 세션 A, B 모두 첫 질문 (빈 히스토리) → 같은 키
+		String a = RequestCoalescer.chatKey("오늘 환율", "ko", List.of());
+		String b = RequestCoalescer.chatKey("오늘 환율", "ko", List.of());
+
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			Future<SingleFlight.Outcome<ResponseEntity<String>>> first = pool.submit(() -> coalescer.chat(a, () -> {
+				calls.incrementAndGet();
+				try { release.await(); } catch (InterruptedException e) { throw new IllegalStateException(e); }
+				return ResponseEntity.ok("{\"answer\":\"1,385원\"}");
+			}));
+			while (coalescer.snapshot().get("chatInFlight").equals(0)) Thread.sleep(5);
+			Future<SingleFlight.Outcome<ResponseEntity<String>>> second = pool.submit(() -> coalescer.chat(b, () -> {
+				calls.incrementAndGet();
+				return ResponseEntity.ok("other");
+			}));
+			while (coalescer.snapshot().get("chatCoalesced").equals(0L)) Thread.sleep(5);
+			release.countDown();
+
+			assertEquals("{\"answer\":\"1,385원\"}", second.get().value().getBody());
+			assertTrue(second.get().shared());
+			assertEquals(first.get().value().getBody(), second.get().value().getBody());
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void keyDependsOnHistoryAndLang() {
+		String empty = RequestCoalescer.chatKey("그럼 코스닥은?", "ko", List.of());
+		String withTurn = RequestCoalescer.chatKey("그럼 코스닥은?", "ko",
+				List.of(Map.of("role", "user", "content", "코스피"), Map.of("role", "assistant", "content", "2,500")));
+		assertNotEquals(empty, withTurn);
+		assertNotEquals(empty, RequestCoalescer.chatKey("그럼 코스닥은?", "en", List.of()));
+		// 구분자가 있어 경계가 달라도 섞이지 않음
+		assertNotEquals(RequestCoalescer.chatKey("ab", "c", List.of()), RequestCoalescer.chatKey("a", "bc", List.of()));
+	}
+}
@@ -0,0 +1,79 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneExecution() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 20;
+
+		List<Future<SingleFlight.Outcome<String>>> results = new ArrayList<>();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < callers; i++) {
+				results.add(pool.submit(() -> flight.execute("k", () -> {
+					calls.incrementAndGet();
+					try { release.await(); } catch (InterruptedException e) { throw new IllegalStateException(e); }
+					return "answer";
+				})));
+			}
+			while (flight.executed() + flight.coalesced() < callers) Thread.sleep(5);
+			release.countDown();
+		}
+
+		long shared = 0;
+		for (Future<SingleFlight.Outcome<String>> f : results) {
+			assertEquals("answer", f.get().value());
+			if (f.get().shared()) shared++;
+		}
+		assertEquals(1, calls.get());
+		assertEquals(callers - 1, shared);
+		assertEquals(0, flight.inFlight());
+	}
+
+	@Test
+	void failureIsNotRemembered() {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		assertThrows(IllegalStateException.class, () -> flight.execute("k", () -> { throw new IllegalStateException("boom"); }));
+		assertEquals("ok", flight.execute("k", () -> "ok").value());
+	}
+
+	@Test
+	void leaderErrorWakesFollowers() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<SingleFlight.Outcome<String>>> results = new ArrayList<>();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 5; i++) {
+				results.add(pool.submit(() -> flight.execute("k", () -> {
+					try { release.await(); } catch (InterruptedException e) { throw new IllegalStateException(e); }
+					throw new StackOverflowError("boom");
+				})));
+			}
+			while (flight.executed() + flight.coalesced() < 5) Thread.sleep(5);
+			release.countDown();
+		}
+		// executor close() 가 돌아왔다면 아무도 join() 에 걸려 있지 않음
+		for (Future<SingleFlight.Outcome<String>> f : results) {
+			ExecutionException e = assertThrows(ExecutionException.class, f::get);
+			assertInstanceOf(StackOverflowError.class, e.getCause());
+		}
+		assertEquals(0, flight.inFlight());
+	}
+}
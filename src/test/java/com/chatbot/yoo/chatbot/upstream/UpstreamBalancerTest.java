@@ -0,0 +1,71 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamBalancerTest {
+
+	@Test
+	void sameSessionStaysOnSameInstance() {
+		UpstreamBalancer balancer = newBalancer("http://a", "http://b", "http://c");
+		Set<String> used = new HashSet<>();
+		for (int s = 0; s < 50; s++) {
+			UpstreamBalancer.Instance first = balancer.pick("session-" + s);
+			for (int i = 0; i < 5; i++) {
+				UpstreamBalancer.Instance again = balancer.pick("session-" + s);
+				assertEquals(first.url(""), again.url(""));
+				balancer.success(again);
+			}
+			balancer.success(first);
+			used.add(first.url(""));
+		}
+		assertEquals(3, used.size());   // 세션은 인스턴스 전체에 퍼짐
+	}
+
+	@Test
+	void prefersLessLoadedInstance() {
+		UpstreamBalancer balancer = newBalancer("http://a", "http://b");
+		UpstreamBalancer.Instance busy = balancer.pick(null);
+		for (int i = 0; i < 20; i++) {
+			UpstreamBalancer.Instance next = balancer.pick(null);
+			assertNotEquals(busy.url(""), next.url(""));
+			balancer.success(next);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void ejectsInstanceAfterConsecutiveFailures() {
+		UpstreamBalancer balancer = newBalancer("http://a", "http://b");
+		UpstreamBalancer.Instance bad = balancer.pick("s");
+		balancer.failure(bad);
+		balancer.failure(balancer.pick("s"));
+		balancer.failure(balancer.pick("s"));   // 3연속 실패 → 제외
+
+		Map<String, Object> stats = (Map<String, Object>) balancer.snapshot().get(bad.url(""));
+		assertTrue((Boolean) stats.get("ejected"));
+		for (int i = 0; i < 10; i++) {
+			UpstreamBalancer.Instance next = balancer.pick("s");   // 세션도 남은 인스턴스로 이동
+			assertNotEquals(bad.url(""), next.url(""));
+			balancer.success(next);
+		}
+	}
+
+	static UpstreamBalancer newBalancer(String... urls) {
+		UpstreamBalancer balancer = new UpstreamBalancer();
+		ReflectionTestUtils.setField(balancer, "urls", urls);
+		ReflectionTestUtils.setField(balancer, "healthTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(balancer, "ejectAfterFailures", 3);
+		ReflectionTestUtils.setField(balancer, "ejectMs", 60_000L);
+		balancer.init();
+		return balancer;
+	}
+}
@@ -0,0 +1,112 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.GatewayMetrics;
+import com.chatbot.yoo.chatbot.trace.Tracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UpstreamGuardTest {
+
+	@Test
+	void rejectsImmediatelyAboveConcurrencyLimit() {
+		UpstreamGuard guard = newGuard(2, 60_000);
+		UpstreamGuard.Permit a = guard.acquire("/chat");
+		UpstreamGuard.Permit b = guard.acquire("/chat");
+		assertNotNull(a);
+		assertNotNull(b);
+		assertNull(guard.acquire("/chat"));
+		assertNotNull(guard.acquire("/api/tts"));   // 라우트별 독립
+
+		a.success();
+		assertNotNull(guard.acquire("/chat"));
+	}
+
+	@Test
+	void opensOnFailuresAndClosesAfterSuccessfulProbe() throws InterruptedException {
+		UpstreamGuard guard = newGuard(100, 50);
+		for (int i = 0; i < 4; i++) guard.acquire("/chat").failure(new IOException("refused"));
+		assertNull(guard.acquire("/chat"));
+		assertEquals("OPEN", route(guard, "/chat").get("state"));
+
+		Thread.sleep(60);
+		UpstreamGuard.Permit probe = guard.acquire("/chat");
+		assertNotNull(probe);
+		assertNull(guard.acquire("/chat"));          // probe 진행 중에는 나머지 거절
+		probe.complete(HttpStatus.BAD_REQUEST);      // 4xx 는 upstream 정상으로 간주
+		assertEquals("CLOSED", route(guard, "/chat").get("state"));
+		assertNotNull(guard.acquire("/chat"));
+	}
+
+	@Test
+	void bimodalLatencyAloneDoesNotShrinkLimit() throws InterruptedException {
+		UpstreamGuard guard = newGuard(20, 60_000);
+		// 뉴스 빠른 경로(즉시)와 GPT 호출(느림)이 번갈아 와도 한가하면 대기열 신호가 아님
+		for (int i = 0; i < 10; i++) {
+			guard.acquire("/chat").success();
+			UpstreamGuard.Permit slow = guard.acquire("/chat");
+			Thread.sleep(20);
+			slow.success();
+		}
+		assertEquals(20, route(guard, "/chat").get("limit"));
+	}
+
+	@Test
+	void slowResponsesUnderLoadShrinkLimit() throws InterruptedException {
+		UpstreamGuard guard = newGuard(20, 60_000);
+		for (int i = 0; i < 10; i++) guard.acquire("/chat").success();   // 평소 지연 ≈ 0
+		List<UpstreamGuard.Permit> busy = new ArrayList<>();
+		for (int i = 0; i < 15; i++) busy.add(guard.acquire("/chat"));
+		Thread.sleep(20);
+		busy.get(14).success();   // 상한 절반 이상 찬 상태에서 시작해 느려짐 → ×0.9
+		assertEquals(18, route(guard, "/chat").get("limit"));
+	}
+
+	@Test
+	void recordsUpstreamTimingAndStatusClass() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		UpstreamGuard guard = newGuard(10, 60_000, registry);
+		guard.acquire("/api/tts").success();
+		guard.acquire("/api/tts").complete(HttpStatus.BAD_GATEWAY);
+		guard.acquire("/api/tts").failure(new RuntimeException(new SocketTimeoutException("Read timed out")));
+
+		assertEquals(3, registry.find("gateway.upstream.duration").tag("route", "/api/tts").timers()
+				.stream().mapToLong(t -> t.count()).sum());
+		assertEquals(1.0, registry.get("gateway.upstream.responses").tags("route", "/api/tts", "status", "5xx").counter().count());
+		assertEquals(1.0, registry.get("gateway.upstream.responses").tags("route", "/api/tts", "status", "timeout").counter().count());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> route(UpstreamGuard guard, String name) {
+		return (Map<String, Object>) ((Map<String, Object>) guard.snapshot().get("routes")).get(name);
+	}
+
+	private static UpstreamGuard newGuard(int limit, long openMs) {
+		return newGuard(limit, openMs, new SimpleMeterRegistry());
+	}
+
+	private static UpstreamGuard newGuard(int limit, long openMs, SimpleMeterRegistry registry) {
+		UpstreamGuard guard = new UpstreamGuard(UpstreamBalancerTest.newBalancer("http://a"), new GatewayMetrics(registry), new Tracer());
+		ReflectionTestUtils.setField(guard, "enabled", true);
+		ReflectionTestUtils.setField(guard, "initialLimit", limit);
+		ReflectionTestUtils.setField(guard, "minLimit", 1);
+		ReflectionTestUtils.setField(guard, "maxLimit", limit);
+		ReflectionTestUtils.setField(guard, "tolerance", 2.0);
+		ReflectionTestUtils.setField(guard, "backoff", 0.9);
+		ReflectionTestUtils.setField(guard, "window", 4);
+		ReflectionTestUtils.setField(guard, "failureRate", 0.5);
+		ReflectionTestUtils.setField(guard, "openMs", openMs);
+		return guard;
+	}
+}
@@ -0,0 +1,112 @@
+package com.chatbot.yoo.chatbot.upstream;
+
+import com.chatbot.yoo.chatbot.stats.GatewayMetrics;
+import com.chatbot.yoo.chatbot.trace.Tracer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamHedgerTest {
+
+	final List<HttpServer> servers = new ArrayList<>();
+	final CloseableHttpClient http = HttpClients.createDefault();
+
+	@AfterEach
+	void stop() throws IOException {
+		servers.forEach(s -> s.stop(0));
+		http.close();
+	}
+
+	@Test
+	void slowInstanceIsHedgedToOtherInstance() throws Exception {
+		AtomicLong slowMs = new AtomicLong();
+		String a = start("a", slowMs);
+		String b = start("b", new AtomicLong());
+		UpstreamHedger hedger = newHedger(UpstreamBalancerTest.newBalancer(a, b), 100, 100);
+
+		for (int i = 0; i < 64; i++) assertEquals(200, call(hedger));   // 지연 분포 수집
+		slowMs.set(2_000);
+		for (int i = 0; i < 10; i++) {
+			long t0 = System.nanoTime();
+			assertEquals(200, call(hedger));
+			assertTrue((System.nanoTime() - t0) / 1_000_000 < 1_000);
+		}
+		assertTrue((Long) hedger.snapshot().get("hedgeWins") > 0);
+	}
+
+	@Test
+	void budgetCapsHedges() throws Exception {
+		AtomicLong slowMs = new AtomicLong();
+		String a = start("a", slowMs);
+		String b = start("b", slowMs);
+		UpstreamHedger hedger = newHedger(UpstreamBalancerTest.newBalancer(a, b), 10, 1);
+
+		for (int i = 0; i < 64; i++) call(hedger);
+		slowMs.set(100);
+		for (int i = 0; i < 20; i++) call(hedger);
+
+		// 84건 × 10% → 최대 8건
+		assertTrue((Long) hedger.snapshot().get("hedges") <= 8);
+		assertTrue((Long) hedger.snapshot().get("budgetDenied") > 0);
+	}
+
+	private int call(UpstreamHedger hedger) throws IOException {
+		try (UpstreamHedger.Winner w = hedger.post("/api/tts", "/api/tts", "{}".getBytes(StandardCharsets.UTF_8), "audio/mpeg")) {
+			w.body().readAllBytes();
+			w.permit().success();
+			return w.status();
+		}
+	}
+
+	private String start(String name, AtomicLong delayMs) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/api/tts", ex -> {
+			ex.getRequestBody().readAllBytes();
+			try {
+				Thread.sleep(delayMs.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] audio = name.getBytes(StandardCharsets.UTF_8);
+			ex.getResponseHeaders().set("Content-Type", "audio/mpeg");
+			ex.sendResponseHeaders(200, audio.length);
+			try (OutputStream out = ex.getResponseBody()) {
+				out.write(audio);
+			} catch (IOException ignored) {
+				// hedge 로 취소된 쪽
+			}
+		});
+		server.start();
+		servers.add(server);
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	private UpstreamHedger newHedger(UpstreamBalancer balancer, double budgetPercent, double burst) {
+		UpstreamGuard guard = new UpstreamGuard(balancer, new GatewayMetrics(new SimpleMeterRegistry()), new Tracer());
+		ReflectionTestUtils.setField(guard, "enabled", false);
+		UpstreamHedger hedger = new UpstreamHedger(http, guard);
+		ReflectionTestUtils.setField(hedger, "enabled", true);
+		ReflectionTestUtils.setField(hedger, "percentile", 0.95);
+		ReflectionTestUtils.setField(hedger, "minDelayMs", 20L);
+		ReflectionTestUtils.setField(hedger, "budgetPercent", budgetPercent);
+		ReflectionTestUtils.setField(hedger, "burst", burst);
+		return hedger;
+	}
+}
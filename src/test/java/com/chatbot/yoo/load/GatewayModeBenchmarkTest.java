@@ -0,0 +1,95 @@
+package com.chatbot.yoo.load;
+
+import com.chatbot.yoo.YooApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 stub upstream 을 두고 blocking / virtual / reactive 게이트웨이 모드를 비교한다.
+ * 결과 표는 표준 출력과 build/reports/load/gateway-modes.txt 로 남긴다. 실행: ./gradlew loadTest
+ */
+@Tag("load")
+class GatewayModeBenchmarkTest {
+
+	static final long CHAT_DELAY_MS = 200;
+	static final int CHAT_REQUESTS = 4_000;
+	static final int CHAT_CONCURRENCY = 1_000;
+	static final int TTS_REQUESTS = 1_000;
+	static final int TTS_CONCURRENCY = 400;
+
+	static StubFastApi upstream;
+
+	@BeforeAll
+	static void startUpstream() throws Exception {
+		upstream = StubFastApi.start(CHAT_DELAY_MS);
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.close();
+	}
+
+	@Test
+	void compareGatewayModes() throws Exception {
+		List<LoadDriver.Report> reports = new ArrayList<>();
+		List<LoadDriver.Report> nonBlocking = new ArrayList<>();
+		for (String profile : new String[]{"default", "virtual", "reactive"}) {
+			List<LoadDriver.Report> r = runMode(profile);
+			reports.addAll(r);
+			if (!profile.equals("default")) nonBlocking.addAll(r);
+		}
+
+		LoadDriver.report("gateway-modes", "gateway mode benchmark", reports);
+		for (LoadDriver.Report r : nonBlocking) {
+			assertEquals(0, r.errors(), r.scenario());
+		}
+	}
+
+	private List<LoadDriver.Report> runMode(String profile) throws Exception {
+		SpringApplicationBuilder app = new SpringApplicationBuilder(YooApplication.class)
+				.properties("server.port=0", "fastapi.chat=" + upstream.baseUrl(),
+						"fastapi.pool.max-total=2000", "fastapi.pool.max-per-route=2000",
+						"fastapi.guard.enabled=false",
+						// reactive 모드에는 coalescing/TTS 캐시가 없으므로 모두 꺼서 모드끼리만 비교
+						"fastapi.coalesce.enabled=false", "fastapi.tts.cache.enabled=false");
+		if (!profile.equals("default")) app.profiles(profile);
+
+		try (ConfigurableApplicationContext ctx = app.run()) {
+			int port = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			String base = "http://127.0.0.1:" + port;
+			HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.build();
+
+			List<LoadDriver.Report> out = new ArrayList<>();
+			out.add(LoadDriver.run(profile + " chat", client, CHAT_REQUESTS, CHAT_CONCURRENCY,
+					() -> post(base + "/api/chat", "{\"message\":\"bench\",\"lang\":\"ko-KR\"}")));
+			out.add(LoadDriver.run(profile + " tts", client, TTS_REQUESTS, TTS_CONCURRENCY,
+					() -> post(base + "/api/tts", "{\"text\":\"bench\",\"fmt\":\"MP3\"}")));
+			return out;
+		}
+	}
+
+	private static HttpRequest post(String url, String json) {
+		return HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+	}
+}
@@ -0,0 +1,130 @@
+package com.chatbot.yoo.load;
+
+import com.chatbot.yoo.YooApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 실제 사용 패턴에 가까운 시나리오 부하 테스트 (기본 blocking 모드, 로컬 stub upstream).
+ * - chat burst: 서로 다른 질문이 한꺼번에 몰림 (LLM 지연은 로그정규 분포)
+ * - voice upload storm: 64KB~1MB 음성 multipart 업로드 폭주
+ * - tts replay: 같은 문장 몇 개를 반복 재생 (TtsCache/coalescing 으로 upstream 호출이 문장 수 수준이어야 함)
+ * guard 는 꺼서 게이트웨이 자체의 처리량/지연만 본다. 결과: build/reports/load/scenarios.txt. 실행: ./gradlew loadTest
+ */
+@Tag("load")
+class GatewayScenarioLoadTest {
+
+	static final int CHAT_REQUESTS = 3_000;
+	static final int CHAT_CONCURRENCY = 500;
+	static final int STT_REQUESTS = 600;
+	static final int STT_CONCURRENCY = 150;
+	static final int TTS_REQUESTS = 3_000;
+	static final int TTS_CONCURRENCY = 300;
+	static final int TTS_DISTINCT = 20;
+	static final double MAX_ERROR_RATE = 0.01;
+
+	static StubFastApi upstream;
+	static ConfigurableApplicationContext gateway;
+	static HttpClient client;
+	static String base;
+
+	@TempDir
+	static Path ttsCacheDir;
+
+	@BeforeAll
+	static void start() throws Exception {
+		upstream = StubFastApi.start(new StubFastApi.Config(
+				StubFastApi.Latency.logNormal(300, 0.6, 5_000), 800,
+				StubFastApi.Latency.uniform(100, 400),
+				StubFastApi.Latency.logNormal(150, 0.4, 2_000), 16 * 1024, 8, 5,
+				0));
+		gateway = new SpringApplicationBuilder(YooApplication.class)
+				.properties("server.port=0", "fastapi.chat=" + upstream.baseUrl(),
+						"fastapi.pool.max-total=1000", "fastapi.pool.max-per-route=1000",
+						"fastapi.guard.enabled=false",
+						"fastapi.tts.cache.disk-dir=" + ttsCacheDir)
+				.run();
+		base = "http://127.0.0.1:" + gateway.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+		client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+	}
+
+	@AfterAll
+	static void stop() {
+		if (gateway != null) gateway.close();
+		upstream.close();
+	}
+
+	@Test
+	void scenarios() throws Exception {
+		List<LoadDriver.Report> reports = new ArrayList<>();
+
+		AtomicInteger seq = new AtomicInteger();
+		reports.add(LoadDriver.run("chat burst", client, CHAT_REQUESTS, CHAT_CONCURRENCY,
+				() -> json("/api/chat", "{\"message\":\"질문 " + seq.incrementAndGet() + "\",\"lang\":\"ko-KR\"}")));
+
+		List<byte[]> uploads = new ArrayList<>();
+		for (int kb : new int[]{64, 128, 256, 512, 768, 1024}) uploads.add(new byte[kb * 1024]);
+		reports.add(LoadDriver.run("voice upload storm", client, STT_REQUESTS, STT_CONCURRENCY,
+				() -> multipart("/api/stt?lang=Kor", uploads.get(ThreadLocalRandom.current().nextInt(uploads.size())))));
+
+		reports.add(LoadDriver.run("tts replay", client, TTS_REQUESTS, TTS_CONCURRENCY,
+				() -> json("/api/tts", "{\"text\":\"문장 " + ThreadLocalRandom.current().nextInt(TTS_DISTINCT) + "\",\"fmt\":\"MP3\"}")));
+
+		LoadDriver.report("scenarios", "gateway scenarios", reports);
+		System.out.printf("upstream calls: chat=%d stt=%d tts=%d%n",
+				upstream.calls("/chat"), upstream.calls("/api/stt"), upstream.calls("/api/tts"));
+
+		for (LoadDriver.Report r : reports) {
+			assertTrue(r.errorRate() <= MAX_ERROR_RATE, r.toString());
+		}
+		// 반복 재생은 캐시/coalescing 으로 흡수: 문장당 upstream 호출 몇 번 이내
+		assertTrue(upstream.calls("/api/tts") <= TTS_DISTINCT * 3L, "tts replay reached upstream too often");
+	}
+
+	private static HttpRequest json(String path, String body) {
+		return HttpRequest.newBuilder(URI.create(base + path))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	private static HttpRequest multipart(String path, byte[] audio) {
+		String boundary = "load" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+		ByteArrayOutputStream body = new ByteArrayOutputStream(audio.length + 256);
+		body.writeBytes(("--" + boundary + "\r\n"
+				+ "Content-Disposition: form-data; name=\"audio_file\"; filename=\"voice.webm\"\r\n"
+				+ "Content-Type: audio/webm\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.writeBytes(audio);
+		body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		return HttpRequest.newBuilder(URI.create(base + path))
+				.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+				.build();
+	}
+}
@@ -0,0 +1,90 @@
+package com.chatbot.yoo.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 폐쇄형(closed-loop) 부하 발생기. 동시성 상한 안에서 요청을 보내고 지연 분포/에러율을 집계한다.
+ * 결과는 report() 로 build/reports/load/ 아래 텍스트 표로 남긴다.
+ */
+final class LoadDriver {
+
+	record Report(String scenario, int requests, int errors, long elapsedMs, long p50Ms, long p95Ms, long p99Ms) {
+
+		double throughput() {
+			return elapsedMs == 0 ? 0 : requests * 1000.0 / elapsedMs;
+		}
+
+		double errorRate() {
+			return requests == 0 ? 0 : (double) errors / requests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-28s n=%-6d rps=%-9.1f p50=%-6d p95=%-6d p99=%-6d err=%.2f%%",
+					scenario, requests, throughput(), p50Ms, p95Ms, p99Ms, errorRate() * 100);
+		}
+	}
+
+	private LoadDriver() {
+	}
+
+	static Report run(String scenario, HttpClient client, int total, int concurrency,
+					  Supplier<HttpRequest> requests) throws InterruptedException {
+		long[] latencies = new long[total];
+		AtomicInteger errors = new AtomicInteger();
+		Semaphore permits = new Semaphore(concurrency);
+
+		long t0 = System.nanoTime();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < total; i++) {
+				permits.acquire();
+				final int slot = i;
+				pool.execute(() -> {
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> res = client.send(requests.get(), HttpResponse.BodyHandlers.discarding());
+						if (res.statusCode() >= 400) errors.incrementAndGet();
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					} finally {
+						latencies[slot] = (System.nanoTime() - start) / 1_000_000;
+						permits.release();
+					}
+				});
+			}
+		}
+		long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+		Arrays.sort(latencies);
+		return new Report(scenario, total, errors.get(), elapsedMs,
+				percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99));
+	}
+
+	/** 표준 출력과 build/reports/load/{name}.txt 에 같은 표를 남긴다. */
+	static void report(String name, String title, List<Report> reports) throws IOException {
+		StringBuilder sb = new StringBuilder("=== ").append(title).append(" (latency ms) ===\n");
+		reports.forEach(r -> sb.append(r).append('\n'));
+		System.out.print(sb);
+		Path dir = Path.of("build", "reports", "load");
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve(name + ".txt"), sb);
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) return 0;
+		int idx = (int) Math.ceil(p * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+	}
+}
@@ -0,0 +1,211 @@
+package com.chatbot.yoo.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 테스트용 FastAPI 대역. /chat, /chat/stream, /reset, /api/stt, /api/tts, /health 를
+ * 라우트별 지연 분포(Latency)와 응답 크기(Config)대로 응답하고, 라우트별 호출 수와
+ * 동시 처리 중인 /chat 요청 수의 최대값을 기록한다.
+ */
+final class StubFastApi implements AutoCloseable {
+
+	/** 응답 지연 분포 (ms). */
+	interface Latency {
+		long sampleMs();
+
+		static Latency fixed(long ms) {
+			return () -> ms;
+		}
+
+		static Latency uniform(long minMs, long maxMs) {
+			return () -> ThreadLocalRandom.current().nextLong(minMs, maxMs + 1);
+		}
+
+		/** 중앙값 medianMs, 로그 표준편차 sigma 의 로그정규 분포 (LLM 응답처럼 긴 꼬리), capMs 에서 자름. */
+		static Latency logNormal(long medianMs, double sigma, long capMs) {
+			return () -> Math.min(capMs, Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+		}
+	}
+
+	/**
+	 * 라우트별 지연/응답 크기. errorRate 비율만큼 /chat, /api/stt, /api/tts 가 503 을 돌려준다.
+	 * ttsLatency 는 첫 바이트까지, 이후 청크마다 ttsChunkDelayMs.
+	 */
+	record Config(Latency chatLatency, int chatAnswerBytes,
+				  Latency sttLatency,
+				  Latency ttsLatency, int ttsChunkBytes, int ttsChunks, long ttsChunkDelayMs,
+				  double errorRate) {
+
+		// TTS 응답: 16KB x 16청크, 청크 사이 10ms (느린 오디오 다운로드 흉내)
+		static Config fixed(long chatDelayMs) {
+			return new Config(Latency.fixed(chatDelayMs), 2, Latency.fixed(0),
+					Latency.fixed(0), 16 * 1024, 16, 10, 0);
+		}
+	}
+
+	private final HttpServer server;
+	private final Config config;
+	private final byte[] chatBody;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peak = new AtomicInteger();
+	private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+	private StubFastApi(HttpServer server, Config config) {
+		this.server = server;
+		this.config = config;
+		char[] answer = new char[Math.max(1, config.chatAnswerBytes())];
+		Arrays.fill(answer, 'a');
+		this.chatBody = ("{\"answer\":\"" + new String(answer) + "\",\"session_id\":\"default\"}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	static StubFastApi start(long chatDelayMs) throws IOException {
+		return start(Config.fixed(chatDelayMs));
+	}
+
+	static StubFastApi start(Config config) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 8192);
+		StubFastApi stub = new StubFastApi(server, config);
+		server.createContext("/chat", stub::chat);
+		server.createContext("/chat/stream", stub::chatStream);
+		server.createContext("/reset", ex -> stub.respond(ex, "/reset", 200, "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8)));
+		server.createContext("/api/stt", stub::stt);
+		server.createContext("/api/tts", stub::tts);
+		server.createContext("/health", ex -> respond(ex, 200, "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8)));
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+		return stub;
+	}
+
+	String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	int peakInFlight() {
+		return peak.get();
+	}
+
+	/** route 로 들어온 요청 수 (예: "/api/tts") */
+	long calls(String route) {
+		LongAdder n = calls.get(route);
+		return n != null ? n.sum() : 0;
+	}
+
+	private void chat(HttpExchange ex) throws IOException {
+		peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try (InputStream in = ex.getRequestBody()) {
+			in.readAllBytes();
+			sleep(config.chatLatency());
+			if (fail()) respond(ex, "/chat", 503, "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8));
+			else respond(ex, "/chat", 200, chatBody);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respond(ex, 503, "{\"error\":\"interrupted\"}".getBytes(StandardCharsets.UTF_8));
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	// 답변을 4조각 delta 로 나눠 보내고 done 프레임에 전체 답변
+	private void chatStream(HttpExchange ex) throws IOException {
+		count("/chat/stream");
+		try (InputStream in = ex.getRequestBody()) {
+			in.readAllBytes();
+		}
+		ex.getResponseHeaders().set("Content-Type", "text/event-stream");
+		ex.sendResponseHeaders(200, 0);
+		try (OutputStream out = ex.getResponseBody()) {
+			long per = config.chatLatency().sampleMs() / 4;
+			for (int i = 0; i < 4; i++) {
+				Thread.sleep(per);
+				out.write("data: {\"delta\":\"a\"}\n\n".getBytes(StandardCharsets.UTF_8));
+				out.flush();
+			}
+			out.write("event: done\ndata: {\"session_id\":\"default\",\"answer\":\"aaaa\"}\n\n".getBytes(StandardCharsets.UTF_8));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void stt(HttpExchange ex) throws IOException {
+		try (InputStream in = ex.getRequestBody()) {
+			in.transferTo(OutputStream.nullOutputStream());
+			sleep(config.sttLatency());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (fail()) respond(ex, "/api/stt", 503, "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8));
+		else respond(ex, "/api/stt", 200, "{\"text\":\"ok\",\"lang\":\"Kor\"}".getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void tts(HttpExchange ex) throws IOException {
+		count("/api/tts");
+		try (InputStream in = ex.getRequestBody()) {
+			in.readAllBytes();
+		}
+		try {
+			sleep(config.ttsLatency());
+			if (fail()) {
+				respond(ex, 503, "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			ex.getResponseHeaders().set("Content-Type", "audio/mpeg");
+			ex.getResponseHeaders().set("Content-Disposition", "inline; filename=\"speech.mp3\"");
+			ex.sendResponseHeaders(200, (long) config.ttsChunkBytes() * config.ttsChunks());
+			byte[] chunk = new byte[config.ttsChunkBytes()];
+			try (OutputStream out = ex.getResponseBody()) {
+				for (int i = 0; i < config.ttsChunks(); i++) {
+					out.write(chunk);
+					out.flush();
+					if (config.ttsChunkDelayMs() > 0) Thread.sleep(config.ttsChunkDelayMs());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean fail() {
+		return config.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate();
+	}
+
+	private static void sleep(Latency latency) throws InterruptedException {
+		long ms = latency.sampleMs();
+		if (ms > 0) Thread.sleep(ms);
+	}
+
+	private void count(String route) {
+		calls.computeIfAbsent(route, k -> new LongAdder()).increment();
+	}
+
+	private void respond(HttpExchange ex, String route, int status, byte[] json) throws IOException {
+		count(route);
+		respond(ex, status, json);
+	}
+
+	private static void respond(HttpExchange ex, int status, byte[] json) throws IOException {
+		ex.getResponseHeaders().set("Content-Type", "application/json");
+		ex.sendResponseHeaders(status, json.length);
+		try (OutputStream out = ex.getResponseBody()) {
+			out.write(json);
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
@@ -0,0 +1,86 @@
+package com.chatbot.yoo.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * virtual 프로파일에서 5k 동시 /api/chat 이 커넥터 대기열/거절 없이 upstream 까지 동시에 도달하는지 확인.
+ * 소켓을 약 2만 개 쓰므로 ulimit -n 이 충분해야 한다. 실행: ./gradlew loadTest
+ */
+@Tag("load")
+@ActiveProfiles("virtual")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		// 같은 본문 5,000건이라 coalescing 을 끄지 않으면 upstream 호출이 1건으로 합쳐짐
+		properties = {"fastapi.pool.acquire-timeout-ms=30000", "fastapi.coalesce.enabled=false"})
+class VirtualThreadLoadTest {
+
+	static final int CONCURRENCY = 5_000;
+	static final long UPSTREAM_DELAY_MS = 5_000;
+
+	static StubFastApi upstream;
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstream(DynamicPropertyRegistry registry) throws IOException {
+		upstream = StubFastApi.start(UPSTREAM_DELAY_MS);
+		registry.add("fastapi.chat", upstream::baseUrl);
+	}
+
+	@AfterAll
+	static void stopUpstream() {
+		upstream.close();
+	}
+
+	@Test
+	void sustainsFiveThousandInFlightChats() throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/chat"))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"load\",\"lang\":\"ko-KR\"}"))
+				.build();
+
+		long t0 = System.nanoTime();
+		List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>(CONCURRENCY);
+		for (int i = 0; i < CONCURRENCY; i++) {
+			futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+		}
+		int ok = 0;
+		for (CompletableFuture<HttpResponse<String>> f : futures) {
+			if (f.get().statusCode() == 200) ok++;
+		}
+		long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+		System.out.printf("virtual: %d/%d ok, peak upstream in-flight=%d, elapsed=%dms%n",
+				ok, CONCURRENCY, upstream.peakInFlight(), elapsedMs);
+		assertEquals(CONCURRENCY, ok, "rejected or failed requests");
+		assertTrue(upstream.peakInFlight() >= CONCURRENCY, "requests were queued before reaching upstream");
+		assertTrue(elapsedMs < UPSTREAM_DELAY_MS * 2, "requests were served in waves, not concurrently");
+	}
+}